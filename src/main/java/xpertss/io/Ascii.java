@@ -0,0 +1,361 @@
+package xpertss.io;
+
+import java.nio.ByteBuffer;
+import java.text.ParsePosition;
+
+import static java.lang.String.format;
+
+/**
+ * Utility class for parsing decimal numbers encoded as ASCII text directly from
+ * bytes without first decoding them into a String.
+ * <p>
+ * Each parser comes in two forms. The first parses exactly the given range and
+ * throws a {@link NumberFormatException} if the range does not hold a valid number.
+ * The second parses the longest valid number starting at the given offset and
+ * reports how much of the range it consumed via a {@link ParsePosition}, allowing a
+ * tokenizer to parse fields in place. On success the position's index is set to the
+ * index following the last byte consumed. On failure the index is set to the offset,
+ * the error index is set to the index of the offending byte, and zero is returned.
+ * <p>
+ * Methods operating on a {@link ByteBuffer} use absolute indices and do not modify
+ * the buffer's position or limit.
+ * <p>
+ * The grammar accepted is that of {@link Integer#parseInt(String)}, {@link
+ * Long#parseLong(String)}, and the decimal form of {@link Double#parseDouble(String)}
+ * restricted to ASCII digits. Leading and trailing whitespace is not permitted.
+ */
+@SuppressWarnings("UnusedDeclaration")
+public final class Ascii {
+
+   private static final double[] POWERS = {
+      1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+      1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+   };
+
+   private Ascii() { }
+
+
+   /**
+    * Parse the given range of bytes into an int.
+    *
+    * @throws NumberFormatException if the range does not hold a valid int
+    * @throws IndexOutOfBoundsException if the range lies outside the array
+    */
+   public static int parseInt(byte[] data, int offset, int len)
+   {
+      checkRange(data.length, offset, len);
+      return (int) exact(data, null, offset, offset + len, Integer.MIN_VALUE, Integer.MAX_VALUE);
+   }
+
+   /**
+    * Parse the longest int found at the start of the given range of bytes reporting
+    * the number of bytes consumed through the supplied parse position.
+    *
+    * @throws IndexOutOfBoundsException if the range lies outside the array
+    */
+   public static int parseInt(byte[] data, int offset, int len, ParsePosition pos)
+   {
+      checkRange(data.length, offset, len);
+      return (int) parse(data, null, offset, offset + len, Integer.MIN_VALUE, Integer.MAX_VALUE, pos);
+   }
+
+   /**
+    * Parse the given range of the buffer into an int.
+    *
+    * @throws NumberFormatException if the range does not hold a valid int
+    * @throws IndexOutOfBoundsException if the range lies outside the buffer's limit
+    */
+   public static int parseInt(ByteBuffer buf, int offset, int len)
+   {
+      checkRange(buf.limit(), offset, len);
+      return (int) exact(null, buf, offset, offset + len, Integer.MIN_VALUE, Integer.MAX_VALUE);
+   }
+
+   /**
+    * Parse the longest int found at the start of the given range of the buffer
+    * reporting the number of bytes consumed through the supplied parse position.
+    *
+    * @throws IndexOutOfBoundsException if the range lies outside the buffer's limit
+    */
+   public static int parseInt(ByteBuffer buf, int offset, int len, ParsePosition pos)
+   {
+      checkRange(buf.limit(), offset, len);
+      return (int) parse(null, buf, offset, offset + len, Integer.MIN_VALUE, Integer.MAX_VALUE, pos);
+   }
+
+
+
+
+   /**
+    * Parse the given range of bytes into a long.
+    *
+    * @throws NumberFormatException if the range does not hold a valid long
+    * @throws IndexOutOfBoundsException if the range lies outside the array
+    */
+   public static long parseLong(byte[] data, int offset, int len)
+   {
+      checkRange(data.length, offset, len);
+      return exact(data, null, offset, offset + len, Long.MIN_VALUE, Long.MAX_VALUE);
+   }
+
+   /**
+    * Parse the longest long found at the start of the given range of bytes reporting
+    * the number of bytes consumed through the supplied parse position.
+    *
+    * @throws IndexOutOfBoundsException if the range lies outside the array
+    */
+   public static long parseLong(byte[] data, int offset, int len, ParsePosition pos)
+   {
+      checkRange(data.length, offset, len);
+      return parse(data, null, offset, offset + len, Long.MIN_VALUE, Long.MAX_VALUE, pos);
+   }
+
+   /**
+    * Parse the given range of the buffer into a long.
+    *
+    * @throws NumberFormatException if the range does not hold a valid long
+    * @throws IndexOutOfBoundsException if the range lies outside the buffer's limit
+    */
+   public static long parseLong(ByteBuffer buf, int offset, int len)
+   {
+      checkRange(buf.limit(), offset, len);
+      return exact(null, buf, offset, offset + len, Long.MIN_VALUE, Long.MAX_VALUE);
+   }
+
+   /**
+    * Parse the longest long found at the start of the given range of the buffer
+    * reporting the number of bytes consumed through the supplied parse position.
+    *
+    * @throws IndexOutOfBoundsException if the range lies outside the buffer's limit
+    */
+   public static long parseLong(ByteBuffer buf, int offset, int len, ParsePosition pos)
+   {
+      checkRange(buf.limit(), offset, len);
+      return parse(null, buf, offset, offset + len, Long.MIN_VALUE, Long.MAX_VALUE, pos);
+   }
+
+
+
+
+   /**
+    * Parse the given range of bytes into a double.
+    * <p>
+    * Values whose significant digits form an integer below 2<sup>53</sup> and whose
+    * decimal exponent, once those digits are read as an integer, lies within
+    * [-22, 22] are computed exactly without allocation. Others fall back to {@link
+    * Double#parseDouble(String)} to guarantee correct rounding.
+    *
+    * @throws NumberFormatException if the range does not hold a valid double
+    * @throws IndexOutOfBoundsException if the range lies outside the array
+    */
+   public static double parseDouble(byte[] data, int offset, int len)
+   {
+      checkRange(data.length, offset, len);
+      return exact(data, null, offset, offset + len);
+   }
+
+   /**
+    * Parse the longest double found at the start of the given range of bytes
+    * reporting the number of bytes consumed through the supplied parse position.
+    *
+    * @throws IndexOutOfBoundsException if the range lies outside the array
+    */
+   public static double parseDouble(byte[] data, int offset, int len, ParsePosition pos)
+   {
+      checkRange(data.length, offset, len);
+      return parse(data, null, offset, offset + len, pos);
+   }
+
+   /**
+    * Parse the given range of the buffer into a double.
+    *
+    * @throws NumberFormatException if the range does not hold a valid double
+    * @throws IndexOutOfBoundsException if the range lies outside the buffer's limit
+    */
+   public static double parseDouble(ByteBuffer buf, int offset, int len)
+   {
+      checkRange(buf.limit(), offset, len);
+      return exact(null, buf, offset, offset + len);
+   }
+
+   /**
+    * Parse the longest double found at the start of the given range of the buffer
+    * reporting the number of bytes consumed through the supplied parse position.
+    *
+    * @throws IndexOutOfBoundsException if the range lies outside the buffer's limit
+    */
+   public static double parseDouble(ByteBuffer buf, int offset, int len, ParsePosition pos)
+   {
+      checkRange(buf.limit(), offset, len);
+      return parse(null, buf, offset, offset + len, pos);
+   }
+
+
+
+
+   private static void checkRange(int length, int offset, int len)
+   {
+      if(offset < 0 || len < 0 || offset > length - len)
+         throw new IndexOutOfBoundsException(format("offset %d, len %d, length %d", offset, len, length));
+   }
+
+   private static int at(byte[] data, ByteBuffer buf, int index)
+   {
+      return (data != null) ? data[index] : buf.get(index);
+   }
+
+   private static NumberFormatException invalid(byte[] data, ByteBuffer buf, int start, int end)
+   {
+      return new NumberFormatException("For input string: \"" + text(data, buf, start, end) + "\"");
+   }
+
+   private static String text(byte[] data, ByteBuffer buf, int start, int end)
+   {
+      char[] chars = new char[end - start];
+      for(int i = start; i < end; i++) chars[i - start] = (char) (at(data, buf, i) & 0xff);
+      return new String(chars);
+   }
+
+
+
+   private static long exact(byte[] data, ByteBuffer buf, int start, int end, long min, long max)
+   {
+      ParsePosition pos = new ParsePosition(start);
+      long result = parse(data, buf, start, end, min, max, pos);
+      if(pos.getErrorIndex() >= 0 || pos.getIndex() != end) throw invalid(data, buf, start, end);
+      return result;
+   }
+
+   /*
+    * Accumulates the value negatively so that the magnitude of min may exceed max in
+    * the same manner as Long.parseLong.
+    */
+   private static long parse(byte[] data, ByteBuffer buf, int start, int end, long min, long max, ParsePosition pos)
+   {
+      int i = start;
+      boolean negative = false;
+      long limit = -max;
+      if(i < end) {
+         int c = at(data, buf, i);
+         if(c == '-' || c == '+') {
+            if(c == '-') {
+               negative = true;
+               limit = min;
+            }
+            i++;
+         }
+      }
+      int digits = i;
+      long multmin = limit / 10;
+      long result = 0;
+      for(; i < end; i++) {
+         int digit = at(data, buf, i) - '0';
+         if(digit < 0 || digit > 9) break;
+         if(result < multmin || (result *= 10) < limit + digit) return fail(pos, start, i);
+         result -= digit;
+      }
+      if(i == digits) return fail(pos, start, i);
+      pos.setIndex(i);
+      pos.setErrorIndex(-1);
+      return negative ? result : -result;
+   }
+
+   private static long fail(ParsePosition pos, int start, int error)
+   {
+      pos.setIndex(start);
+      pos.setErrorIndex(error);
+      return 0;
+   }
+
+
+
+   private static double exact(byte[] data, ByteBuffer buf, int start, int end)
+   {
+      ParsePosition pos = new ParsePosition(start);
+      double result = parse(data, buf, start, end, pos);
+      if(pos.getErrorIndex() >= 0 || pos.getIndex() != end) throw invalid(data, buf, start, end);
+      return result;
+   }
+
+   private static double parse(byte[] data, ByteBuffer buf, int start, int end, ParsePosition pos)
+   {
+      int i = start;
+      boolean negative = false;
+      if(i < end) {
+         int c = at(data, buf, i);
+         if(c == '-' || c == '+') {
+            negative = (c == '-');
+            i++;
+         }
+      }
+
+      long mantissa = 0;
+      int significant = 0, exponent = 0;
+      boolean any = false, inexact = false;
+      for(; i < end; i++) {
+         int digit = at(data, buf, i) - '0';
+         if(digit < 0 || digit > 9) break;
+         any = true;
+         if(significant < 18) {
+            if(mantissa != 0 || digit != 0) {
+               mantissa = mantissa * 10 + digit;
+               significant++;
+            }
+         } else {
+            exponent++;
+            inexact |= digit != 0;
+         }
+      }
+      if(i < end && at(data, buf, i) == '.') {
+         int fraction = i + 1;
+         for(i = fraction; i < end; i++) {
+            int digit = at(data, buf, i) - '0';
+            if(digit < 0 || digit > 9) break;
+            if(significant < 18) {
+               if(mantissa != 0 || digit != 0) {
+                  mantissa = mantissa * 10 + digit;
+                  significant++;
+               }
+               exponent--;
+            } else {
+               inexact |= digit != 0;
+            }
+         }
+         if(!any && i == fraction) return fail(pos, start, fraction - 1);
+         any = true;
+      }
+      if(!any) return fail(pos, start, i);
+
+      if(i < end && (at(data, buf, i) | 0x20) == 'e') {
+         int e = i + 1;
+         boolean negativeExp = false;
+         if(e < end && (at(data, buf, e) == '-' || at(data, buf, e) == '+')) {
+            negativeExp = at(data, buf, e) == '-';
+            e++;
+         }
+         int digits = e, value = 0;
+         for(; e < end; e++) {
+            int digit = at(data, buf, e) - '0';
+            if(digit < 0 || digit > 9) break;
+            if(value < 100000) value = value * 10 + digit;
+         }
+         if(e > digits) {
+            exponent += negativeExp ? -value : value;
+            i = e;
+         }
+      }
+
+      double result;
+      if(mantissa == 0) {
+         result = 0;
+      } else if(!inexact && mantissa < (1L << 53) && exponent >= -22 && exponent <= 22) {
+         result = (exponent < 0) ? mantissa / POWERS[-exponent] : mantissa * POWERS[exponent];
+      } else {
+         result = Math.abs(Double.parseDouble(text(data, buf, start, i)));
+      }
+      pos.setIndex(i);
+      pos.setErrorIndex(-1);
+      return negative ? -result : result;
+   }
+
+}
@@ -5,6 +5,7 @@ package xpertss.io;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
 import java.nio.channels.Channel;
 import java.nio.channels.Channels;
 import java.nio.channels.IllegalBlockingModeException;
@@ -14,12 +15,14 @@ import java.nio.channels.SelectionKey;
 import java.nio.channels.Selector;
 import java.nio.channels.SocketChannel;
 import java.nio.channels.DatagramChannel;
+import java.nio.channels.FileChannel;
 import java.nio.channels.ServerSocketChannel;
 import java.nio.channels.WritableByteChannel;
 import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.LinkOption;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.function.Predicate;
 
 /**
@@ -554,6 +557,28 @@ public final class NIOUtils {
 
 
 
+   /**
+    * Maps the entire contents of the specified file into memory as a read-only
+    * buffer. The file channel used to create the mapping is closed before this
+    * returns. The mapping itself remains valid until the returned buffer is
+    * garbage collected.
+    *
+    * @param path - The file to map
+    * @throws IOException if an I/O error occurs
+    * @throws IllegalArgumentException if the file is larger than 2GB
+    */
+   public static MappedByteBuffer mapReadOnly(Path path)
+      throws IOException
+   {
+      try(FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+         if(channel.size() > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("file too large to map: " + path);
+         return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+      }
+   }
+
+
+
 
 
 
@@ -0,0 +1,263 @@
+package xpertss.lang;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import static java.lang.String.format;
+
+/**
+ * A growable array of primitive {@code byte}s used to build an array incrementally.
+ * <p>
+ * The static {@link Bytes#append(byte[], byte...)}, {@link Bytes#prepend(byte[], byte...)}, and
+ * {@link Bytes#insert(int, byte[], byte...)} helpers allocate an array sized exactly to
+ * their result on every call, so building an array with them in a loop takes
+ * quadratic time. A builder instead grows its backing array geometrically so that
+ * appending n values takes amortized linear time. The static helpers remain the
+ * simpler choice for one-shot concatenation.
+ * <p>
+ * When the backing array is exactly full {@link #toArray()} returns it without a
+ * copy. The builder then copies it before its next modification so that an array
+ * which has been returned is never changed by the builder.
+ * <pre>
+ *    ByteArrayBuilder builder = new ByteArrayBuilder(expected);
+ *    for(...) builder.append(value);
+ *    byte[] result = builder.toArray();
+ * </pre>
+ * This class is NOT thread safe and external thread synchronization will be
+ * necessary if multiple concurrent threads read and write to it.
+ *
+ * @see Bytes
+ */
+public final class ByteArrayBuilder {
+
+   private static final int DEFAULT_CAPACITY = 16;
+   private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+
+   private byte[] elements;
+   private int size;
+   private boolean shared;
+
+
+   /**
+    * Create an empty builder with an initial capacity of sixteen.
+    */
+   public ByteArrayBuilder()
+   {
+      this(DEFAULT_CAPACITY);
+   }
+
+   /**
+    * Create an empty builder with the specified initial capacity. A builder whose
+    * capacity matches the final size exactly returns its result without a copy.
+    *
+    * @param capacity the initial capacity
+    * @throws IllegalArgumentException if capacity is negative
+    */
+   public ByteArrayBuilder(int capacity)
+   {
+      this.elements = new byte[Numbers.gte(0, capacity, "capacity")];
+   }
+
+
+   /**
+    * Returns the number of values in this builder.
+    */
+   public int size()
+   {
+      return size;
+   }
+
+   /**
+    * Returns {@code true} if this builder holds no values.
+    */
+   public boolean isEmpty()
+   {
+      return size == 0;
+   }
+
+   /**
+    * Returns the number of values this builder can hold before it must grow.
+    */
+   public int capacity()
+   {
+      return elements.length;
+   }
+
+
+   /**
+    * Returns the value at the specified index.
+    *
+    * @throws IndexOutOfBoundsException if the index is not within [0, size)
+    */
+   public byte get(int index)
+   {
+      return elements[checkIndex(index, size)];
+   }
+
+   /**
+    * Replace the value at the specified index returning the value previously there.
+    *
+    * @throws IndexOutOfBoundsException if the index is not within [0, size)
+    */
+   public byte set(int index, byte value)
+   {
+      checkIndex(index, size);
+      writable(size);
+      byte previous = elements[index];
+      elements[index] = value;
+      return previous;
+   }
+
+
+   /**
+    * Append the given value.
+    */
+   public ByteArrayBuilder append(byte value)
+   {
+      writable(size + 1);
+      elements[size++] = value;
+      return this;
+   }
+
+   /**
+    * Append all of the given values.
+    *
+    * @throws NullPointerException if values is {@code null}
+    */
+   public ByteArrayBuilder append(byte ... values)
+   {
+      return append(values, 0, Objects.notNull(values, "values").length);
+   }
+
+   /**
+    * Append length values from the given array starting at offset.
+    *
+    * @throws NullPointerException if values is {@code null}
+    * @throws IndexOutOfBoundsException if the range lies outside the array
+    */
+   public ByteArrayBuilder append(byte[] values, int offset, int length)
+   {
+      int total = Objects.notNull(values, "values").length;
+      if(offset < 0 || length < 0 || offset > total - length)
+         throw new IndexOutOfBoundsException(format("offset %d, length %d, array length %d", offset, length, total));
+      writable(size + length);
+      System.arraycopy(values, offset, elements, size, length);
+      size += length;
+      return this;
+   }
+
+   /**
+    * Append the values remaining in the given buffer. The buffer's position is
+    * advanced to its limit.
+    *
+    * @throws NullPointerException if buf is {@code null}
+    */
+   public ByteArrayBuilder append(ByteBuffer buf)
+   {
+      int length = Objects.notNull(buf, "buf").remaining();
+      writable(size + length);
+      buf.get(elements, size, length);
+      size += length;
+      return this;
+   }
+
+   /**
+    * Insert all of the given values before the current values.
+    *
+    * @throws NullPointerException if values is {@code null}
+    */
+   public ByteArrayBuilder prepend(byte ... values)
+   {
+      return insert(0, values);
+   }
+
+   /**
+    * Insert all of the given values at the specified index shifting the values at
+    * and after that index to follow them.
+    *
+    * @throws NullPointerException if values is {@code null}
+    * @throws IndexOutOfBoundsException if the index is not within [0, size]
+    */
+   public ByteArrayBuilder insert(int index, byte ... values)
+   {
+      if(index < 0 || index > size) throw new IndexOutOfBoundsException(format("index %d, size %d", index, size));
+      int length = Objects.notNull(values, "values").length;
+      writable(size + length);
+      System.arraycopy(elements, index, elements, index + length, size - index);
+      System.arraycopy(values, 0, elements, index, length);
+      size += length;
+      return this;
+   }
+
+
+   /**
+    * Ensure this builder can hold at least the specified number of values without
+    * growing.
+    */
+   public ByteArrayBuilder ensureCapacity(int minCapacity)
+   {
+      if(minCapacity > elements.length) writable(minCapacity);
+      return this;
+   }
+
+   /**
+    * Remove all values from this builder retaining its capacity.
+    */
+   public ByteArrayBuilder clear()
+   {
+      size = 0;
+      return this;
+   }
+
+
+   /**
+    * Returns an array holding the values in this builder. If the builder's capacity
+    * equals its size the backing array itself is returned.
+    */
+   public byte[] toArray()
+   {
+      if(size == elements.length) {
+         shared = true;
+         return elements;
+      }
+      return Arrays.copyOf(elements, size);
+   }
+
+   @Override
+   public String toString()
+   {
+      StringBuilder buf = new StringBuilder(size * 4 + 2).append('[');
+      for(int i = 0; i < size; i++) {
+         if(i > 0) buf.append(", ");
+         buf.append(elements[i]);
+      }
+      return buf.append(']').toString();
+   }
+
+
+
+   /*
+    * Prepare the backing array to hold the given number of values, growing it by
+    * doubling if too small and copying it if it has been handed out by toArray.
+    */
+   private void writable(int minCapacity)
+   {
+      if(minCapacity < 0) throw new OutOfMemoryError("required array size too large");
+      if(minCapacity > elements.length || shared) {
+         int capacity = elements.length;
+         if(minCapacity > capacity) {
+            capacity = (int) Math.min(MAX_CAPACITY, Math.max((long) capacity << 1, DEFAULT_CAPACITY));
+            if(capacity < minCapacity) capacity = minCapacity;
+         }
+         elements = Arrays.copyOf(elements, capacity);
+         shared = false;
+      }
+   }
+
+   private static int checkIndex(int index, int size)
+   {
+      if(index < 0 || index >= size) throw new IndexOutOfBoundsException(format("index %d, size %d", index, size));
+      return index;
+   }
+
+}
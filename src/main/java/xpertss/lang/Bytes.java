@@ -24,7 +24,7 @@ public final class Bytes {
     */
    public static byte parse(CharSequence str, byte def)
    {
-      try { return Byte.parseByte(CharSequences.toString(str)); } catch (Exception e) { return def; }
+      return (str == null) ? def : (byte) Longs.parse(str, 0, str.length(), 10, Byte.MIN_VALUE, Byte.MAX_VALUE, def);
    }
 
    /**
@@ -33,7 +33,36 @@ public final class Bytes {
     */
    public static byte parse(CharSequence str, int radix, byte def)
    {
-      try { return Byte.parseByte(CharSequences.toString(str), radix); } catch (Exception e) { return def; }
+      return (str == null) ? def : (byte) Longs.parse(str, 0, str.length(), radix, Byte.MIN_VALUE, Byte.MAX_VALUE, def);
+   }
+
+   /**
+    * Parse the characters of the given sequence between start (inclusive) and end
+    * (exclusive) into a byte or return the specified default if they do not form
+    * a valid byte. No intermediate string is created and no exception is thrown for
+    * malformed input.
+    *
+    * @throws IndexOutOfBoundsException if start or end are out of range
+    */
+   public static byte parse(CharSequence str, int start, int end, byte def)
+   {
+      return parse(str, start, end, 10, def);
+   }
+
+   /**
+    * Parse the characters of the given sequence between start (inclusive) and end
+    * (exclusive) into a byte using the specified radix or return the specified
+    * default if they do not form a valid byte. No intermediate string is created and
+    * no exception is thrown for malformed input.
+    *
+    * @throws IndexOutOfBoundsException if start or end are out of range
+    */
+   public static byte parse(CharSequence str, int start, int end, int radix, byte def)
+   {
+      if(str == null) return def;
+      if(start < 0 || end > str.length() || start > end)
+         throw new IndexOutOfBoundsException(format("start %d, end %d, length %d", start, end, str.length()));
+      return (byte) Longs.parse(str, start, end, radix, Byte.MIN_VALUE, Byte.MAX_VALUE, def);
    }
 
 
@@ -76,6 +105,22 @@ public final class Bytes {
       return input;
    }
 
+   /**
+    * Null safe method to sort an array into ascending numerical order by splitting
+    * it into sub-arrays which are sorted in parallel in the fork/join common pool
+    * and then merged. Arrays which are small, or when the common pool has a single
+    * thread, are sorted serially.
+    *
+    * @param input The input array to sort
+    * @return The sorted array or {@code null} if the array was {@code null}
+    * @see Arrays#parallelSort(byte[])
+    */
+   public static byte[] sortParallel(byte[] input)
+   {
+      if(input != null) Arrays.parallelSort(input);
+      return input;
+   }
+
    /**
     * Checks if an array is empty or {@code null}.
     *
@@ -231,6 +276,7 @@ public final class Bytes {
     * @param items The elements to append to the end
     * @return A new array with all the items
     * @throws NullPointerException If array is {@code null}
+    * @see ByteArrayBuilder
     */
    public static byte[] append(byte[] array, byte ... items)
    {
@@ -245,6 +291,7 @@ public final class Bytes {
     * @param items The elements to prepend to the beginning
     * @return A new array with all the items
     * @throws NullPointerException If array is {@code null}
+    * @see ByteArrayBuilder
     */
    public static byte[] prepend(byte[] array, byte ... items)
    {
@@ -262,6 +309,7 @@ public final class Bytes {
     * @return A new array with all the items
     * @throws IndexOutOfBoundsException If the given index is invalid
     * @throws NullPointerException If array is {@code null}
+    * @see ByteArrayBuilder
     */
    public static byte[] insert(int idx, byte[] array, byte ... items)
    {
@@ -6,8 +6,8 @@
  */
 package xpertss.lang;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.io.IOException;
+import java.util.function.Function;
 
 /**
  * Utility class for converting between various case formats.
@@ -18,15 +18,12 @@ public enum CaseFormat {
    /**
     * Hyphenated variable naming convention, e.g., "lower-hyphen".
     */
-   LOWER_HYPHEN() {
-      String create(String[] parts)
+   LOWER_HYPHEN('-') {
+      void append(CharSequence str, int start, int end, boolean written, Appendable out)
+         throws IOException
       {
-         StringBuilder builder = new StringBuilder();
-         for(String part : parts) {
-            if(builder.length() > 0) builder.append("-");
-            builder.append(part);
-         }
-         return builder.toString();
+         if(written) out.append('-');
+         appendCased(str, start, end, false, out);
       }
       boolean matches(String str)
       {
@@ -39,24 +36,17 @@ public enum CaseFormat {
          }
          return foundHyphen;
       }
-      String[] parts(String str)
-      {
-         return str.toLowerCase().split("-");
-      }
    },
 
    /**
     * C++ variable naming convention, e.g., "lower_underscore".
     */
-   LOWER_UNDERSCORE() {
-      String create(String[] parts)
+   LOWER_UNDERSCORE('_') {
+      void append(CharSequence str, int start, int end, boolean written, Appendable out)
+         throws IOException
       {
-         StringBuilder builder = new StringBuilder();
-         for(String part : parts) {
-            if(builder.length() > 0) builder.append("_");
-            builder.append(part);
-         }
-         return builder.toString();
+         if(written) out.append('_');
+         appendCased(str, start, end, false, out);
       }
       boolean matches(String str)
       {
@@ -69,27 +59,19 @@ public enum CaseFormat {
          }
          return foundUnderscore;
       }
-      String[] parts(String str)
-      {
-         return str.toLowerCase().split("_");
-      }
    },
 
    /**
     * Java variable naming convention, e.g., "lowerCamel".
     */
-   LOWER_CAMEL() {
-      String create(String[] parts)
+   LOWER_CAMEL('\0') {
+      void append(CharSequence str, int start, int end, boolean written, Appendable out)
+         throws IOException
       {
-         StringBuilder builder = new StringBuilder();
-         for(String part : parts) {
-            if(builder.length() > 0) {
-               builder.append(Strings.firstCharToUpper(part));
-            } else {
-               builder.append(part);
-            }
+         if(written && start < end) {
+            out.append(upper(str.charAt(start++)));
          }
-         return builder.toString();
+         appendCased(str, start, end, false, out);
       }
       boolean matches(String str)
       {
@@ -109,14 +91,14 @@ public enum CaseFormat {
    /**
     * Java and C++ class naming convention, e.g., "UpperCamel".
     */
-   UPPER_CAMEL() {
-      String create(String[] parts)
+   UPPER_CAMEL('\0') {
+      void append(CharSequence str, int start, int end, boolean written, Appendable out)
+         throws IOException
       {
-         StringBuilder builder = new StringBuilder();
-         for(String part : parts) {
-            builder.append(Strings.firstCharToUpper(part));
+         if(start < end) {
+            out.append(upper(str.charAt(start++)));
          }
-         return builder.toString();
+         appendCased(str, start, end, false, out);
       }
       boolean matches(String str)
       {
@@ -138,15 +120,12 @@ public enum CaseFormat {
    /**
     * Java and C++ constant naming convention, e.g., "UPPER_UNDERSCORE".
     */
-   UPPER_UNDERSCORE() {
-      String create(String[] parts)
+   UPPER_UNDERSCORE('_') {
+      void append(CharSequence str, int start, int end, boolean written, Appendable out)
+         throws IOException
       {
-         StringBuilder builder = new StringBuilder();
-         for(String part : parts) {
-            if(builder.length() > 0) builder.append("_");
-            builder.append(part.toUpperCase());
-         }
-         return builder.toString();
+         if(written) out.append('_');
+         appendCased(str, start, end, true, out);
       }
       boolean matches(String str)
       {
@@ -159,10 +138,6 @@ public enum CaseFormat {
          }
          return foundUnderscore;
       }
-      String[] parts(String str)
-      {
-         return str.toLowerCase().split("_");
-      }
    };
 
 
@@ -171,6 +146,22 @@ public enum CaseFormat {
 
 
 
+   /**
+    * The maximum number of conversions cached by a {@link #converterTo converter}.
+    */
+   private static final int MAX_CACHE = 1 << 16;
+
+
+   // the character separating words, or zero if words begin with an upper case letter
+   private final char separator;
+
+   CaseFormat(char separator)
+   {
+      this.separator = separator;
+   }
+
+
+
    /**
     * Converts the specified {@code String str} from this format to the specified {@code format}. A
     * "best effort" approach is taken; if {@code str} does not conform to the assumed format, then
@@ -178,7 +169,82 @@ public enum CaseFormat {
     */
    public final String to(CaseFormat format, String str)
    {
-      return (format == this) ? str : format.create(parts(str));
+      if(format == this) return str;
+      try {
+         return to(format, str, new StringBuilder(str.length() + 4)).toString();
+      } catch(IOException impossible) {
+         throw new AssertionError(impossible);
+      }
+   }
+
+   /**
+    * Converts the specified {@code str} from this format to the specified {@code format}
+    * appending the result to the given appendable. The conversion is made in a single pass
+    * over {@code str} without splitting it into intermediate strings, giving the same result
+    * as {@link #to(CaseFormat, String)}.
+    * <p>
+    * Letters are converted one {@code char} at a time using {@link Character#toLowerCase(char)}
+    * and {@link Character#toUpperCase(char)} so the result does not depend on the default
+    * locale.
+    *
+    * @return the given appendable
+    * @throws IOException if an I/O error occurs appending to the appendable
+    * @throws NullPointerException if any argument is {@code null}
+    */
+   public final <A extends Appendable> A to(CaseFormat format, CharSequence str, A out)
+      throws IOException
+   {
+      Objects.notNull(format, "format");
+      Objects.notNull(out, "out");
+      if(format == this) {
+         out.append(str);
+         return out;
+      }
+      int end = str.length();
+      boolean written = false;
+      int start = 0;
+      if(separator != 0) {
+         // trailing separators produce no words just as String.split drops trailing empty strings
+         while(end > 0 && str.charAt(end - 1) == separator) end--;
+         for(int i = 0; i < end; i++) {
+            if(str.charAt(i) == separator) {
+               format.append(str, start, i, written, out);
+               written |= i > start;
+               start = i + 1;
+            }
+         }
+      } else {
+         for(int i = 0; i < end; i++) {
+            if(Character.isUpperCase(str.charAt(i))) {
+               format.append(str, start, i, written, out);
+               written |= i > start;
+               start = i;
+            }
+         }
+      }
+      format.append(str, start, end, written, out);
+      return out;
+   }
+
+   /**
+    * Returns a function converting strings from this format to the specified {@code format}
+    * which remembers recent conversions. This suits converting the same few identifiers over
+    * and over again, such as the field names of records being mapped to JSON or database
+    * columns.
+    * <p>
+    * The cache is a fixed size table of the given capacity rounded up to a power of two and
+    * limited to 65536 entries. Each string is remembered in the one slot its hash code selects,
+    * replacing any other conversion held there. The returned function may be shared between
+    * threads without synchronization.
+    *
+    * @throws NullPointerException if format is {@code null}
+    * @throws IllegalArgumentException if capacity is not positive
+    */
+   public final Function<String,String> converterTo(CaseFormat format, int capacity)
+   {
+      Objects.notNull(format, "format");
+      Numbers.gt(0, capacity, "capacity");
+      return new Converter(this, format, Math.min(capacity, MAX_CACHE));
    }
 
 
@@ -196,33 +262,81 @@ public enum CaseFormat {
 
 
 
-   String create(String[] parts)
-   {
-      return null;
-   }
+   /*
+    * Appends the word found between start and end in the source string to the result. The
+    * written flag reports whether any preceding word appended anything.
+    */
+   abstract void append(CharSequence str, int start, int end, boolean written, Appendable out)
+      throws IOException;
 
    boolean matches(String str)
    {
       return false;
    }
 
-   String[] parts(String str)
+
+   private static void appendCased(CharSequence str, int start, int end, boolean upper, Appendable out)
+      throws IOException
    {
-      StringBuilder builder = new StringBuilder();
-      List<String> parts = new ArrayList<>();
-      for(int i = 0; i < str.length(); i++) {
-         char c = str.charAt(i);
-         if(Character.isUpperCase(c)) {
-            parts.add(builder.toString().toLowerCase());
-            builder.setLength(0);
-         }
-         builder.append(c);
+      for(int i = start; i < end; i++) {
+         char c = Character.toLowerCase(str.charAt(i));
+         out.append(upper ? Character.toUpperCase(c) : c);
       }
-      parts.add(builder.toString().toLowerCase());
-      return parts.toArray(new String[parts.size()]);
    }
 
+   private static char upper(char c)
+   {
+      return Character.toUpperCase(Character.toLowerCase(c));
+   }
+
+
+
+   private static final class Converter implements Function<String,String> {
 
+      private final CaseFormat from;
+      private final CaseFormat to;
+      private final Conversion[] cache;
 
+      private Converter(CaseFormat from, CaseFormat to, int capacity)
+      {
+         this.from = from;
+         this.to = to;
+         this.cache = new Conversion[Integer.highestOneBit(capacity * 2 - 1)];
+      }
+
+      /*
+       * Conversions are immutable so one racing with another for the same slot is harmless,
+       * a thread simply sees either of them or converts the string again.
+       */
+      @Override
+      public String apply(String str)
+      {
+         int hash = str.hashCode();
+         int index = (hash ^ (hash >>> 16)) & (cache.length - 1);
+         Conversion conversion = cache[index];
+         if(conversion != null && conversion.source.equals(str)) return conversion.result;
+         String result = from.to(to, str);
+         cache[index] = new Conversion(str, result);
+         return result;
+      }
+
+      @Override
+      public String toString()
+      {
+         return "CaseFormat." + from + ".converterTo(" + to + ")";
+      }
+   }
+
+   private static final class Conversion {
+
+      private final String source;
+      private final String result;
+
+      private Conversion(String source, String result)
+      {
+         this.source = source;
+         this.result = result;
+      }
+   }
 
 }
@@ -1,5 +1,6 @@
 package xpertss.lang;
 
+import java.io.IOException;
 import java.util.Arrays;
 import java.util.function.Predicate;
 
@@ -231,6 +232,26 @@ public abstract class CharMatcher {
         return new Or(this, other);
     }
 
+    /**
+     * Returns a {@code char} matcher functionally equivalent to this one, but backed
+     * by a lookup table compiled from it. Chains of {@link #and}, {@link #or} and
+     * {@link #negate} wrappers and per character searches such as those of {@link
+     * #anyOf} are replaced by a single bit test.
+     * <p/>
+     * Sets of one or two characters, or all but one or two, compile to {@link #is},
+     * {@link #isNot} and {@link #isEither}. Other sets compile to a bitmap of the
+     * ASCII characters paired with a sorted array of at most 64 non-ASCII characters,
+     * or their complement, or with a bitmap of those.
+     * <p/>
+     * Compiling the table calls {@link #matches} for every {@code char} value so it
+     * is only worthwhile for matchers that are used repeatedly, which should hold on
+     * to the result. Matchers which would not benefit return themselves.
+     */
+    public CharMatcher precomputed()
+    {
+        return Precomputed.compile(this);
+    }
+
 
 
     // Text processing routines
@@ -677,6 +698,319 @@ public abstract class CharMatcher {
     }
 
 
+
+    // Appending and in place text processing routines
+
+    /**
+     * Appends all non-matching characters of a character sequence, in order, to the
+     * given appendable. This produces the same characters as {@link
+     * #removeFrom(CharSequence)} without creating an intermediate string.
+     *
+     * @return the given appendable
+     * @throws IOException if an I/O error occurs appending to the appendable
+     */
+    public <A extends Appendable> A removeFrom(CharSequence sequence, A out)
+        throws IOException
+    {
+        int length = sequence.length();
+        int run = 0;
+        for (int i = 0; i < length; i++) {
+            if (matches(sequence.charAt(i))) {
+                if (run < i) {
+                    out.append(sequence, run, i);
+                }
+                run = i + 1;
+            }
+        }
+        if (run < length) {
+            out.append(sequence, run, length);
+        }
+        return out;
+    }
+
+    /**
+     * Appends all matching characters of a character sequence, in order, to the given
+     * appendable. This produces the same characters as {@link
+     * #retainFrom(CharSequence)} without creating an intermediate string.
+     *
+     * @return the given appendable
+     * @throws IOException if an I/O error occurs appending to the appendable
+     */
+    public <A extends Appendable> A retainFrom(CharSequence sequence, A out)
+        throws IOException
+    {
+        return negate().removeFrom(sequence, out);
+    }
+
+    /**
+     * Appends a copy of the character sequence, with each matching character replaced
+     * by the given replacement character, to the given appendable. This produces the
+     * same characters as {@link #replaceFrom(CharSequence, char)} without creating an
+     * intermediate string.
+     *
+     * @return the given appendable
+     * @throws IOException if an I/O error occurs appending to the appendable
+     */
+    public <A extends Appendable> A replaceFrom(CharSequence sequence, char replacement, A out)
+        throws IOException
+    {
+        int length = sequence.length();
+        int run = 0;
+        for (int i = 0; i < length; i++) {
+            if (matches(sequence.charAt(i))) {
+                out.append(sequence, run, i).append(replacement);
+                run = i + 1;
+            }
+        }
+        out.append(sequence, run, length);
+        return out;
+    }
+
+    /**
+     * Appends a copy of the character sequence, with each matching character replaced
+     * by the given replacement sequence, to the given appendable. This produces the
+     * same characters as {@link #replaceFrom(CharSequence, CharSequence)} without
+     * creating an intermediate string.
+     *
+     * @return the given appendable
+     * @throws IOException if an I/O error occurs appending to the appendable
+     */
+    public <A extends Appendable> A replaceFrom(CharSequence sequence, CharSequence replacement, A out)
+        throws IOException
+    {
+        int length = sequence.length();
+        int run = 0;
+        for (int i = 0; i < length; i++) {
+            if (matches(sequence.charAt(i))) {
+                out.append(sequence, run, i).append(replacement);
+                run = i + 1;
+            }
+        }
+        out.append(sequence, run, length);
+        return out;
+    }
+
+    /**
+     * Appends a copy of the character sequence, with each group of consecutive matching
+     * characters replaced by a single replacement character, to the given appendable.
+     * This produces the same characters as {@link #collapseFrom(CharSequence, char)}
+     * without creating an intermediate string.
+     *
+     * @return the given appendable
+     * @throws IOException if an I/O error occurs appending to the appendable
+     */
+    public <A extends Appendable> A collapseFrom(CharSequence sequence, char replacement, A out)
+        throws IOException
+    {
+        return collapse(sequence, replacement, none(), false, out);
+    }
+
+    /**
+     * Appends a copy of the character sequence, collapsed exactly as {@link
+     * #collapseFrom(CharSequence, char, Appendable)} does except that groups of matching
+     * characters at the start or end of the sequence are removed without replacement,
+     * to the given appendable. This produces the same characters as {@link
+     * #trimAndCollapseFrom(CharSequence, char)} without creating an intermediate string.
+     *
+     * @return the given appendable
+     * @throws IOException if an I/O error occurs appending to the appendable
+     */
+    public <A extends Appendable> A trimAndCollapseFrom(CharSequence sequence, char replacement, A out)
+        throws IOException
+    {
+        return collapse(sequence, replacement, none(), true, out);
+    }
+
+    /**
+     * Removes the characters matched by {@code removed} from a character sequence while
+     * trimming and collapsing the groups of characters matched by this matcher, in a
+     * single pass, appending the result to the given appendable. For example:
+     *
+     * <pre>{@code
+     * CharMatcher.is(' ').trimAndCollapseFrom(" a -- b- ", ' ', CharMatcher.is('-'), out)
+     * }</pre>
+     *
+     * ... appends {@code "a b"}. The result is the same as that of {@code
+     * trimAndCollapseFrom(removed.removeFrom(sequence), replacement)}, so the groups on
+     * either side of removed characters are collapsed together. Characters matched by
+     * both matchers are removed.
+     *
+     * @param sequence the character sequence to scrub
+     * @param replacement the character to append in place of each group of matching
+     *                    characters not at the start or end of the sequence
+     * @param removed the matcher of characters to remove altogether
+     * @param out the appendable the result is appended to
+     * @return the given appendable
+     * @throws IOException if an I/O error occurs appending to the appendable
+     */
+    public <A extends Appendable> A trimAndCollapseFrom(CharSequence sequence, char replacement,
+                                                        CharMatcher removed, A out)
+        throws IOException
+    {
+        return collapse(sequence, replacement, notNull(removed, "removed"), true, out);
+    }
+
+    private <A extends Appendable> A collapse(CharSequence sequence, char replacement, CharMatcher removed,
+                                             boolean trim, A out)
+        throws IOException
+    {
+        int length = sequence.length();
+        boolean inMatchingGroup = false;
+        boolean leading = trim;
+        for (int i = 0; i < length; i++) {
+            char c = sequence.charAt(i);
+            if (removed.matches(c)) {
+                continue;
+            }
+            if (matches(c)) {
+                inMatchingGroup = true;
+            } else {
+                if (inMatchingGroup && !leading) {
+                    out.append(replacement);
+                }
+                out.append(c);
+                inMatchingGroup = false;
+                leading = false;
+            }
+        }
+        if (inMatchingGroup && !trim) {
+            out.append(replacement);
+        }
+        return out;
+    }
+
+
+    /**
+     * Removes all matching characters from the given range of a char array, in place.
+     * The non-matching characters are moved, in order, to the start of the range.
+     *
+     * @return the number of characters remaining at the start of the range
+     * @throws IndexOutOfBoundsException if the range lies outside the array
+     */
+    public int removeFrom(char[] chars, int offset, int length)
+    {
+        checkRange(chars, offset, length);
+        int pos = offset;
+        for (int i = offset; i < offset + length; i++) {
+            char c = chars[i];
+            if (!matches(c)) {
+                chars[pos++] = c;
+            }
+        }
+        return pos - offset;
+    }
+
+    /**
+     * Removes all non-matching characters from the given range of a char array, in
+     * place. The matching characters are moved, in order, to the start of the range.
+     *
+     * @return the number of characters remaining at the start of the range
+     * @throws IndexOutOfBoundsException if the range lies outside the array
+     */
+    public int retainFrom(char[] chars, int offset, int length)
+    {
+        return negate().removeFrom(chars, offset, length);
+    }
+
+    /**
+     * Replaces each matching character in the given range of a char array with the
+     * given replacement character, in place.
+     *
+     * @return the number of characters replaced
+     * @throws IndexOutOfBoundsException if the range lies outside the array
+     */
+    public int replaceFrom(char[] chars, int offset, int length, char replacement)
+    {
+        checkRange(chars, offset, length);
+        int count = 0;
+        for (int i = offset; i < offset + length; i++) {
+            if (matches(chars[i])) {
+                chars[i] = replacement;
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Replaces each group of consecutive matching characters in the given range of a
+     * char array with a single replacement character, in place. The result is moved
+     * to the start of the range.
+     *
+     * @return the number of characters in the result
+     * @throws IndexOutOfBoundsException if the range lies outside the array
+     */
+    public int collapseFrom(char[] chars, int offset, int length, char replacement)
+    {
+        return collapse(chars, offset, length, replacement, none(), false);
+    }
+
+    /**
+     * Collapses groups of matching characters in the given range of a char array in
+     * place exactly as {@link #collapseFrom(char[], int, int, char)} does, except that
+     * groups at the start or end of the range are removed without replacement.
+     *
+     * @return the number of characters in the result
+     * @throws IndexOutOfBoundsException if the range lies outside the array
+     */
+    public int trimAndCollapseFrom(char[] chars, int offset, int length, char replacement)
+    {
+        return collapse(chars, offset, length, replacement, none(), true);
+    }
+
+    /**
+     * Removes the characters matched by {@code removed} from the given range of a char
+     * array while trimming and collapsing the groups of characters matched by this
+     * matcher, in a single pass and in place, as {@link #trimAndCollapseFrom(CharSequence,
+     * char, CharMatcher, Appendable)} does. The result is moved to the start of the range.
+     *
+     * @return the number of characters in the result
+     * @throws IndexOutOfBoundsException if the range lies outside the array
+     */
+    public int trimAndCollapseFrom(char[] chars, int offset, int length, char replacement, CharMatcher removed)
+    {
+        return collapse(chars, offset, length, replacement, notNull(removed, "removed"), true);
+    }
+
+    // the result is never longer than the characters read so it may overwrite them
+    private int collapse(char[] chars, int offset, int length, char replacement, CharMatcher removed,
+                         boolean trim)
+    {
+        checkRange(chars, offset, length);
+        int pos = offset;
+        boolean inMatchingGroup = false;
+        boolean leading = trim;
+        for (int i = offset; i < offset + length; i++) {
+            char c = chars[i];
+            if (removed.matches(c)) {
+                continue;
+            }
+            if (matches(c)) {
+                inMatchingGroup = true;
+            } else {
+                if (inMatchingGroup && !leading) {
+                    chars[pos++] = replacement;
+                }
+                chars[pos++] = c;
+                inMatchingGroup = false;
+                leading = false;
+            }
+        }
+        if (inMatchingGroup && !trim) {
+            chars[pos++] = replacement;
+        }
+        return pos - offset;
+    }
+
+    private static void checkRange(char[] chars, int offset, int length)
+    {
+        if (offset < 0 || length < 0 || offset > chars.length - length) {
+            throw new IndexOutOfBoundsException(
+                    String.format("offset %d, length %d, array length %d", offset, length, chars.length));
+        }
+    }
+
+
     /**
      * Returns a string representation of this {@code CharMatcher}, such as
      * {@code CharMatcher.or(WHITESPACE, JAVA_DIGIT)}.
@@ -716,6 +1050,12 @@ public abstract class CharMatcher {
         {
             return new NegatedFastMatcher(this);
         }
+
+        @Override
+        public CharMatcher precomputed()
+        {
+            return this;
+        }
     }
 
     /** {@link FastMatcher} which overrides {@code toString()} with a custom name. */
@@ -743,6 +1083,12 @@ public abstract class CharMatcher {
             super(original);
         }
 
+        @Override
+        public CharMatcher precomputed()
+        {
+            return this;
+        }
+
     }
 
 
@@ -1233,6 +1579,142 @@ public abstract class CharMatcher {
         }
     }
 
+    /**
+     * Implementation of {@link #precomputed()}. ASCII characters are tested against a
+     * pair of 64 bit words while all others are delegated to a second precomputed
+     * matcher, so the common case of ASCII text never leaves this class.
+     */
+    private static final class Precomputed extends NamedFastMatcher {
+
+        private static final int SMALL = 64;
+
+        private final long lo;
+        private final long hi;
+        private final CharMatcher upper;
+
+        Precomputed(String description, long lo, long hi, CharMatcher upper)
+        {
+            super(description);
+            this.lo = lo;
+            this.hi = hi;
+            this.upper = upper;
+        }
+
+        static CharMatcher compile(CharMatcher matcher)
+        {
+            long[] words = new long[(Character.MAX_VALUE + 1) >>> 6];
+            int count = 0;
+            for (int c = 0; c <= Character.MAX_VALUE; c++) {
+                if (matcher.matches((char) c)) {
+                    words[c >>> 6] |= 1L << c;
+                    count++;
+                }
+            }
+
+            if (count <= 2 || count >= Character.MAX_VALUE - 1) {
+                boolean negated = count > 2;
+                char[] chars = members(words, 0, negated ? Character.MAX_VALUE + 1 - count : count, negated);
+                CharMatcher result = (chars.length == 0) ? none()
+                        : (chars.length == 1) ? is(chars[0])
+                        : isEither(chars[0], chars[1]);
+                return negated ? result.negate() : result;
+            }
+
+            int upperCount = count - Long.bitCount(words[0]) - Long.bitCount(words[1]);
+            int upperTotal = Character.MAX_VALUE + 1 - 128;
+            CharMatcher upper;
+            if (upperCount == 0) {
+                upper = none();
+            } else if (upperCount == upperTotal) {
+                upper = any();
+            } else if (upperCount <= SMALL) {
+                upper = new AnyOf(members(words, 2, upperCount, false));
+            } else if (upperTotal - upperCount <= SMALL) {
+                upper = new AnyOf(members(words, 2, upperTotal - upperCount, true)).negate();
+            } else {
+                upper = BitTable.compile(words);
+            }
+            return new Precomputed(matcher + ".precomputed()", words[0], words[1], upper);
+        }
+
+        // the count chars from the given word onwards whose bits are set, or clear if negated
+        private static char[] members(long[] words, int from, int count, boolean negated)
+        {
+            char[] chars = new char[count];
+            for (int i = from, pos = 0; pos < count; i++) {
+                long word = negated ? ~words[i] : words[i];
+                while (word != 0) {
+                    chars[pos++] = (char) ((i << 6) | Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+            return chars;
+        }
+
+
+        @Override
+        public boolean matches(char c)
+        {
+            return (c < 0x80) ? ((c < 0x40 ? lo : hi) & (1L << c)) != 0 : upper.matches(c);
+        }
+
+        @Override
+        public CharMatcher negate()
+        {
+            return new Precomputed(toString() + ".negate()", ~lo, ~hi, upper.negate());
+        }
+    }
+
+    /**
+     * Bitmap of the non-ASCII characters matched by a {@link Precomputed} matcher. The
+     * bitmap is truncated after the last word holding a member, or after the last word
+     * holding a non member when the complement is stored instead, whichever is shorter.
+     */
+    private static final class BitTable extends FastMatcher {
+
+        private final long[] words;
+        private final boolean negated;
+
+        private BitTable(long[] words, boolean negated)
+        {
+            this.words = words;
+            this.negated = negated;
+        }
+
+        static BitTable compile(long[] words)
+        {
+            int members = words.length;
+            int others = words.length;
+            while (words[members - 1] == 0) members--;
+            while (words[others - 1] == -1L) others--;
+            boolean negated = others < members;
+            long[] table = Arrays.copyOf(words, negated ? others : members);
+            if (negated) {
+                for (int i = 0; i < table.length; i++) table[i] = ~table[i];
+            }
+            return new BitTable(table, negated);
+        }
+
+        @Override
+        public boolean matches(char c)
+        {
+            int index = c >>> 6;
+            return (index < words.length && (words[index] & (1L << c)) != 0) != negated;
+        }
+
+        @Override
+        public CharMatcher negate()
+        {
+            return new BitTable(words, !negated);
+        }
+
+        @Override
+        public String toString()
+        {
+            return "CharMatcher.BitTable(" + words.length + " words)";
+        }
+    }
+
     // Static factory implementations
 
     /** Implementation of {@link #is(char)}. */
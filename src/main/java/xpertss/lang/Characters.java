@@ -58,6 +58,22 @@ public final class Characters {
       return input;
    }
 
+   /**
+    * Null safe method to sort an array into ascending numerical order by splitting
+    * it into sub-arrays which are sorted in parallel in the fork/join common pool
+    * and then merged. Arrays which are small, or when the common pool has a single
+    * thread, are sorted serially.
+    *
+    * @param input The input array to sort
+    * @return The sorted array or {@code null} if the array was {@code null}
+    * @see Arrays#parallelSort(char[])
+    */
+   public static char[] sortParallel(char[] input)
+   {
+      if(input != null) Arrays.parallelSort(input);
+      return input;
+   }
+
    /**
     * Checks if an array is empty or {@code null}.
     *
@@ -1,12 +1,12 @@
 package xpertss.lang;
 
+import java.io.IOException;
 import java.math.BigDecimal;
 import java.util.Arrays;
 import java.util.Comparator;
 
 import static java.lang.Double.NEGATIVE_INFINITY;
 import static java.lang.Double.POSITIVE_INFINITY;
-import static java.lang.String.format;
 
 /**
  * Static utility methods pertaining to doubles
@@ -31,7 +31,45 @@ public final class Doubles {
     */
    public static double parse(CharSequence str, double def)
    {
-      try { return Double.parseDouble(CharSequences.toString(str)); } catch (Exception e) { return def; }
+      return (str == null) ? def : FloatingDecimal.parse(str, 0, str.length(), def);
+   }
+
+   /**
+    * Parse the characters of the given sequence between start (inclusive) and end
+    * (exclusive) into a double or return the specified default if they do not form a
+    * valid double. The grammar is that of {@link Double#parseDouble(String)}.
+    * <p>
+    * Decimal input is converted without creating an intermediate string or throwing
+    * an exception. The result is always correctly rounded. Only hexadecimal input
+    * and rare decimals of more than 19 significant digits which lie too close to a
+    * rounding boundary are delegated to {@link Double#parseDouble(String)}.
+    *
+    * @throws IndexOutOfBoundsException if start or end are out of range
+    */
+   public static double parse(CharSequence str, int start, int end, double def)
+   {
+      if(str == null) return def;
+      if(start < 0 || end > str.length() || start > end)
+         throw new IndexOutOfBoundsException(String.format("start %d, end %d, length %d", start, end, str.length()));
+      return FloatingDecimal.parse(str, start, end, def);
+   }
+
+   /**
+    * Append the shortest decimal representation of the given double which parses
+    * back to exactly the same value to the given appendable. Where several such
+    * decimals exist the one closest to the exact binary value is chosen.
+    * <p>
+    * The layout is that of {@link Double#toString(double)} but unlike it no garbage
+    * is produced and the digits are never longer than necessary.
+    *
+    * @return the given appendable
+    * @throws IOException if an I/O error occurs appending to the appendable
+    * @throws NullPointerException if out is {@code null}
+    */
+   public static <A extends Appendable> A format(double value, A out)
+      throws IOException
+   {
+      return FloatingDecimal.format(value, Objects.notNull(out, "out"));
    }
 
 
@@ -369,6 +407,9 @@ public final class Doubles {
     * Find the "best guess" middle value among the given set of numbers. If there
     * is an even number of values, then the two middle values are summed together
     * and divided by two.
+    * <p>
+    * The middle value is located by selection in linear expected time on a copy of
+    * the set rather than by sorting it.
     * <pre>
     *    Doubles.median(1)            = 1
     *    Doubles.median(1,2,3,4)      = 2.5
@@ -384,10 +425,64 @@ public final class Doubles {
     */
    public static double median(double ... set)
    {
-      double[] sorted = sort(notEmpty(set).clone());
-      int mid = (sorted.length - 1) / 2;
-      return (sorted.length % 2 != 0) ? sorted[mid] :
-            (sorted[mid] + sorted[mid + 1]) / 2;
+      return medianInPlace(notEmpty(set).clone());
+   }
+
+   /**
+    * Find the median of the given set of numbers in the same manner as {@link
+    * #median(double...)} but without first copying the set. The set is partially
+    * reordered, in linear expected time, as a side effect.
+    *
+    * @param set set of items to obtain the median from
+    * @return The median value from the set
+    * @throws NullPointerException If the supplied set is {@code null}
+    * @throws IllegalArgumentException If the set has a length of zero
+    */
+   public static double medianInPlace(double[] set)
+   {
+      int mid = (notEmpty(set).length - 1) / 2;
+      double lower = Selection.select(set, mid);
+      if(set.length % 2 != 0) return lower;
+      double upper = Selection.successor(set, mid);
+      return (lower + upper) / 2;
+   }
+
+   /**
+    * Returns the value at the given percentile of the set of numbers using the
+    * nearest rank method. That is the smallest value in the set such that at least
+    * {@code p} percent of the set is less than or equal to it. The zeroth percentile
+    * is the minimum and the hundredth the maximum.
+    * <p>
+    * The value is located by selection in linear expected time on a copy of the set.
+    *
+    * @param set set of items to obtain the percentile from
+    * @param p the percentile in the range [0, 100]
+    * @return The value at the given percentile
+    * @throws NullPointerException If the supplied set is {@code null}
+    * @throws IllegalArgumentException If the set has a length of zero or the
+    *    percentile is outside the range [0, 100]
+    */
+   public static double percentile(double[] set, double p)
+   {
+      int rank = Selection.rank(notEmpty(set).length, p);
+      return Selection.select(set.clone(), rank);
+   }
+
+   /**
+    * Returns the value at the given percentile of the set of numbers in the same
+    * manner as {@link #percentile(double[], double)} but without first copying the set.
+    * The set is partially reordered as a side effect.
+    *
+    * @param set set of items to obtain the percentile from
+    * @param p the percentile in the range [0, 100]
+    * @return The value at the given percentile
+    * @throws NullPointerException If the supplied set is {@code null}
+    * @throws IllegalArgumentException If the set has a length of zero or the
+    *    percentile is outside the range [0, 100]
+    */
+   public static double percentileInPlace(double[] set, double p)
+   {
+      return Selection.select(set, Selection.rank(notEmpty(set).length, p));
    }
 
    /**
@@ -397,6 +492,9 @@ public final class Doubles {
     * If there are multiple most frequent items because they all have the same
     * count within the set, the returned array will include them all sorted from
     * smallest to largest.
+    * <p>
+    * Occurrences are counted in a hash table in linear expected time without
+    * sorting or copying the set.
     * <pre>
     *    Doubles.mode(1,2,3,4)          = [ ]
     *    Doubles.mode(4,3,2,1)          = [ ]
@@ -412,29 +510,12 @@ public final class Doubles {
     */
    public static double[] mode(double ... items)
    {
-      double[] sorted = sort(notEmpty(items).clone());
-      double[] result = new double[sorted.length/2];
-      int maxCount = 0, count = 1, pos = 0;
-      double last = sorted[0];
-      for(int i = 1; i < sorted.length; i++) {
-         double next = sorted[i];
-         if(last < next) {
-            if(count > 1) {
-               if(count > maxCount) {
-                  maxCount = count;
-                  result[0] = last;
-                  pos = 1;
-               } else if(count == maxCount) {
-                  result[pos++] = last;
-               }
-            }
-            count = 1;
-         } else {
-            count++;
-         }
-         last = next;
-      }
-      return Arrays.copyOf(result, (maxCount > 1) ? pos : 0);
+      Selection.Counter counter = new Selection.Counter(notEmpty(items).length);
+      for(double item : items) counter.add(Double.doubleToLongBits(item + 0.0));
+      long[] modes = counter.modes();
+      double[] result = new double[modes.length];
+      for(int i = 0; i < modes.length; i++) result[i] = Double.longBitsToDouble(modes[i]);
+      return sort(result);
    }
 
    /**
@@ -640,7 +721,7 @@ public final class Doubles {
    public static double[] notEmpty(double[] array, String argName)
    {
       if(array == null) throw new NullPointerException(argName);
-      if(array.length < 1) throw new IllegalArgumentException(format("%s is empty", argName));
+      if(array.length < 1) throw new IllegalArgumentException(String.format("%s is empty", argName));
       return array;
    }
 
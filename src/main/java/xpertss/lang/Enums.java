@@ -7,6 +7,11 @@ package xpertss.lang;
 
 import java.io.Serializable;
 import java.lang.annotation.Annotation;
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
 import java.util.Collections;
 import java.util.EnumSet;
 import java.util.function.Function;
@@ -79,8 +84,32 @@ public final class Enums {
 
 
    /**
-    * Returns an enum constant for the given type, using {@link Enum#valueOf}. If the named
-    * constant does not exist, {@code null} is returned.
+    * Annotates an enum constant with alternative names by which it may be found using
+    * {@link #forAlias(Class, String)}. For example:
+    *
+    * <pre>
+    *    enum Protocol {
+    *       &#64;Enums.Alias({ "http/1.1", "http1" }) HTTP_1_1,
+    *       &#64;Enums.Alias("h2") HTTP_2
+    *    }
+    * </pre>
+    */
+   @Documented
+   @Retention(RetentionPolicy.RUNTIME)
+   @Target(ElementType.FIELD)
+   public @interface Alias {
+      String[] value();
+   }
+
+
+
+
+   /**
+    * Returns an enum constant for the given type with exactly the given name, as {@link
+    * Enum#valueOf} would. If the named constant does not exist, {@code null} is returned.
+    * <p>
+    * The constants are found in a table built once per enum class so that a name which
+    * does not exist costs a single hash probe rather than an exception.
     *
     * @param enumClass the {@link Class} of the {@code Enum} declaring the constant values.
     * @param name The name of the enum constant
@@ -88,16 +117,13 @@ public final class Enums {
     */
    public static <T extends Enum<T>> T valueOf(Class<T> enumClass, String name)
    {
-      try{
-         return Enum.valueOf(enumClass, name);
-      } catch(IllegalArgumentException e) {
-         return null;
-      }
+      return Table.EXACT.get(enumClass, name);
    }
 
    /**
-    * Returns an enum constant for the given type, using {@link Enum#valueOf}. If the named
-    * constant does not exist, the specified default value is returned.
+    * Returns an enum constant for the given type with exactly the given name, as {@link
+    * Enum#valueOf} would. If the named constant does not exist, the specified default
+    * value is returned.
     *
     * @param enumClass the {@link Class} of the {@code Enum} declaring the constant values.
     * @param name The name of the enum constant
@@ -106,11 +132,53 @@ public final class Enums {
     */
    public static <T extends Enum<T>> T valueOf(Class<T> enumClass, String name, T defValue)
    {
-      try{
-         return Enum.valueOf(enumClass, name);
-      } catch(IllegalArgumentException e) {
-         return defValue;
-      }
+      T result = Table.EXACT.get(enumClass, name);
+      return (result != null) ? result : defValue;
+   }
+
+   /**
+    * Returns an enum constant for the given type whose name equals the given name ignoring
+    * case, as defined by {@link String#equalsIgnoreCase(String)}. Should two constants'
+    * names differ only in case the first declared is returned. If no such constant exists,
+    * {@code null} is returned.
+    *
+    * @param enumClass the {@link Class} of the {@code Enum} declaring the constant values.
+    * @param name The name of the enum constant in any case
+    * @return The named constant or {@code null} if it does not exist
+    */
+   public static <T extends Enum<T>> T valueOfIgnoreCase(Class<T> enumClass, String name)
+   {
+      return Table.IGNORE_CASE.get(enumClass, name);
+   }
+
+   /**
+    * Returns an enum constant for the given type whose name equals the given name ignoring
+    * case, or the specified default value if no such constant exists.
+    *
+    * @param enumClass the {@link Class} of the {@code Enum} declaring the constant values.
+    * @param name The name of the enum constant in any case
+    * @param defValue The default value to return if the named enum doesn't exist
+    * @return The named constant or {@code defValue} if it does not exist
+    */
+   public static <T extends Enum<T>> T valueOfIgnoreCase(Class<T> enumClass, String name, T defValue)
+   {
+      T result = Table.IGNORE_CASE.get(enumClass, name);
+      return (result != null) ? result : defValue;
+   }
+
+   /**
+    * Returns an enum constant for the given type whose name, or one of whose {@link Alias
+    * aliases}, equals the given name ignoring case. Names take precedence over aliases and
+    * earlier declared constants over later ones. If no such constant exists, {@code null}
+    * is returned.
+    *
+    * @param enumClass the {@link Class} of the {@code Enum} declaring the constant values.
+    * @param alias The name or alias of the enum constant in any case
+    * @return The matching constant or {@code null} if it does not exist
+    */
+   public static <T extends Enum<T>> T forAlias(Class<T> enumClass, String alias)
+   {
+      return Table.ALIASES.get(enumClass, alias);
    }
 
 
@@ -123,48 +191,220 @@ public final class Enums {
     */
    public static <T extends Enum<T>> Function<String, T> valueOf(Class<T> enumClass)
    {
-      return new ValueOfFunction<T>(enumClass);
+      return new ValueOfFunction<T>(enumClass, Table.EXACT);
+   }
+
+   /**
+    * Returns a {@link Function} that maps an {@link Enum} name in any case to the associated
+    * {@code Enum} constant as {@link #valueOfIgnoreCase(Class, String)} does. The {@code
+    * Function} will return {@code null} if the {@code Enum} constant does not exist.
+    *
+    * @param enumClass the {@link Class} of the {@code Enum} declaring the constant values.
+    */
+   public static <T extends Enum<T>> Function<String, T> valueOfIgnoreCase(Class<T> enumClass)
+   {
+      return new ValueOfFunction<T>(enumClass, Table.IGNORE_CASE);
+   }
+
+   /**
+    * Returns a {@link Function} that maps an {@link Enum} name or alias in any case to the
+    * associated {@code Enum} constant as {@link #forAlias(Class, String)} does. The {@code
+    * Function} will return {@code null} if the {@code Enum} constant does not exist.
+    *
+    * @param enumClass the {@link Class} of the {@code Enum} declaring the constant values.
+    */
+   public static <T extends Enum<T>> Function<String, T> forAlias(Class<T> enumClass)
+   {
+      return new ValueOfFunction<T>(enumClass, Table.ALIASES);
+   }
+
+   /**
+    * Returns a {@link Function} that maps the key the given function computes for each
+    * {@link Enum} constant, such as a code held in a field, back to that constant. The keys
+    * are computed once, when this method is called, and are matched exactly. Constants for
+    * which the key function returns {@code null} cannot be found and should two constants
+    * share a key the first declared is returned. The {@code Function} will return {@code
+    * null} if no constant has the given key.
+    *
+    * @param enumClass the {@link Class} of the {@code Enum} declaring the constant values.
+    * @param key The function computing the key of each constant
+    * @throws NullPointerException If either enumClass or key are {@code null}
+    */
+   public static <T extends Enum<T>> Function<String, T> lookup(Class<T> enumClass, Function<? super T, String> key)
+   {
+      Objects.notNull(key, "key");
+      T[] constants = Objects.notNull(enumClass, "enumClass").getEnumConstants();
+      Lookup lookup = new Lookup(false, constants.length);
+      for(T constant : constants) lookup.put(key.apply(constant), constant);
+      return lookup::get;
    }
 
+
    /**
-    * {@link Function} that maps an {@link Enum} name to the associated constant, or {@code null}
-    * if the constant does not exist.
+    * {@link Function} that maps an {@link Enum} name to the associated constant using one
+    * of the lookup tables, or {@code null} if the constant does not exist.
     */
    private static final class ValueOfFunction<T extends Enum<T>> implements Function<String, T>, Serializable {
 
       private final Class<T> enumClass;
+      private final Table table;
 
-      private ValueOfFunction(Class<T> enumClass)
+      private ValueOfFunction(Class<T> enumClass, Table table)
       {
          this.enumClass = Objects.notNull(enumClass);
+         this.table = table;
       }
 
       @Override
       public T apply(String value) {
-         try {
-            return Enum.valueOf(enumClass, value);
-         } catch (IllegalArgumentException e) {
-            return null;
-         }
+         return table.get(enumClass, value);
       }
 
       @Override public boolean equals(Object obj)
       {
          return obj instanceof ValueOfFunction &&
-               enumClass.equals(((ValueOfFunction) obj).enumClass);
+               enumClass.equals(((ValueOfFunction) obj).enumClass) &&
+               table == ((ValueOfFunction) obj).table;
       }
 
       @Override public int hashCode()
       {
-         return enumClass.hashCode();
+         return enumClass.hashCode() * 31 + table.hashCode();
       }
 
       @Override public String toString()
       {
-         return "Enums.valueOf(" + enumClass + ")";
+         return table.method + "(" + enumClass + ")";
+      }
+
+      // instances serialized before the table was recorded performed exact lookups
+      private Object readResolve()
+      {
+         return (table == null) ? new ValueOfFunction<T>(enumClass, Table.EXACT) : this;
       }
 
       private static final long serialVersionUID = 0;
    }
 
+
+   /**
+    * The lookup tables kept for every enum class they are used with. Each is built on first
+    * use and cached against the class such that it does not keep the class from being
+    * unloaded.
+    */
+   private enum Table {
+
+      EXACT("Enums.valueOf"),
+      IGNORE_CASE("Enums.valueOfIgnoreCase"),
+      ALIASES("Enums.forAlias");
+
+      private final String method;
+      private final ClassValue<Lookup> lookups = new ClassValue<Lookup>() {
+         @Override
+         protected Lookup computeValue(Class<?> type)
+         {
+            return build(type);
+         }
+      };
+
+      Table(String method)
+      {
+         this.method = method;
+      }
+
+      <T extends Enum<T>> T get(Class<T> enumClass, String name)
+      {
+         return lookups.get(enumClass).get(name);
+      }
+
+      private Lookup build(Class<?> type)
+      {
+         Enum<?>[] constants = (Enum<?>[]) type.getEnumConstants();
+         if(constants == null) throw new IllegalArgumentException(type + " is not an enum class");
+         Alias[] aliases = new Alias[constants.length];
+         int size = constants.length;
+         if(this == ALIASES) {
+            for(int i = 0; i < constants.length; i++) {
+               aliases[i] = getAnnotation(constants[i], Alias.class);
+               if(aliases[i] != null) size += aliases[i].value().length;
+            }
+         }
+         Lookup lookup = new Lookup(this != EXACT, size);
+         for(Enum<?> constant : constants) lookup.put(constant.name(), constant);
+         for(int i = 0; i < constants.length; i++) {
+            if(aliases[i] != null) {
+               for(String name : aliases[i].value()) lookup.put(name, constants[i]);
+            }
+         }
+         return lookup;
+      }
+   }
+
+   /**
+    * An open addressing hash table from strings to enum constants, optionally ignoring the
+    * case of its keys. It is sized to be at most half full when all of the expected keys
+    * have been put and is not modified once built. Lookups neither allocate nor throw, a
+    * miss costs a single probe of an empty slot or a few comparisons of differing keys.
+    */
+   private static final class Lookup {
+
+      private final boolean ignoreCase;
+      private final String[] keys;
+      private final Object[] values;
+
+      Lookup(boolean ignoreCase, int expected)
+      {
+         this.ignoreCase = ignoreCase;
+         int capacity = Integer.highestOneBit(Math.max(2, expected) * 4 - 1);
+         this.keys = new String[capacity];
+         this.values = new Object[capacity];
+      }
+
+      // keeps the first value put for any key
+      void put(String key, Object value)
+      {
+         if(key == null) return;
+         int mask = keys.length - 1;
+         int index = hash(key) & mask;
+         for(String k = keys[index]; k != null; k = keys[index]) {
+            if(matches(k, key)) return;
+            index = (index + 1) & mask;
+         }
+         keys[index] = key;
+         values[index] = value;
+      }
+
+      @SuppressWarnings("unchecked")
+      <T> T get(String key)
+      {
+         if(key == null) return null;
+         int mask = keys.length - 1;
+         int index = hash(key) & mask;
+         for(String k = keys[index]; k != null; k = keys[index]) {
+            if(matches(k, key)) return (T) values[index];
+            index = (index + 1) & mask;
+         }
+         return null;
+      }
+
+      private boolean matches(String k, String key)
+      {
+         return ignoreCase ? k.equalsIgnoreCase(key) : k.equals(key);
+      }
+
+      // folds case as String.equalsIgnoreCase does so keys it considers equal hash alike
+      private int hash(String key)
+      {
+         int h = 0;
+         if(ignoreCase) {
+            for(int i = 0; i < key.length(); i++) {
+               h = 31 * h + Character.toLowerCase(Character.toUpperCase(key.charAt(i)));
+            }
+         } else {
+            h = key.hashCode();
+         }
+         return h ^ (h >>> 16);
+      }
+   }
+
 }
@@ -0,0 +1,557 @@
+package xpertss.lang;
+
+import java.io.IOException;
+import java.math.BigInteger;
+
+/**
+ * Allocation free conversions between binary floating point numbers and their
+ * decimal text representation.
+ * <p>
+ * Formatting uses Giulietti's Schubfach algorithm to produce the shortest decimal
+ * which rounds back to the original value, choosing the one closest to the exact
+ * value when several exist. The layout matches that of {@link Double#toString(double)}.
+ * <p>
+ * Parsing uses the Eisel-Lemire algorithm to compute the correctly rounded value of
+ * a decimal with up to 19 significant digits from a 128 bit approximation of the
+ * power of five. Inputs with more digits are resolved by bracketing the truncated
+ * significand and only fall back to the JDK parser in the rare case the bracket
+ * does not round to a single value. Hexadecimal literals are always delegated to
+ * the JDK.
+ */
+final class FloatingDecimal {
+
+   // Schubfach: range of decimal exponents k whose 10^-k approximations are tabled
+   private static final int K_MIN = -324;
+   private static final int K_MAX = 292;
+
+   private static final int D_P = 53;
+   private static final int D_Q_MIN = -1074;
+   private static final long D_C_MIN = 1L << 52;
+   private static final int D_C_TINY = 3;
+
+   private static final int F_P = 24;
+   private static final int F_Q_MIN = -149;
+   private static final int F_C_MIN = 1 << 23;
+   private static final int F_C_TINY = 8;
+
+   private static final long MASK_63 = (1L << 63) - 1;
+   private static final long MASK_32 = (1L << 32) - 1;
+
+   // Eisel-Lemire: range of decimal exponents q whose 5^q approximations are tabled
+   private static final int Q_MIN = -342;
+   private static final int Q_MAX = 308;
+
+   private static final long[] POW10 = {
+      1L, 10L, 100L, 1000L, 10000L, 100000L, 1000000L, 10000000L, 100000000L,
+      1000000000L, 10000000000L, 100000000000L, 1000000000000L, 10000000000000L,
+      100000000000000L, 1000000000000000L, 10000000000000000L, 100000000000000000L,
+      1000000000000000000L
+   };
+
+   private static final double[] DOUBLE_POW10 = {
+      1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+      1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+   };
+
+   private static final float[] FLOAT_POW10 = {
+      1e0f, 1e1f, 1e2f, 1e3f, 1e4f, 1e5f, 1e6f, 1e7f, 1e8f, 1e9f, 1e10f
+   };
+
+   private FloatingDecimal() { }
+
+
+
+
+   static <A extends Appendable> A format(double v, A out)
+      throws IOException
+   {
+      long bits = Double.doubleToRawLongBits(v);
+      long t = bits & (D_C_MIN - 1);
+      int bq = (int) (bits >>> 52) & 0x7ff;
+      if(bq == 0x7ff) {
+         out.append((t != 0) ? "NaN" : (bits < 0) ? "-Infinity" : "Infinity");
+         return out;
+      }
+      if(bits < 0) out.append('-');
+      if(bq != 0) {
+         int mq = -D_Q_MIN + 1 - bq;
+         long c = D_C_MIN | t;
+         if(0 < mq && mq < D_P) {
+            // integers below 2^53 are printed exactly
+            long f = c >> mq;
+            if(f << mq == c) return chars(f, 0, out);
+         }
+         return schubfach(-mq, c, 0, out);
+      } else if(t != 0) {
+         return (t < D_C_TINY) ? schubfach(D_Q_MIN, 10 * t, -1, out) : schubfach(D_Q_MIN, t, 0, out);
+      }
+      out.append("0.0");
+      return out;
+   }
+
+   static <A extends Appendable> A format(float v, A out)
+      throws IOException
+   {
+      int bits = Float.floatToRawIntBits(v);
+      int t = bits & (F_C_MIN - 1);
+      int bq = (bits >>> 23) & 0xff;
+      if(bq == 0xff) {
+         out.append((t != 0) ? "NaN" : (bits < 0) ? "-Infinity" : "Infinity");
+         return out;
+      }
+      if(bits < 0) out.append('-');
+      if(bq != 0) {
+         int mq = -F_Q_MIN + 1 - bq;
+         int c = F_C_MIN | t;
+         if(0 < mq && mq < F_P) {
+            int f = c >> mq;
+            if(f << mq == c) return chars(f, 0, out);
+         }
+         return schubfach(-mq, c, 0, out);
+      } else if(t != 0) {
+         return (t < F_C_TINY) ? schubfach(F_Q_MIN, 10 * t, -1, out) : schubfach(F_Q_MIN, t, 0, out);
+      }
+      out.append("0.0");
+      return out;
+   }
+
+
+   /*
+    * Computes the shortest decimal f 10^e in the rounding interval of c 2^q. The
+    * interval bounds are scaled by a 126 bit approximation of 10^-k such that the
+    * decimal candidates can be compared with them using 64 bit arithmetic alone.
+    * See R. Giulietti, "The Schubfach way to render doubles".
+    */
+   private static <A extends Appendable> A schubfach(int q, long c, int dk, A dest)
+      throws IOException
+   {
+      int out = (int) c & 1;
+      long cb = c << 2;
+      long cbr = cb + 2;
+      long cbl;
+      int k;
+      if(c != D_C_MIN || q == D_Q_MIN) {
+         cbl = cb - 2;
+         k = flog10pow2(q);
+      } else {
+         cbl = cb - 1;
+         k = flog10threeQuartersPow2(q);
+      }
+      int h = q + flog2pow10(-k) + 2;
+      long g1 = Tables.G[(k - K_MIN) << 1];
+      long g0 = Tables.G[(k - K_MIN) << 1 | 1];
+
+      long vb = rop(g1, g0, cb << h);
+      long vbl = rop(g1, g0, cbl << h);
+      long vbr = rop(g1, g0, cbr << h);
+
+      long s = vb >> 2;
+      if(s >= 100) {
+         long sp10 = 10 * multiplyHigh(s, 115292150460684698L << 4);
+         long tp10 = sp10 + 10;
+         boolean upin = vbl + out <= sp10 << 2;
+         boolean wpin = (tp10 << 2) + out <= vbr;
+         if(upin != wpin) return chars(upin ? sp10 : tp10, k, dest);
+      }
+      long t = s + 1;
+      boolean uin = vbl + out <= s << 2;
+      boolean win = (t << 2) + out <= vbr;
+      if(uin != win) return chars(uin ? s : t, k + dk, dest);
+      long cmp = vb - (s + t << 1);
+      return chars((cmp < 0 || cmp == 0 && (s & 1) == 0) ? s : t, k + dk, dest);
+   }
+
+   private static <A extends Appendable> A schubfach(int q, int c, int dk, A dest)
+      throws IOException
+   {
+      int out = c & 1;
+      long cb = c << 2;
+      long cbr = cb + 2;
+      long cbl;
+      int k;
+      if(c != F_C_MIN || q == F_Q_MIN) {
+         cbl = cb - 2;
+         k = flog10pow2(q);
+      } else {
+         cbl = cb - 1;
+         k = flog10threeQuartersPow2(q);
+      }
+      int h = q + flog2pow10(-k) + 33;
+      long g = Tables.G[(k - K_MIN) << 1] + 1;
+
+      int vb = rop(g, cb << h);
+      int vbl = rop(g, cbl << h);
+      int vbr = rop(g, cbr << h);
+
+      int s = vb >> 2;
+      if(s >= 100) {
+         int sp10 = 10 * (int) (s * 1717986919L >>> 34);
+         int tp10 = sp10 + 10;
+         boolean upin = vbl + out <= sp10 << 2;
+         boolean wpin = (tp10 << 2) + out <= vbr;
+         if(upin != wpin) return chars(upin ? sp10 : tp10, k, dest);
+      }
+      int t = s + 1;
+      boolean uin = vbl + out <= s << 2;
+      boolean win = (t << 2) + out <= vbr;
+      if(uin != win) return chars(uin ? s : t, k + dk, dest);
+      int cmp = vb - (s + t << 1);
+      return chars((cmp < 0 || cmp == 0 && (s & 1) == 0) ? s : t, k + dk, dest);
+   }
+
+   // round to odd the product of the 126 bit g1 2^63 + g0 and cp
+   private static long rop(long g1, long g0, long cp)
+   {
+      long x1 = multiplyHigh(g0, cp);
+      long y0 = g1 * cp;
+      long y1 = multiplyHigh(g1, cp);
+      long z = (y0 >>> 1) + x1;
+      long vbp = y1 + (z >>> 63);
+      return vbp | (z & MASK_63) + MASK_63 >>> 63;
+   }
+
+   private static int rop(long g, long cp)
+   {
+      long x1 = multiplyHigh(g, cp);
+      long vbp = x1 >>> 31;
+      return (int) (vbp | (x1 & MASK_32) + MASK_32 >>> 32);
+   }
+
+   // floor(log10(2^e)) for |e| <= 5456721
+   private static int flog10pow2(int e)
+   {
+      return (int) (e * 661971961083L >> 41);
+   }
+
+   // floor(log10(3/4 2^e)) for |e| <= 5456721
+   private static int flog10threeQuartersPow2(int e)
+   {
+      return (int) (e * 661971961083L + -274743187321L >> 41);
+   }
+
+   // floor(log2(10^e)) for |e| <= 1233110
+   private static int flog2pow10(int e)
+   {
+      return (int) (e * 913124641741L >> 38);
+   }
+
+
+   /*
+    * Appends f 10^e using the layout of Double.toString: plain notation when the
+    * value lies in [10^-3, 10^7) and computerized scientific notation otherwise,
+    * always with at least one digit following the decimal point.
+    */
+   private static <A extends Appendable> A chars(long f, int e, A out)
+      throws IOException
+   {
+      while(f % 10 == 0) {
+         f /= 10;
+         e++;
+      }
+      int len = 1;
+      while(len < POW10.length && f >= POW10[len]) len++;
+      int exp = e + len - 1;
+      if(exp >= 0 && exp < 7) {
+         for(int i = 0; i <= exp; i++) out.append((i < len) ? digit(f, len, i) : '0');
+         out.append('.');
+         if(len <= exp + 1) out.append('0');
+         for(int i = exp + 1; i < len; i++) out.append(digit(f, len, i));
+      } else if(exp < 0 && exp >= -3) {
+         out.append('0').append('.');
+         for(int i = -1; i > exp; i--) out.append('0');
+         for(int i = 0; i < len; i++) out.append(digit(f, len, i));
+      } else {
+         out.append(digit(f, len, 0)).append('.');
+         if(len == 1) out.append('0');
+         for(int i = 1; i < len; i++) out.append(digit(f, len, i));
+         out.append('E');
+         if(exp < 0) {
+            out.append('-');
+            exp = -exp;
+         }
+         if(exp >= 100) out.append((char) ('0' + exp / 100));
+         if(exp >= 10) out.append((char) ('0' + exp / 10 % 10));
+         out.append((char) ('0' + exp % 10));
+      }
+      return out;
+   }
+
+   private static char digit(long f, int len, int index)
+   {
+      return (char) ('0' + f / POW10[len - 1 - index] % 10);
+   }
+
+
+
+
+
+
+   static double parse(CharSequence str, int start, int end, double def)
+   {
+      long bits = parse(str, start, end, true);
+      if(bits == INVALID) return def;
+      if(bits == FALLBACK) {
+         try {
+            return Double.parseDouble(str.subSequence(start, end).toString());
+         } catch(NumberFormatException e) {
+            return def;
+         }
+      }
+      return Double.longBitsToDouble(bits);
+   }
+
+   static float parse(CharSequence str, int start, int end, float def)
+   {
+      long bits = parse(str, start, end, false);
+      if(bits == INVALID) return def;
+      if(bits == FALLBACK) {
+         try {
+            return Float.parseFloat(str.subSequence(start, end).toString());
+         } catch(NumberFormatException e) {
+            return def;
+         }
+      }
+      return Float.intBitsToFloat((int) bits);
+   }
+
+
+   // results of parse which are not the bits of a value
+   private static final long INVALID = -1L;
+   private static final long FALLBACK = -2L;
+
+   /*
+    * Parses the Java floating point literal grammar accepted by Double.parseDouble
+    * returning the raw bits of the double or float value, INVALID, or FALLBACK. As
+    * in Clinger's fast path, values whose significand and power of ten are both
+    * exactly representable are computed with a single multiplication or division.
+    */
+   private static long parse(CharSequence str, int start, int end, boolean dbl)
+   {
+      while(start < end && str.charAt(start) <= ' ') start++;
+      while(end > start && str.charAt(end - 1) <= ' ') end--;
+      if(start == end) return INVALID;
+
+      boolean negative = false;
+      char first = str.charAt(start);
+      if(first == '-' || first == '+') {
+         negative = (first == '-');
+         if(++start == end) return INVALID;
+      }
+      long sign = negative ? (dbl ? Long.MIN_VALUE : 0x80000000L) : 0L;
+      if(matches(str, start, end, "NaN")) return dbl ? 0x7ff8000000000000L : 0x7fc00000L;
+      if(matches(str, start, end, "Infinity")) return sign | (dbl ? 0x7ff0000000000000L : 0x7f800000L);
+      if(end - start > 1 && str.charAt(start) == '0' && (str.charAt(start + 1) | 0x20) == 'x') return FALLBACK;
+
+      char last = str.charAt(end - 1);
+      if(last == 'd' || last == 'D' || last == 'f' || last == 'F') end--;
+
+      long w = 0;
+      int significant = 0, exponent = 0, i = start;
+      boolean any = false, truncated = false;
+      for(; i < end; i++) {
+         int digit = str.charAt(i) - '0';
+         if(digit < 0 || digit > 9) break;
+         any = true;
+         if(significant < 19) {
+            if(w != 0 || digit != 0) {
+               w = w * 10 + digit;
+               significant++;
+            }
+         } else {
+            exponent++;
+            truncated |= digit != 0;
+         }
+      }
+      if(i < end && str.charAt(i) == '.') {
+         int fraction = ++i;
+         for(; i < end; i++) {
+            int digit = str.charAt(i) - '0';
+            if(digit < 0 || digit > 9) break;
+            if(significant < 19) {
+               if(w != 0 || digit != 0) {
+                  w = w * 10 + digit;
+                  significant++;
+               }
+               exponent--;
+            } else {
+               truncated |= digit != 0;
+            }
+         }
+         any |= i > fraction;
+      }
+      if(!any) return INVALID;
+      if(i < end && (str.charAt(i) | 0x20) == 'e') {
+         boolean negativeExp = false;
+         if(++i < end && (str.charAt(i) == '-' || str.charAt(i) == '+')) {
+            negativeExp = (str.charAt(i++) == '-');
+         }
+         int digits = i, value = 0;
+         for(; i < end; i++) {
+            int digit = str.charAt(i) - '0';
+            if(digit < 0 || digit > 9) break;
+            if(value < 100000) value = value * 10 + digit;
+         }
+         if(i == digits) return INVALID;
+         exponent += negativeExp ? -value : value;
+      }
+      if(i != end) return INVALID;
+      if(w == 0) return sign;
+
+      if(dbl) {
+         if(!truncated && w >= 0 && w <= 1L << 53 && exponent >= -22 && exponent <= 22) {
+            double result = (exponent < 0) ? w / DOUBLE_POW10[-exponent] : w * DOUBLE_POW10[exponent];
+            return Double.doubleToRawLongBits(negative ? -result : result);
+         }
+         long bits = eiselLemire(w, exponent, 52, -1023, 0x7ff, -4, 23, -342, 308);
+         if(truncated && bits != eiselLemire(w + 1, exponent, 52, -1023, 0x7ff, -4, 23, -342, 308)) return FALLBACK;
+         return sign | bits;
+      } else {
+         if(!truncated && w >= 0 && w <= 1L << 24 && exponent >= -10 && exponent <= 10) {
+            float result = (exponent < 0) ? w / FLOAT_POW10[-exponent] : w * FLOAT_POW10[exponent];
+            return Float.floatToRawIntBits(negative ? -result : result) & MASK_32;
+         }
+         long bits = eiselLemire(w, exponent, 23, -127, 0xff, -17, 10, -64, 38);
+         if(truncated && bits != eiselLemire(w + 1, exponent, 23, -127, 0xff, -17, 10, -64, 38)) return FALLBACK;
+         return sign | bits;
+      }
+   }
+
+   private static boolean matches(CharSequence str, int start, int end, String word)
+   {
+      if(end - start != word.length()) return false;
+      for(int i = 0; i < word.length(); i++) {
+         if(str.charAt(start + i) != word.charAt(i)) return false;
+      }
+      return true;
+   }
+
+   /*
+    * Computes the correctly rounded binary value of the unsigned decimal w 10^q as
+    * the unsigned raw bits of a floating point format with the given parameters. See
+    * D. Lemire, "Number Parsing at a Gigabyte per Second" and N. Mushtak, D. Lemire,
+    * "Fast Number Parsing Without Fallback" for the proof that the product of the
+    * 128 bit approximation is always sufficient.
+    */
+   private static long eiselLemire(long w, int q, int mantissaBits, int minExponent, int infinitePower,
+                                   int minRoundToEven, int maxRoundToEven, int minPower, int maxPower)
+   {
+      if(q < minPower) return 0;
+      if(q > maxPower) return (long) infinitePower << mantissaBits;
+      int lz = Long.numberOfLeadingZeros(w);
+      w <<= lz;
+
+      int index = (q - Q_MIN) << 1;
+      long hi = unsignedMultiplyHigh(w, Tables.T[index]);
+      long lo = w * Tables.T[index];
+      long mask = -1L >>> (mantissaBits + 3);
+      if((hi & mask) == mask) {
+         long hi2 = unsignedMultiplyHigh(w, Tables.T[index + 1]);
+         lo += hi2;
+         if(Long.compareUnsigned(hi2, lo) > 0) hi++;
+      }
+
+      int upper = (int) (hi >>> 63);
+      int shift = upper + 64 - mantissaBits - 3;
+      long mantissa = hi >>> shift;
+      int power2 = ((152170 + 65536) * q >> 16) + 63 + upper - lz - minExponent;
+      if(power2 <= 0) {
+         // subnormal, which may round up to the smallest normal
+         if(-power2 + 1 >= 64) return 0;
+         mantissa >>>= -power2 + 1;
+         mantissa += mantissa & 1;
+         mantissa >>>= 1;
+         power2 = (mantissa < 1L << mantissaBits) ? 0 : 1;
+         return mantissa | (long) power2 << mantissaBits;
+      }
+      if((lo == 0 || lo == 1) && q >= minRoundToEven && q <= maxRoundToEven && (mantissa & 3) == 1) {
+         // exactly halfway between two values so round to even rather than up
+         if(mantissa << shift == hi) mantissa &= ~1L;
+      }
+      mantissa += mantissa & 1;
+      mantissa >>>= 1;
+      if(mantissa >= 2L << mantissaBits) {
+         mantissa = 1L << mantissaBits;
+         power2++;
+      }
+      mantissa &= ~(1L << mantissaBits);
+      if(power2 >= infinitePower) return (long) infinitePower << mantissaBits;
+      return mantissa | (long) power2 << mantissaBits;
+   }
+
+
+
+
+   private static long multiplyHigh(long x, long y)
+   {
+      long x1 = x >> 32;
+      long x2 = x & MASK_32;
+      long y1 = y >> 32;
+      long y2 = y & MASK_32;
+      long z2 = x2 * y2;
+      long t = x1 * y2 + (z2 >>> 32);
+      long z1 = t & MASK_32;
+      long z0 = t >> 32;
+      z1 += x2 * y1;
+      return x1 * y1 + z0 + (z1 >> 32);
+   }
+
+   private static long unsignedMultiplyHigh(long x, long y)
+   {
+      return multiplyHigh(x, y) + ((x >> 63) & y) + ((y >> 63) & x);
+   }
+
+
+
+
+   // the power of ten tables, computed once a double or float is first formatted or parsed
+   private static final class Tables {
+
+      /*
+       * For each k in [K_MIN, K_MAX] the 126 bit g = floor(10^-k 2^-r) + 1 where r is
+       * chosen such that 2^125 <= g < 2^126, split into its upper and lower 63 bits.
+       */
+      private static final long[] G = new long[(K_MAX - K_MIN + 1) << 1];
+
+      /*
+       * For each q in [Q_MIN, Q_MAX] the 128 bit truncated approximation of 5^q
+       * normalized such that its most significant bit is set, split into its upper
+       * and lower 64 bits. Negative powers are rounded up.
+       */
+      private static final long[] T = new long[(Q_MAX - Q_MIN + 1) << 1];
+
+      static {
+         BigInteger mask63 = BigInteger.ONE.shiftLeft(63).subtract(BigInteger.ONE);
+         for(int k = K_MIN; k <= K_MAX; k++) {
+            int r = flog2pow10(-k) - 125;
+            BigInteger g;
+            if(k <= 0) {
+               BigInteger pow = BigInteger.TEN.pow(-k);
+               g = (r >= 0) ? pow.shiftRight(r) : pow.shiftLeft(-r);
+            } else {
+               g = BigInteger.ONE.shiftLeft(-r).divide(BigInteger.TEN.pow(k));
+            }
+            g = g.add(BigInteger.ONE);
+            G[(k - K_MIN) << 1] = g.shiftRight(63).longValue();
+            G[(k - K_MIN) << 1 | 1] = g.and(mask63).longValue();
+         }
+
+         BigInteger mask64 = BigInteger.ONE.shiftLeft(64).subtract(BigInteger.ONE);
+         for(int q = Q_MIN; q <= Q_MAX; q++) {
+            BigInteger c;
+            if(q < 0) {
+               BigInteger pow = BigInteger.valueOf(5).pow(-q);
+               int z = pow.bitLength();
+               int b = (q >= -27) ? z + 127 : 2 * z + 128;
+               c = BigInteger.ONE.shiftLeft(b).divide(pow).add(BigInteger.ONE);
+            } else {
+               c = BigInteger.valueOf(5).pow(q);
+               if(c.bitLength() < 128) c = c.shiftLeft(128 - c.bitLength());
+            }
+            if(c.bitLength() > 128) c = c.shiftRight(c.bitLength() - 128);
+            T[(q - Q_MIN) << 1] = c.shiftRight(64).longValue();
+            T[(q - Q_MIN) << 1 | 1] = c.and(mask64).longValue();
+         }
+      }
+   }
+
+}
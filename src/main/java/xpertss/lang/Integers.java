@@ -25,7 +25,7 @@ public final class Integers {
     */
    public static int parse(CharSequence str, int def)
    {
-      try { return Integer.parseInt(CharSequences.toString(str)); } catch (Exception e) { return def; }
+      return (str == null) ? def : (int) Longs.parse(str, 0, str.length(), 10, Integer.MIN_VALUE, Integer.MAX_VALUE, def);
    }
 
    /**
@@ -34,7 +34,36 @@ public final class Integers {
     */
    public static int parse(CharSequence str, int radix, int def)
    {
-      try { return Integer.parseInt(CharSequences.toString(str), radix); } catch (Exception e) { return def; }
+      return (str == null) ? def : (int) Longs.parse(str, 0, str.length(), radix, Integer.MIN_VALUE, Integer.MAX_VALUE, def);
+   }
+
+   /**
+    * Parse the characters of the given sequence between start (inclusive) and end
+    * (exclusive) into an int or return the specified default if they do not form
+    * a valid int. No intermediate string is created and no exception is thrown for
+    * malformed input.
+    *
+    * @throws IndexOutOfBoundsException if start or end are out of range
+    */
+   public static int parse(CharSequence str, int start, int end, int def)
+   {
+      return parse(str, start, end, 10, def);
+   }
+
+   /**
+    * Parse the characters of the given sequence between start (inclusive) and end
+    * (exclusive) into an int using the specified radix or return the specified
+    * default if they do not form a valid int. No intermediate string is created and
+    * no exception is thrown for malformed input.
+    *
+    * @throws IndexOutOfBoundsException if start or end are out of range
+    */
+   public static int parse(CharSequence str, int start, int end, int radix, int def)
+   {
+      if(str == null) return def;
+      if(start < 0 || end > str.length() || start > end)
+         throw new IndexOutOfBoundsException(format("start %d, end %d, length %d", start, end, str.length()));
+      return (int) Longs.parse(str, start, end, radix, Integer.MIN_VALUE, Integer.MAX_VALUE, def);
    }
 
 
@@ -78,6 +107,53 @@ public final class Integers {
       return input;
    }
 
+   /**
+    * Null safe method to sort an array into ascending numerical order by splitting
+    * it into sub-arrays which are sorted in parallel in the fork/join common pool
+    * and then merged. Arrays which are small, or when the common pool has a single
+    * thread, are sorted serially.
+    *
+    * @param input The input array to sort
+    * @return The sorted array or {@code null} if the array was {@code null}
+    * @see Arrays#parallelSort(int[])
+    */
+   public static int[] sortParallel(int[] input)
+   {
+      if(input != null) Arrays.parallelSort(input);
+      return input;
+   }
+
+   /**
+    * Null safe method to sort an array into ascending numerical order using a least
+    * significant digit radix sort. This runs in linear time, making one pass over the
+    * array per significant byte, but allocates a scratch array of the same length.
+    * It is typically faster than {@link #sort(int[])} for all but small arrays
+    * of random keys.
+    *
+    * @param input The input array to sort
+    * @return The sorted array or {@code null} if the array was {@code null}
+    */
+   public static int[] sortRadix(int[] input)
+   {
+      if(input != null) RadixSort.sort(input);
+      return input;
+   }
+
+   /**
+    * Null safe method to sort an array into ascending numerical order choosing among
+    * {@link #sort(int[])}, {@link #sortRadix(int[])}, and {@link
+    * #sortParallel(int[])} based on the array's length and the parallelism of the
+    * fork/join common pool.
+    *
+    * @param input The input array to sort
+    * @return The sorted array or {@code null} if the array was {@code null}
+    */
+   public static int[] sortAuto(int[] input)
+   {
+      if(input != null) RadixSort.auto(input);
+      return input;
+   }
+
 
    /**
     * Checks if an array is empty or {@code null}.
@@ -236,6 +312,7 @@ public final class Integers {
     * @param items The elements to append to the end
     * @return A new array with all the items
     * @throws NullPointerException If array is {@code null}
+    * @see IntArrayBuilder
     */
    public static int[] append(int[] array, int ... items)
    {
@@ -250,6 +327,7 @@ public final class Integers {
     * @param items The elements to prepend to the beginning
     * @return A new array with all the items
     * @throws NullPointerException If array is {@code null}
+    * @see IntArrayBuilder
     */
    public static int[] prepend(int[] array, int ... items)
    {
@@ -267,6 +345,7 @@ public final class Integers {
     * @return A new array with all the items
     * @throws IndexOutOfBoundsException If the given index is invalid
     * @throws NullPointerException If array is {@code null}
+    * @see IntArrayBuilder
     */
    public static int[] insert(int idx, int[] array, int ... items)
    {
@@ -453,6 +532,9 @@ public final class Integers {
     * Find the "best guess" middle value among the given set of numbers. If there is
     * an even number of values, then the two middle values are summed together
     * and divided by two and rounded down.
+    * <p>
+    * The middle value is located by selection in linear expected time on a copy of
+    * the set rather than by sorting it.
     * <pre>
     *    Integers.median(1)            = 1
     *    Integers.median(1,2,3,4)      = 2
@@ -468,10 +550,64 @@ public final class Integers {
     */
    public static int median(int ... set)
    {
-      int[] sorted = sort(notEmpty(set).clone());
-      int mid = (sorted.length - 1) / 2;
-      return (sorted.length % 2 != 0) ? sorted[mid] :
-            round((sorted[mid] + sorted[mid + 1]) / 2D, RoundingMode.DOWN);
+      return medianInPlace(notEmpty(set).clone());
+   }
+
+   /**
+    * Find the median of the given set of numbers in the same manner as {@link
+    * #median(int...)} but without first copying the set. The set is partially
+    * reordered, in linear expected time, as a side effect.
+    *
+    * @param set set of items to obtain the median from
+    * @return The median value from the set
+    * @throws NullPointerException If the supplied set is {@code null}
+    * @throws IllegalArgumentException If the set has a length of zero
+    */
+   public static int medianInPlace(int[] set)
+   {
+      int mid = (notEmpty(set).length - 1) / 2;
+      int lower = Selection.select(set, mid);
+      if(set.length % 2 != 0) return lower;
+      int upper = Selection.successor(set, mid);
+      return round(((double) lower + upper) / 2, RoundingMode.DOWN);
+   }
+
+   /**
+    * Returns the value at the given percentile of the set of numbers using the
+    * nearest rank method. That is the smallest value in the set such that at least
+    * {@code p} percent of the set is less than or equal to it. The zeroth percentile
+    * is the minimum and the hundredth the maximum.
+    * <p>
+    * The value is located by selection in linear expected time on a copy of the set.
+    *
+    * @param set set of items to obtain the percentile from
+    * @param p the percentile in the range [0, 100]
+    * @return The value at the given percentile
+    * @throws NullPointerException If the supplied set is {@code null}
+    * @throws IllegalArgumentException If the set has a length of zero or the
+    *    percentile is outside the range [0, 100]
+    */
+   public static int percentile(int[] set, double p)
+   {
+      int rank = Selection.rank(notEmpty(set).length, p);
+      return Selection.select(set.clone(), rank);
+   }
+
+   /**
+    * Returns the value at the given percentile of the set of numbers in the same
+    * manner as {@link #percentile(int[], double)} but without first copying the set.
+    * The set is partially reordered as a side effect.
+    *
+    * @param set set of items to obtain the percentile from
+    * @param p the percentile in the range [0, 100]
+    * @return The value at the given percentile
+    * @throws NullPointerException If the supplied set is {@code null}
+    * @throws IllegalArgumentException If the set has a length of zero or the
+    *    percentile is outside the range [0, 100]
+    */
+   public static int percentileInPlace(int[] set, double p)
+   {
+      return Selection.select(set, Selection.rank(notEmpty(set).length, p));
    }
 
    /**
@@ -481,6 +617,9 @@ public final class Integers {
     * If there are multiple most frequent items because they all have the same
     * count within the set, the returned array will include them all sorted from
     * smallest to largest.
+    * <p>
+    * Occurrences are counted in a hash table in linear expected time without
+    * sorting or copying the set.
     * <pre>
     *    Integers.mode(1,2,3,4)          = [ ]
     *    Integers.mode(4,3,2,1)          = [ ]
@@ -496,29 +635,12 @@ public final class Integers {
     */
    public static int[] mode(int ... items)
    {
-      int[] sorted = sort(notEmpty(items).clone());
-      int[] result = new int[sorted.length/2];
-      int pos = 0, last = sorted[0];
-      int maxCount = 0, count = 1;
-      for(int i = 1; i < sorted.length; i++) {
-         int next = sorted[i];
-         if(last < next) {
-            if(count > 1) {
-               if(count > maxCount) {
-                  maxCount = count;
-                  result[0] = last;
-                  pos = 1;
-               } else if(count == maxCount) {
-                  result[pos++] = last;
-               }
-            }
-            count = 1;
-         } else {
-            count++;
-         }
-         last = next;
-      }
-      return Arrays.copyOf(result, (maxCount > 1) ? pos : 0);
+      Selection.Counter counter = new Selection.Counter(notEmpty(items).length);
+      for(int item : items) counter.add(item);
+      long[] modes = counter.modes();
+      int[] result = new int[modes.length];
+      for(int i = 0; i < modes.length; i++) result[i] = (int) modes[i];
+      return sort(result);
    }
 
    /**
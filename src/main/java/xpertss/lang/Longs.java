@@ -26,7 +26,7 @@ public final class Longs {
     */
    public static long parse(CharSequence str, long def)
    {
-      try { return Long.parseLong(CharSequences.toString(str)); } catch (Exception e) { return def; }
+      return (str == null) ? def : parse(str, 0, str.length(), 10, Long.MIN_VALUE, Long.MAX_VALUE, def);
    }
 
    /**
@@ -35,7 +35,67 @@ public final class Longs {
     */
    public static long parse(CharSequence str, int radix, long def)
    {
-      try { return Long.parseLong(CharSequences.toString(str), radix); } catch (Exception e) { return def; }
+      return (str == null) ? def : parse(str, 0, str.length(), radix, Long.MIN_VALUE, Long.MAX_VALUE, def);
+   }
+
+   /**
+    * Parse the characters of the given sequence between start (inclusive) and end
+    * (exclusive) into a long or return the specified default if they do not form a
+    * valid long. No intermediate string is created and no exception is thrown for
+    * malformed input.
+    *
+    * @throws IndexOutOfBoundsException if start or end are out of range
+    */
+   public static long parse(CharSequence str, int start, int end, long def)
+   {
+      return parse(str, start, end, 10, def);
+   }
+
+   /**
+    * Parse the characters of the given sequence between start (inclusive) and end
+    * (exclusive) into a long using the specified radix or return the specified default
+    * if they do not form a valid long. No intermediate string is created and no
+    * exception is thrown for malformed input.
+    *
+    * @throws IndexOutOfBoundsException if start or end are out of range
+    */
+   public static long parse(CharSequence str, int start, int end, int radix, long def)
+   {
+      if(str == null) return def;
+      if(start < 0 || end > str.length() || start > end)
+         throw new IndexOutOfBoundsException(format("start %d, end %d, length %d", start, end, str.length()));
+      return parse(str, start, end, radix, Long.MIN_VALUE, Long.MAX_VALUE, def);
+   }
+
+   /**
+    * Parse the signed number in the given range of characters checking that it lies
+    * within [min, max]. This follows the rules of {@link Long#parseLong(String, int)}
+    * but returns the default rather than throwing. The value is accumulated as a
+    * negative number so that the magnitude of min may exceed that of max.
+    */
+   static long parse(CharSequence str, int start, int end, int radix, long min, long max, long def)
+   {
+      if(start >= end || radix < Character.MIN_RADIX || radix > Character.MAX_RADIX) return def;
+      boolean negative = false;
+      long limit = -max;
+      char first = str.charAt(start);
+      if(first == '-' || first == '+') {
+         if(first == '-') {
+            negative = true;
+            limit = min;
+         }
+         if(++start == end) return def;
+      }
+      long multmin = limit / radix;
+      long result = 0;
+      for(int i = start; i < end; i++) {
+         int digit = Character.digit(str.charAt(i), radix);
+         if(digit < 0 || result < multmin) return def;
+         result *= radix;
+         if(result < limit + digit) return def;
+         result -= digit;
+      }
+      return negative ? result : -result;
    }
 
 
@@ -77,6 +137,53 @@ public final class Longs {
       return input;
    }
 
+   /**
+    * Null safe method to sort an array into ascending numerical order by splitting
+    * it into sub-arrays which are sorted in parallel in the fork/join common pool
+    * and then merged. Arrays which are small, or when the common pool has a single
+    * thread, are sorted serially.
+    *
+    * @param input The input array to sort
+    * @return The sorted array or {@code null} if the array was {@code null}
+    * @see Arrays#parallelSort(long[])
+    */
+   public static long[] sortParallel(long[] input)
+   {
+      if(input != null) Arrays.parallelSort(input);
+      return input;
+   }
+
+   /**
+    * Null safe method to sort an array into ascending numerical order using a least
+    * significant digit radix sort. This runs in linear time, making one pass over the
+    * array per significant byte, but allocates a scratch array of the same length.
+    * It is typically faster than {@link #sort(long[])} for all but small arrays
+    * of random keys.
+    *
+    * @param input The input array to sort
+    * @return The sorted array or {@code null} if the array was {@code null}
+    */
+   public static long[] sortRadix(long[] input)
+   {
+      if(input != null) RadixSort.sort(input);
+      return input;
+   }
+
+   /**
+    * Null safe method to sort an array into ascending numerical order choosing among
+    * {@link #sort(long[])}, {@link #sortRadix(long[])}, and {@link
+    * #sortParallel(long[])} based on the array's length and the parallelism of the
+    * fork/join common pool.
+    *
+    * @param input The input array to sort
+    * @return The sorted array or {@code null} if the array was {@code null}
+    */
+   public static long[] sortAuto(long[] input)
+   {
+      if(input != null) RadixSort.auto(input);
+      return input;
+   }
+
    /**
     * Checks if an array is {@code null} or has a length of zero.
     *
@@ -232,6 +339,7 @@ public final class Longs {
     * @param items The elements to append to the end
     * @return A new array with all the items
     * @throws NullPointerException If array is {@code null}
+    * @see LongArrayBuilder
     */
    public static long[] append(long[] array, long ... items)
    {
@@ -246,6 +354,7 @@ public final class Longs {
     * @param items The elements to prepend to the beginning
     * @return A new array with all the items
     * @throws NullPointerException If array is {@code null}
+    * @see LongArrayBuilder
     */
    public static long[] prepend(long[] array, long ... items)
    {
@@ -263,6 +372,7 @@ public final class Longs {
     * @return A new array with all the items
     * @throws IndexOutOfBoundsException If the given index is invalid
     * @throws NullPointerException If array is {@code null}
+    * @see LongArrayBuilder
     */
    public static long[] insert(int idx, long[] array, long ... items)
    {
@@ -446,9 +556,11 @@ public final class Longs {
    /**
     * Find the "best guess" middle value among the given set of numbers. If there
     * is an even number of values, then the two middle values are summed together
-    * and divided by two and rounded down. If the two middle values are very large
-    * then there is a possibility that overflow could occur when computing the
-    * median.
+    * and divided by two and rounded toward zero. The mean is computed exactly, so
+    * it neither overflows nor loses precision for very large values.
+    * <p>
+    * The middle value is located by selection in linear expected time on a copy of
+    * the set rather than by sorting it.
     * <pre>
     *    Longs.median(1)            = 1
     *    Longs.median(1,2,3,4)      = 2
@@ -464,10 +576,73 @@ public final class Longs {
     */
    public static long median(long ... set)
    {
-      long[] sorted = sort(notEmpty(set).clone());
-      int mid = (sorted.length - 1) / 2;
-      return (sorted.length % 2 != 0) ? sorted[mid] :
-            round((sorted[mid] + sorted[mid + 1]) / 2D, RoundingMode.DOWN);
+      return medianInPlace(notEmpty(set).clone());
+   }
+
+   /**
+    * Find the median of the given set of numbers in the same manner as {@link
+    * #median(long...)} but without first copying the set. The set is partially
+    * reordered, in linear expected time, as a side effect.
+    *
+    * @param set set of items to obtain the median from
+    * @return The median value from the set
+    * @throws NullPointerException If the supplied set is {@code null}
+    * @throws IllegalArgumentException If the set has a length of zero
+    */
+   public static long medianInPlace(long[] set)
+   {
+      int mid = (notEmpty(set).length - 1) / 2;
+      long lower = Selection.select(set, mid);
+      if(set.length % 2 != 0) return lower;
+      return midpoint(lower, Selection.successor(set, mid));
+   }
+
+   /*
+    * The mean of the two values rounded toward zero, as RoundingMode.DOWN would, computed
+    * without overflow or the loss of precision of summing them as doubles.
+    */
+   private static long midpoint(long lower, long upper)
+   {
+      long floor = (lower >> 1) + (upper >> 1) + (lower & upper & 1);
+      return (floor < 0 && ((lower ^ upper) & 1) != 0) ? floor + 1 : floor;
+   }
+
+   /**
+    * Returns the value at the given percentile of the set of numbers using the
+    * nearest rank method. That is the smallest value in the set such that at least
+    * {@code p} percent of the set is less than or equal to it. The zeroth percentile
+    * is the minimum and the hundredth the maximum.
+    * <p>
+    * The value is located by selection in linear expected time on a copy of the set.
+    *
+    * @param set set of items to obtain the percentile from
+    * @param p the percentile in the range [0, 100]
+    * @return The value at the given percentile
+    * @throws NullPointerException If the supplied set is {@code null}
+    * @throws IllegalArgumentException If the set has a length of zero or the
+    *    percentile is outside the range [0, 100]
+    */
+   public static long percentile(long[] set, double p)
+   {
+      int rank = Selection.rank(notEmpty(set).length, p);
+      return Selection.select(set.clone(), rank);
+   }
+
+   /**
+    * Returns the value at the given percentile of the set of numbers in the same
+    * manner as {@link #percentile(long[], double)} but without first copying the set.
+    * The set is partially reordered as a side effect.
+    *
+    * @param set set of items to obtain the percentile from
+    * @param p the percentile in the range [0, 100]
+    * @return The value at the given percentile
+    * @throws NullPointerException If the supplied set is {@code null}
+    * @throws IllegalArgumentException If the set has a length of zero or the
+    *    percentile is outside the range [0, 100]
+    */
+   public static long percentileInPlace(long[] set, double p)
+   {
+      return Selection.select(set, Selection.rank(notEmpty(set).length, p));
    }
 
    /**
@@ -477,6 +652,9 @@ public final class Longs {
     * If there are multiple most frequent items because they all have the same
     * count within the set, the returned array will include them all sorted from
     * smallest to largest.
+    * <p>
+    * Occurrences are counted in a hash table in linear expected time without
+    * sorting or copying the set.
     * <pre>
     *    Longs.mode(1,2,3,4)          = [ ]
     *    Longs.mode(4,3,2,1)          = [ ]
@@ -492,29 +670,12 @@ public final class Longs {
     */
    public static long[] mode(long ... items)
    {
-      long[] sorted = sort(notEmpty(items).clone());
-      long[] result = new long[sorted.length/2];
-      int maxCount = 0, count = 1, pos = 0;
-      long last = sorted[0];
-      for(int i = 1; i < sorted.length; i++) {
-         long next = sorted[i];
-         if(last < next) {
-            if(count > 1) {
-               if(count > maxCount) {
-                  maxCount = count;
-                  result[0] = last;
-                  pos = 1;
-               } else if(count == maxCount) {
-                  result[pos++] = last;
-               }
-            }
-            count = 1;
-         } else {
-            count++;
-         }
-         last = next;
-      }
-      return Arrays.copyOf(result, (maxCount > 1) ? pos : 0);
+      Selection.Counter counter = new Selection.Counter(notEmpty(items).length);
+      for(long item : items) counter.add(item);
+      long[] modes = counter.modes();
+      long[] result = new long[modes.length];
+      for(int i = 0; i < modes.length; i++) result[i] = modes[i];
+      return sort(result);
    }
 
    /**
@@ -0,0 +1,152 @@
+package xpertss.lang;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Least significant digit radix sorts over primitive integer arrays along with the
+ * size based choice between them, the JDK's serial dual pivot quicksort, and its
+ * fork/join parallel sort.
+ * <p>
+ * Each sort makes one pass over the array to build the histograms of every byte and
+ * then one scatter pass per byte into a scratch array of the same length. Bytes
+ * that hold the same value across the whole array, such as the upper bytes of small
+ * non-negative keys, are skipped. The sign bit of the most significant byte is
+ * flipped so that negative keys order before positive ones.
+ */
+final class RadixSort {
+
+   /*
+    * Crossover points measured with uniformly random keys. The radix sort overtakes
+    * the JDK's quicksort at about 512 int or 2048 long keys, beyond which it is
+    * roughly four (int) and two (long) times faster. The fork/join sort splits the
+    * quicksort across the common pool so it is only chosen for large arrays when the
+    * pool has more threads than that advantage.
+    */
+   static final int INT_SERIAL = 1 << 9;
+   static final int LONG_SERIAL = 1 << 11;
+   static final int PARALLEL = 1 << 18;
+
+   private RadixSort() { }
+
+
+   static void sort(int[] a)
+   {
+      int n = a.length;
+      if(n < 2) return;
+      int[] counts = new int[4 << 8];
+      for(int v : a) {
+         counts[v & 0xff]++;
+         counts[0x100 | (v >>> 8 & 0xff)]++;
+         counts[0x200 | (v >>> 16 & 0xff)]++;
+         counts[0x300 | (v >>> 24 ^ 0x80)]++;
+      }
+      int[] src = a, dst = null;
+      for(int pass = 0; pass < 4; pass++) {
+         int base = pass << 8;
+         if(!offsets(counts, base, n)) continue;
+         if(dst == null) dst = new int[n];
+         int shift = pass << 3, flip = (pass == 3) ? 0x80 : 0;
+         for(int v : src) dst[counts[base | (v >>> shift & 0xff ^ flip)]++] = v;
+         int[] tmp = src;
+         src = dst;
+         dst = tmp;
+      }
+      if(src != a) System.arraycopy(src, 0, a, 0, n);
+   }
+
+   static void sort(long[] a)
+   {
+      int n = a.length;
+      if(n < 2) return;
+      int[] counts = new int[8 << 8];
+      for(long v : a) {
+         for(int pass = 0; pass < 7; pass++) {
+            counts[pass << 8 | (int) (v >>> (pass << 3)) & 0xff]++;
+         }
+         counts[0x700 | (int) (v >>> 56) ^ 0x80]++;
+      }
+      long[] src = a, dst = null;
+      for(int pass = 0; pass < 8; pass++) {
+         int base = pass << 8;
+         if(!offsets(counts, base, n)) continue;
+         if(dst == null) dst = new long[n];
+         int shift = pass << 3, flip = (pass == 7) ? 0x80 : 0;
+         for(long v : src) dst[counts[base | ((int) (v >>> shift) & 0xff ^ flip)]++] = v;
+         long[] tmp = src;
+         src = dst;
+         dst = tmp;
+      }
+      if(src != a) System.arraycopy(src, 0, a, 0, n);
+   }
+
+   static void sort(short[] a)
+   {
+      int n = a.length;
+      if(n < 2) return;
+      int[] counts = new int[2 << 8];
+      for(short v : a) {
+         counts[v & 0xff]++;
+         counts[0x100 | (v >>> 8 & 0xff ^ 0x80)]++;
+      }
+      short[] src = a, dst = null;
+      for(int pass = 0; pass < 2; pass++) {
+         int base = pass << 8;
+         if(!offsets(counts, base, n)) continue;
+         if(dst == null) dst = new short[n];
+         int shift = pass << 3, flip = (pass == 1) ? 0x80 : 0;
+         for(short v : src) dst[counts[base | (v >>> shift & 0xff ^ flip)]++] = v;
+         short[] tmp = src;
+         src = dst;
+         dst = tmp;
+      }
+      if(src != a) System.arraycopy(src, 0, a, 0, n);
+   }
+
+   /*
+    * Converts the histogram of one byte into starting offsets, returning false if
+    * every key holds the same value in that byte such that the pass can be skipped.
+    */
+   private static boolean offsets(int[] counts, int base, int n)
+   {
+      int sum = 0;
+      for(int i = base; i < base + 256; i++) {
+         int count = counts[i];
+         if(count == n) return false;
+         counts[i] = sum;
+         sum += count;
+      }
+      return true;
+   }
+
+
+
+
+   static void auto(int[] a)
+   {
+      if(a.length < INT_SERIAL) Arrays.sort(a);
+      else if(a.length >= PARALLEL && parallelism() > 4) Arrays.parallelSort(a);
+      else sort(a);
+   }
+
+   static void auto(long[] a)
+   {
+      if(a.length < LONG_SERIAL) Arrays.sort(a);
+      else if(a.length >= PARALLEL && parallelism() > 2) Arrays.parallelSort(a);
+      else sort(a);
+   }
+
+   // the JDK already counting sorts large short arrays in linear time
+   static void auto(short[] a)
+   {
+      if(a.length >= PARALLEL && parallelism() > 1) Arrays.parallelSort(a);
+      else Arrays.sort(a);
+   }
+
+   // Arrays.parallelSort runs in the common pool and is serial when it has one thread
+   private static int parallelism()
+   {
+      return ForkJoinPool.getCommonPoolParallelism();
+   }
+
+}
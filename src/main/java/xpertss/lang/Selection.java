@@ -0,0 +1,387 @@
+package xpertss.lang;
+
+import java.util.Arrays;
+
+/**
+ * Linear time order statistics and frequency counting over primitive arrays shared
+ * by the primitive utility classes.
+ * <p>
+ * Selection is an introselect: a quickselect using a median of three pivot and a
+ * three way partition, so runs of duplicate values such as those found in latency
+ * samples do not degrade it, which falls back to sorting the remaining range should
+ * its partitioning fail to make progress. Doubles and floats are ordered as they are
+ * by {@link Arrays#sort(double[])}.
+ */
+final class Selection {
+
+   private static final int INSERTION_THRESHOLD = 16;
+
+   private Selection() { }
+
+
+   /**
+    * Returns the zero based index of the element at the given percentile, in the
+    * range [0, 100], of a set of the given length using the nearest rank method.
+    */
+   static int rank(int length, double p)
+   {
+      if(!(p >= 0 && p <= 100)) throw new IllegalArgumentException("percentile must be in [0, 100]: " + p);
+      return Math.max(0, (int) Math.ceil(p * length / 100) - 1);
+   }
+
+
+
+
+   /**
+    * Partially orders the array such that the element at index k is the one that
+    * would be there if the array were sorted, with no greater element before it and
+    * no lesser element after it, and returns that element.
+    */
+   static int select(int[] a, int k)
+   {
+      int lo = 0, hi = a.length - 1;
+      int budget = depth(a.length);
+      while(hi - lo >= INSERTION_THRESHOLD) {
+         if(--budget < 0) {
+            Arrays.sort(a, lo, hi + 1);
+            return a[k];
+         }
+         int mid = (lo + hi) >>> 1;
+         int pivot = median(a[lo], a[mid], a[hi]);
+         // a[lo, lt) < pivot, a[lt, i) == pivot, a(gt, hi] > pivot
+         int lt = lo, i = lo, gt = hi;
+         while(i <= gt) {
+            int v = a[i];
+            if(v < pivot) {
+               a[i++] = a[lt];
+               a[lt++] = v;
+            } else if(v > pivot) {
+               a[i] = a[gt];
+               a[gt--] = v;
+            } else {
+               i++;
+            }
+         }
+         if(k < lt) hi = lt - 1;
+         else if(k > gt) lo = gt + 1;
+         else return pivot;
+      }
+      for(int i = lo + 1; i <= hi; i++) {
+         int v = a[i], j = i - 1;
+         for(; j >= lo && a[j] > v; j--) a[j + 1] = a[j];
+         a[j + 1] = v;
+      }
+      return a[k];
+   }
+
+   static long select(long[] a, int k)
+   {
+      int lo = 0, hi = a.length - 1;
+      int budget = depth(a.length);
+      while(hi - lo >= INSERTION_THRESHOLD) {
+         if(--budget < 0) {
+            Arrays.sort(a, lo, hi + 1);
+            return a[k];
+         }
+         int mid = (lo + hi) >>> 1;
+         long pivot = median(a[lo], a[mid], a[hi]);
+         int lt = lo, i = lo, gt = hi;
+         while(i <= gt) {
+            long v = a[i];
+            if(v < pivot) {
+               a[i++] = a[lt];
+               a[lt++] = v;
+            } else if(v > pivot) {
+               a[i] = a[gt];
+               a[gt--] = v;
+            } else {
+               i++;
+            }
+         }
+         if(k < lt) hi = lt - 1;
+         else if(k > gt) lo = gt + 1;
+         else return pivot;
+      }
+      for(int i = lo + 1; i <= hi; i++) {
+         long v = a[i];
+         int j = i - 1;
+         for(; j >= lo && a[j] > v; j--) a[j + 1] = a[j];
+         a[j + 1] = v;
+      }
+      return a[k];
+   }
+
+   static short select(short[] a, int k)
+   {
+      int lo = 0, hi = a.length - 1;
+      int budget = depth(a.length);
+      while(hi - lo >= INSERTION_THRESHOLD) {
+         if(--budget < 0) {
+            Arrays.sort(a, lo, hi + 1);
+            return a[k];
+         }
+         int mid = (lo + hi) >>> 1;
+         short pivot = (short) median(a[lo], a[mid], a[hi]);
+         int lt = lo, i = lo, gt = hi;
+         while(i <= gt) {
+            short v = a[i];
+            if(v < pivot) {
+               a[i++] = a[lt];
+               a[lt++] = v;
+            } else if(v > pivot) {
+               a[i] = a[gt];
+               a[gt--] = v;
+            } else {
+               i++;
+            }
+         }
+         if(k < lt) hi = lt - 1;
+         else if(k > gt) lo = gt + 1;
+         else return pivot;
+      }
+      for(int i = lo + 1; i <= hi; i++) {
+         short v = a[i];
+         int j = i - 1;
+         for(; j >= lo && a[j] > v; j--) a[j + 1] = a[j];
+         a[j + 1] = v;
+      }
+      return a[k];
+   }
+
+   static double select(double[] a, int k)
+   {
+      int lo = 0, hi = a.length - 1;
+      int budget = depth(a.length);
+      while(hi - lo >= INSERTION_THRESHOLD) {
+         if(--budget < 0) {
+            Arrays.sort(a, lo, hi + 1);
+            return a[k];
+         }
+         int mid = (lo + hi) >>> 1;
+         double pivot = median(a[lo], a[mid], a[hi]);
+         int lt = lo, i = lo, gt = hi;
+         while(i <= gt) {
+            double v = a[i];
+            int c = Double.compare(v, pivot);
+            if(c < 0) {
+               a[i++] = a[lt];
+               a[lt++] = v;
+            } else if(c > 0) {
+               a[i] = a[gt];
+               a[gt--] = v;
+            } else {
+               i++;
+            }
+         }
+         if(k < lt) hi = lt - 1;
+         else if(k > gt) lo = gt + 1;
+         else return pivot;
+      }
+      for(int i = lo + 1; i <= hi; i++) {
+         double v = a[i];
+         int j = i - 1;
+         for(; j >= lo && Double.compare(a[j], v) > 0; j--) a[j + 1] = a[j];
+         a[j + 1] = v;
+      }
+      return a[k];
+   }
+
+   static float select(float[] a, int k)
+   {
+      int lo = 0, hi = a.length - 1;
+      int budget = depth(a.length);
+      while(hi - lo >= INSERTION_THRESHOLD) {
+         if(--budget < 0) {
+            Arrays.sort(a, lo, hi + 1);
+            return a[k];
+         }
+         int mid = (lo + hi) >>> 1;
+         float pivot = median(a[lo], a[mid], a[hi]);
+         int lt = lo, i = lo, gt = hi;
+         while(i <= gt) {
+            float v = a[i];
+            int c = Float.compare(v, pivot);
+            if(c < 0) {
+               a[i++] = a[lt];
+               a[lt++] = v;
+            } else if(c > 0) {
+               a[i] = a[gt];
+               a[gt--] = v;
+            } else {
+               i++;
+            }
+         }
+         if(k < lt) hi = lt - 1;
+         else if(k > gt) lo = gt + 1;
+         else return pivot;
+      }
+      for(int i = lo + 1; i <= hi; i++) {
+         float v = a[i];
+         int j = i - 1;
+         for(; j >= lo && Float.compare(a[j], v) > 0; j--) a[j + 1] = a[j];
+         a[j + 1] = v;
+      }
+      return a[k];
+   }
+
+
+   /*
+    * The smallest element following index k, which once k has been selected is the
+    * element that would follow it were the array sorted.
+    */
+   static int successor(int[] a, int k)
+   {
+      int min = a[k + 1];
+      for(int i = k + 2; i < a.length; i++) min = Math.min(min, a[i]);
+      return min;
+   }
+
+   static long successor(long[] a, int k)
+   {
+      long min = a[k + 1];
+      for(int i = k + 2; i < a.length; i++) min = Math.min(min, a[i]);
+      return min;
+   }
+
+   static short successor(short[] a, int k)
+   {
+      short min = a[k + 1];
+      for(int i = k + 2; i < a.length; i++) if(a[i] < min) min = a[i];
+      return min;
+   }
+
+   static double successor(double[] a, int k)
+   {
+      double min = a[k + 1];
+      for(int i = k + 2; i < a.length; i++) if(Double.compare(a[i], min) < 0) min = a[i];
+      return min;
+   }
+
+   static float successor(float[] a, int k)
+   {
+      float min = a[k + 1];
+      for(int i = k + 2; i < a.length; i++) if(Float.compare(a[i], min) < 0) min = a[i];
+      return min;
+   }
+
+
+
+   private static int depth(int length)
+   {
+      return 2 * (32 - Integer.numberOfLeadingZeros(length));
+   }
+
+   private static int median(int a, int b, int c)
+   {
+      return Math.max(Math.min(a, b), Math.min(Math.max(a, b), c));
+   }
+
+   private static long median(long a, long b, long c)
+   {
+      return Math.max(Math.min(a, b), Math.min(Math.max(a, b), c));
+   }
+
+   private static double median(double a, double b, double c)
+   {
+      if(Double.compare(a, b) > 0) { double t = a; a = b; b = t; }
+      if(Double.compare(b, c) > 0) b = (Double.compare(a, c) > 0) ? a : c;
+      return b;
+   }
+
+   private static float median(float a, float b, float c)
+   {
+      if(Float.compare(a, b) > 0) { float t = a; a = b; b = t; }
+      if(Float.compare(b, c) > 0) b = (Float.compare(a, c) > 0) ? a : c;
+      return b;
+   }
+
+
+
+
+   /**
+    * An open addressing hash table counting occurrences of long keys. Values of
+    * narrower types, and the bits of floating point values, are counted by widening
+    * them to longs.
+    */
+   static final class Counter {
+
+      private long[] keys;
+      private int[] counts;
+      private int size;
+
+      Counter(int expected)
+      {
+         int capacity = Integer.highestOneBit(Math.max(8, Math.min(expected, 1 << 20)) * 2 - 1) << 1;
+         keys = new long[capacity];
+         counts = new int[capacity];
+      }
+
+      void add(long key)
+      {
+         int mask = keys.length - 1;
+         int idx = mix(key) & mask;
+         while(counts[idx] != 0) {
+            if(keys[idx] == key) {
+               counts[idx]++;
+               return;
+            }
+            idx = (idx + 1) & mask;
+         }
+         keys[idx] = key;
+         counts[idx] = 1;
+         if(++size > keys.length >>> 1) grow();
+      }
+
+      /**
+       * Returns the keys occurring most frequently, in no particular order, or an
+       * empty array if every key occurred only once.
+       */
+      long[] modes()
+      {
+         int max = 0, found = 0;
+         for(int count : counts) {
+            if(count > max) {
+               max = count;
+               found = 1;
+            } else if(count == max) {
+               found++;
+            }
+         }
+         if(max < 2) return new long[0];
+         long[] result = new long[found];
+         for(int i = 0, pos = 0; i < counts.length; i++) {
+            if(counts[i] == max) result[pos++] = keys[i];
+         }
+         return result;
+      }
+
+      private void grow()
+      {
+         long[] oldKeys = keys;
+         int[] oldCounts = counts;
+         keys = new long[oldKeys.length << 1];
+         counts = new int[oldKeys.length << 1];
+         int mask = keys.length - 1;
+         for(int i = 0; i < oldKeys.length; i++) {
+            if(oldCounts[i] != 0) {
+               int idx = mix(oldKeys[i]) & mask;
+               while(counts[idx] != 0) idx = (idx + 1) & mask;
+               keys[idx] = oldKeys[i];
+               counts[idx] = oldCounts[i];
+            }
+         }
+      }
+
+      // murmur3 finalizer
+      private static int mix(long key)
+      {
+         key ^= key >>> 33;
+         key *= 0xff51afd7ed558ccdL;
+         key ^= key >>> 33;
+         key *= 0xc4ceb9fe1a85ec53L;
+         key ^= key >>> 33;
+         return (int) key;
+      }
+   }
+
+}
@@ -24,7 +24,7 @@ public final class Shorts {
     */
    public static short parse(CharSequence str, short def)
    {
-      try { return Short.parseShort(CharSequences.toString(str)); } catch (Exception e) { return def; }
+      return (str == null) ? def : (short) Longs.parse(str, 0, str.length(), 10, Short.MIN_VALUE, Short.MAX_VALUE, def);
    }
 
    /**
@@ -33,7 +33,36 @@ public final class Shorts {
     */
    public static short parse(CharSequence str, int radix, short def)
    {
-      try { return Short.parseShort(CharSequences.toString(str), radix); } catch (Exception e) { return def; }
+      return (str == null) ? def : (short) Longs.parse(str, 0, str.length(), radix, Short.MIN_VALUE, Short.MAX_VALUE, def);
+   }
+
+   /**
+    * Parse the characters of the given sequence between start (inclusive) and end
+    * (exclusive) into a short or return the specified default if they do not form
+    * a valid short. No intermediate string is created and no exception is thrown for
+    * malformed input.
+    *
+    * @throws IndexOutOfBoundsException if start or end are out of range
+    */
+   public static short parse(CharSequence str, int start, int end, short def)
+   {
+      return parse(str, start, end, 10, def);
+   }
+
+   /**
+    * Parse the characters of the given sequence between start (inclusive) and end
+    * (exclusive) into a short using the specified radix or return the specified
+    * default if they do not form a valid short. No intermediate string is created and
+    * no exception is thrown for malformed input.
+    *
+    * @throws IndexOutOfBoundsException if start or end are out of range
+    */
+   public static short parse(CharSequence str, int start, int end, int radix, short def)
+   {
+      if(str == null) return def;
+      if(start < 0 || end > str.length() || start > end)
+         throw new IndexOutOfBoundsException(format("start %d, end %d, length %d", start, end, str.length()));
+      return (short) Longs.parse(str, start, end, radix, Short.MIN_VALUE, Short.MAX_VALUE, def);
    }
 
 
@@ -74,6 +103,51 @@ public final class Shorts {
       return input;
    }
 
+   /**
+    * Null safe method to sort an array into ascending numerical order by splitting
+    * it into sub-arrays which are sorted in parallel in the fork/join common pool
+    * and then merged. Arrays which are small, or when the common pool has a single
+    * thread, are sorted serially.
+    *
+    * @param input The input array to sort
+    * @return The sorted array or {@code null} if the array was {@code null}
+    * @see Arrays#parallelSort(short[])
+    */
+   public static short[] sortParallel(short[] input)
+   {
+      if(input != null) Arrays.parallelSort(input);
+      return input;
+   }
+
+   /**
+    * Null safe method to sort an array into ascending numerical order using a least
+    * significant digit radix sort. This runs in linear time, making one pass over the
+    * array per significant byte, but allocates a scratch array of the same length.
+    *
+    * @param input The input array to sort
+    * @return The sorted array or {@code null} if the array was {@code null}
+    */
+   public static short[] sortRadix(short[] input)
+   {
+      if(input != null) RadixSort.sort(input);
+      return input;
+   }
+
+   /**
+    * Null safe method to sort an array into ascending numerical order choosing
+    * between {@link #sort(short[])}, which already counting sorts large arrays in
+    * linear time, and {@link #sortParallel(short[])} based on the array's length and
+    * the parallelism of the fork/join common pool.
+    *
+    * @param input The input array to sort
+    * @return The sorted array or {@code null} if the array was {@code null}
+    */
+   public static short[] sortAuto(short[] input)
+   {
+      if(input != null) RadixSort.auto(input);
+      return input;
+   }
+
    /**
     * Checks if an array is empty or {@code null}.
     *
@@ -440,6 +514,120 @@ public final class Shorts {
       return min;
    }
 
+   /**
+    * Find the "best guess" middle value among the given set of numbers. If there is
+    * an even number of values, then the two middle values are summed together
+    * and divided by two and rounded down.
+    * <p>
+    * The middle value is located by selection in linear expected time on a copy of
+    * the set rather than by sorting it.
+    * <pre>
+    *    Shorts.median(1)            = 1
+    *    Shorts.median(1,2,3,4)      = 2
+    *    Shorts.median(1,2,4,6)      = 3
+    *    Shorts.median(1,2,3,4,5)    = 3
+    *    Shorts.median(1,3,2,5,4)    = 3
+    * </pre>
+    *
+    * @param set set of items to obtain the median from
+    * @return The median value from the set
+    * @throws NullPointerException If the supplied set is {@code null}
+    * @throws IllegalArgumentException If the set has a length of zero
+    */
+   public static short median(short ... set)
+   {
+      return medianInPlace(notEmpty(set).clone());
+   }
+
+   /**
+    * Find the median of the given set of numbers in the same manner as {@link
+    * #median(short...)} but without first copying the set. The set is partially
+    * reordered, in linear expected time, as a side effect.
+    *
+    * @param set set of items to obtain the median from
+    * @return The median value from the set
+    * @throws NullPointerException If the supplied set is {@code null}
+    * @throws IllegalArgumentException If the set has a length of zero
+    */
+   public static short medianInPlace(short[] set)
+   {
+      int mid = (notEmpty(set).length - 1) / 2;
+      short lower = Selection.select(set, mid);
+      if(set.length % 2 != 0) return lower;
+      return (short) ((lower + Selection.successor(set, mid)) / 2);
+   }
+
+   /**
+    * Returns the value at the given percentile of the set of numbers using the
+    * nearest rank method. That is the smallest value in the set such that at least
+    * {@code p} percent of the set is less than or equal to it. The zeroth percentile
+    * is the minimum and the hundredth the maximum.
+    * <p>
+    * The value is located by selection in linear expected time on a copy of the set.
+    *
+    * @param set set of items to obtain the percentile from
+    * @param p the percentile in the range [0, 100]
+    * @return The value at the given percentile
+    * @throws NullPointerException If the supplied set is {@code null}
+    * @throws IllegalArgumentException If the set has a length of zero or the
+    *    percentile is outside the range [0, 100]
+    */
+   public static short percentile(short[] set, double p)
+   {
+      int rank = Selection.rank(notEmpty(set).length, p);
+      return Selection.select(set.clone(), rank);
+   }
+
+   /**
+    * Returns the value at the given percentile of the set of numbers in the same
+    * manner as {@link #percentile(short[], double)} but without first copying the set.
+    * The set is partially reordered as a side effect.
+    *
+    * @param set set of items to obtain the percentile from
+    * @param p the percentile in the range [0, 100]
+    * @return The value at the given percentile
+    * @throws NullPointerException If the supplied set is {@code null}
+    * @throws IllegalArgumentException If the set has a length of zero or the
+    *    percentile is outside the range [0, 100]
+    */
+   public static short percentileInPlace(short[] set, double p)
+   {
+      return Selection.select(set, Selection.rank(notEmpty(set).length, p));
+   }
+
+   /**
+    * Find the most frequently occurring item(s) returning an empty array if all
+    * items are unique.
+    * <p>
+    * If there are multiple most frequent items because they all have the same
+    * count within the set, the returned array will include them all sorted from
+    * smallest to largest.
+    * <p>
+    * Occurrences are counted in a hash table in linear expected time without
+    * sorting or copying the set.
+    * <pre>
+    *    Shorts.mode(1,2,3,4)          = [ ]
+    *    Shorts.mode(4,3,2,1)          = [ ]
+    *    Shorts.mode(1,1,2,2,3,3,4)    = [1,2,3]
+    *    Shorts.mode(1,3,2,3,2,4)      = [2,3]
+    *    Shorts.mode(1,3,3,3,2,2,4)    = [3]
+    * </pre>
+    *
+    * @param items set of items to obtain the most populous item from
+    * @return The item that occurred the most frequently
+    * @throws NullPointerException If the supplied set is {@code null}
+    * @throws IllegalArgumentException If the set has a length of zero
+    */
+   public static short[] mode(short ... items)
+   {
+      Selection.Counter counter = new Selection.Counter(notEmpty(items).length);
+      for(short item : items) counter.add(item);
+      long[] modes = counter.modes();
+      short[] result = new short[modes.length];
+      for(int i = 0; i < modes.length; i++) result[i] = (short) modes[i];
+      return sort(result);
+   }
+
 
 
 
@@ -5,6 +5,8 @@
  */
 package xpertss.threads;
 
+import xpertss.util.Platform;
+
 import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
@@ -1003,7 +1005,7 @@ public class PhaseBarrier {
    }
 
    /** The number of CPUs, for spin control */
-   private static final int NCPU = Runtime.getRuntime().availableProcessors();
+   private static final int NCPU = Platform.processors();
 
    /**
     * The number of times to spin before blocking while waiting for
@@ -6,12 +6,16 @@
 package xpertss.threads;
 
 
+import xpertss.util.Platform;
+
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -618,6 +622,43 @@ public final class Threads {
       };
    }
 
+
+
+
+   /**
+    * Create a fixed size thread pool for CPU bound tasks whose threads are named
+    * with the specified prefix. The pool is sized to the number of processors the
+    * process may effectively use, taking container limits into account.
+    *
+    * @param prefix The thread name prefix to use on all created threads
+    * @param daemon The daemon status to create threads as
+    * @see Platform#recommendedParallelism()
+    */
+   public static ExecutorService newThreadPool(String prefix, boolean daemon)
+   {
+      return Executors.newFixedThreadPool(Platform.recommendedParallelism(),
+                                          newThreadFactory(prefix, daemon));
+   }
+
+   /**
+    * Create a fixed size thread pool for tasks which spend the given fraction of
+    * their time blocked whose threads are named with the specified prefix.
+    *
+    * @param prefix The thread name prefix to use on all created threads
+    * @param daemon The daemon status to create threads as
+    * @param blockingCoefficient The fraction of time tasks spend blocked
+    * @throws IllegalArgumentException if the coefficient is not in the range
+    *    {@code 0 <= coefficient < 1}
+    * @see Platform#recommendedParallelism(double)
+    */
+   public static ExecutorService newThreadPool(String prefix, boolean daemon, double blockingCoefficient)
+   {
+      return Executors.newFixedThreadPool(Platform.recommendedParallelism(blockingCoefficient),
+                                          newThreadFactory(prefix, daemon));
+   }
+
+
+
    private static ThreadFactory getThreadFactory(String prefix)
    {
       synchronized(prefix.intern()) {
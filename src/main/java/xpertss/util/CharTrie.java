@@ -19,6 +19,9 @@ import java.util.Arrays;
  * This class is NOT thread safe and external thread synchronization will be
  * necessary if multiple concurrent threads read and write to it.
  * <p>
+ * Once populated a trie may be frozen into a compact, immutable and thread safe
+ * form using {@link DoubleArrayCharTrie.Builder}.
+ * <p>
  * TODO I was thinking of reimplementing this using a base of 256 (aka a byte)
  * then I could take any character (1 byte or 2) and the tree could be based
  * not on binarySearch but an actual index. In this case a word of 20 characters
@@ -34,7 +37,7 @@ import java.util.Arrays;
  */
 public class CharTrie<T> {
 
-   private CharTrie<T>[] children = new CharTrie[1<<4];
+   private CharTrie<T>[] children;
    private int count = 0;
 
    private final char code;
@@ -46,12 +49,14 @@ public class CharTrie<T> {
     */
    public CharTrie()
    {
-      this.code = 0;
+      this((char) 0, 1<<4);
    }
 
-   private CharTrie(char code)
+   @SuppressWarnings("unchecked")
+   CharTrie(char code, int capacity)
    {
       this.code = code;
+      this.children = new CharTrie[capacity];
    }
 
 
@@ -63,11 +68,56 @@ public class CharTrie<T> {
     */
    public T find(CharSequence key)
    {
-      char c = CharSequences.notEmpty(key, "key must not be empty").charAt(0);
-      int idx = binarySearch(0, count, c);
-      if(idx < 0) return null;
-      if(key.length() == 1) return children[idx].get();
-      return children[idx].find(key.subSequence(1, key.length()));
+      CharSequences.notEmpty(key, "key must not be empty");
+      return find(key, 0, key.length());
+   }
+
+   /**
+    * Find the value within the Trie hierarchy identified by the characters in the
+    * given range of the specified sequence. This does not allocate any objects.
+    *
+    * @param key the character sequence containing the key
+    * @param start the index of the first character of the key, inclusive
+    * @param end the index of the last character of the key, exclusive
+    * @throws IndexOutOfBoundsException if the range is invalid
+    * @throws IllegalArgumentException if the range is empty
+    */
+   public T find(CharSequence key, int start, int end)
+   {
+      checkRange(key, start, end);
+      if(start == end) throw new IllegalArgumentException("key must not be empty");
+      CharTrie<T> node = this;
+      for(int i = start; i < end; i++) {
+         int idx = node.binarySearch(0, node.count, key.charAt(i));
+         if(idx < 0) return null;
+         node = node.children[idx];
+      }
+      return node.value;
+   }
+
+   /**
+    * Returns the length of the longest key mapped in this Trie hierarchy which is
+    * a prefix of the characters in the given sequence beginning at the specified
+    * offset, or zero if no key matches. This does not allocate any objects making
+    * it suitable for tokenizing input against the trie. The matched value may be
+    * retrieved using {@link #find(CharSequence, int, int)}.
+    *
+    * @param seq the character sequence to match
+    * @param offset the index of the first character to match
+    * @throws IndexOutOfBoundsException if the offset is invalid
+    */
+   public int longestPrefixMatch(CharSequence seq, int offset)
+   {
+      checkRange(seq, offset, seq.length());
+      int result = 0;
+      CharTrie<T> node = this;
+      for(int i = offset; i < seq.length(); i++) {
+         int idx = node.binarySearch(0, node.count, seq.charAt(i));
+         if(idx < 0) break;
+         node = node.children[idx];
+         if(node.value != null) result = i - offset + 1;
+      }
+      return result;
    }
 
 
@@ -171,9 +221,15 @@ public class CharTrie<T> {
       return buf.toString();
    }
 
+   static void checkRange(CharSequence seq, int start, int end)
+   {
+      if(start < 0 || end > seq.length() || start > end)
+         throw new IndexOutOfBoundsException(String.format("range [%d, %d) out of bounds for length %d", start, end, seq.length()));
+   }
+
    private CharTrie<T> insert(int index, char c)
    {
-      CharTrie<T> child = new CharTrie<>(c);
+      CharTrie<T> child = new CharTrie<>(c, 1<<4);
       if(index == count) {
          children[index] = child;
       } else {
@@ -187,9 +243,26 @@ public class CharTrie<T> {
    void ensureCapacity(int minCapacity)
    {
       if (minCapacity - children.length > 0) {
-         children = Arrays.copyOf(children, children.length << 1);
+         children = Arrays.copyOf(children, Math.max(minCapacity, children.length << 1));
       }
    }
+
+   /**
+    * Returns the character code of the child at the given index.
+    */
+   char codeAt(int index)
+   {
+      return children[index].code;
+   }
+
+   /**
+    * Returns the child at the given index.
+    */
+   CharTrie<T> childAt(int index)
+   {
+      return children[index];
+   }
+
    int binarySearch(int fromIndex, int toIndex, char c)
    {
       int low = fromIndex;
@@ -216,6 +289,7 @@ public class CharTrie<T> {
 
       private ROCharTrie(CharTrie<T> delegate)
       {
+         super((char) 0, 0);
          this.delegate = delegate;
       }
 
@@ -226,6 +300,18 @@ public class CharTrie<T> {
          return delegate.find(key);
       }
 
+      @Override
+      public T find(CharSequence key, int start, int end)
+      {
+         return delegate.find(key, start, end);
+      }
+
+      @Override
+      public int longestPrefixMatch(CharSequence seq, int offset)
+      {
+         return delegate.longestPrefixMatch(seq, offset);
+      }
+
       @Override
       public boolean isRoot()
       {
@@ -256,6 +342,18 @@ public class CharTrie<T> {
          return delegate.findChild(c);
       }
 
+      @Override
+      char codeAt(int index)
+      {
+         return delegate.codeAt(index);
+      }
+
+      @Override
+      CharTrie<T> childAt(int index)
+      {
+         return delegate.childAt(index);
+      }
+
       @Override
       public boolean equals(Object obj)
       {
@@ -0,0 +1,235 @@
+package xpertss.util;
+
+import xpertss.lang.Objects;
+
+import java.util.ArrayDeque;
+import java.util.function.Consumer;
+
+/**
+ * A thread safe {@link CharTrie} optimized for read mostly workloads such as shared
+ * dictionaries which are only modified when they are reloaded.
+ * <p>
+ * Reads are performed against an immutable {@link DoubleArrayCharTrie} snapshot held
+ * in a volatile field. They never lock, never wait on writers, and never observe a
+ * partially applied update. Writes are serialized and applied to a private mutable
+ * copy of the trie after which a new snapshot is built and published atomically.
+ * Each write is therefore {@code O(n)} in the size of the trie. Callers making many
+ * modifications at once should use {@link #update(Consumer)} or {@link
+ * #replace(CharTrie)} so that only a single snapshot is built.
+ * <p>
+ * Callers which need several reads to observe the same state, for example while
+ * walking the trie via {@link #findChild(char)}, should operate on the trie returned
+ * by {@link #snapshot()}. Tries returned from findChild are always children of the
+ * snapshot that was current when findChild was called.
+ */
+public class ConcurrentCharTrie<T> extends CharTrie<T> {
+
+   private final Object lock = new Object();
+
+   private CharTrie<T> master;
+   private volatile DoubleArrayCharTrie<T> snapshot;
+
+
+   /**
+    * Create an empty concurrent trie.
+    */
+   public ConcurrentCharTrie()
+   {
+      super((char) 0, 0);
+      this.master = new CharTrie<>();
+      this.snapshot = DoubleArrayCharTrie.Builder.create(master).build();
+   }
+
+   /**
+    * Create a concurrent trie initialized with a copy of the contents of the
+    * given trie.
+    *
+    * @throws NullPointerException if source is {@code null}
+    */
+   public ConcurrentCharTrie(CharTrie<T> source)
+   {
+      super((char) 0, 0);
+      this.master = copy(Objects.notNull(source, "source"));
+      this.snapshot = DoubleArrayCharTrie.Builder.create(master).build();
+   }
+
+
+   @Override
+   public T find(CharSequence key)
+   {
+      return snapshot.find(key);
+   }
+
+   @Override
+   public T find(CharSequence key, int start, int end)
+   {
+      return snapshot.find(key, start, end);
+   }
+
+   @Override
+   public int longestPrefixMatch(CharSequence seq, int offset)
+   {
+      return snapshot.longestPrefixMatch(seq, offset);
+   }
+
+   @Override
+   public boolean isRoot()
+   {
+      return true;
+   }
+
+   @Override
+   public T get()
+   {
+      return snapshot.get();
+   }
+
+   @Override
+   public CharTrie<T> findChild(char c)
+   {
+      return snapshot.findChild(c);
+   }
+
+   @Override
+   public int size()
+   {
+      return snapshot.size();
+   }
+
+   @Override
+   char codeAt(int index)
+   {
+      return snapshot.codeAt(index);
+   }
+
+   @Override
+   CharTrie<T> childAt(int index)
+   {
+      return snapshot.childAt(index);
+   }
+
+
+   /**
+    * Returns the immutable trie currently serving reads.
+    */
+   public CharTrie<T> snapshot()
+   {
+      return snapshot;
+   }
+
+
+   /**
+    * Map the given value into this Trie hierarchy using the specified key and
+    * publish a new snapshot.
+    * <p>
+    * Returns the previously mapped value if one existed or {@code null} if
+    * the key was not previously mapped to a value.
+    *
+    * @throws NullPointerException if the value is {@code null}
+    * @throws IllegalArgumentException if the key is empty
+    */
+   @Override
+   public T put(CharSequence key, T value)
+   {
+      synchronized(lock) {
+         T result = master.put(key, value);
+         publish();
+         return result;
+      }
+   }
+
+   /**
+    * Apply a set of modifications to a mutable copy of this trie and then publish
+    * a single new snapshot reflecting all of them. Readers will not observe any of
+    * the modifications until the updater returns. If the updater throws an exception
+    * the copy is discarded and none of the modifications it made are applied.
+    *
+    * @throws NullPointerException if updater is {@code null}
+    */
+   public void update(Consumer<? super CharTrie<T>> updater)
+   {
+      Objects.notNull(updater, "updater");
+      synchronized(lock) {
+         CharTrie<T> copy = copy(master);
+         updater.accept(copy);
+         master = copy;
+         publish();
+      }
+   }
+
+   /**
+    * Replace the entire contents of this trie with a copy of the given trie and
+    * publish a new snapshot.
+    *
+    * @throws NullPointerException if source is {@code null}
+    */
+   public void replace(CharTrie<T> source)
+   {
+      CharTrie<T> copy = copy(Objects.notNull(source, "source"));
+      synchronized(lock) {
+         master = copy;
+         publish();
+      }
+   }
+
+
+
+   @Override
+   public boolean equals(Object obj)
+   {
+      return obj == this;
+   }
+
+   @Override
+   public int hashCode()
+   {
+      return System.identityHashCode(this);
+   }
+
+   @Override
+   public String toString()
+   {
+      return snapshot.toString();
+   }
+
+
+
+   private void publish()
+   {
+      snapshot = DoubleArrayCharTrie.Builder.create(master).build();
+   }
+
+   /*
+    * A concurrent source is copied from a single snapshot so that a concurrent write
+    * cannot mix two versions. The walk keeps an explicit stack of nodes and the index
+    * of the next child to visit in each so that long keys cannot overflow the stack.
+    */
+   private static <T> CharTrie<T> copy(CharTrie<T> source)
+   {
+      if(source instanceof ConcurrentCharTrie) source = ((ConcurrentCharTrie<T>) source).snapshot();
+      CharTrie<T> result = new CharTrie<>();
+      StringBuilder path = new StringBuilder();
+      ArrayDeque<CharTrie<T>> nodes = new ArrayDeque<>();
+      ArrayDeque<Integer> indexes = new ArrayDeque<>();
+      nodes.push(source);
+      indexes.push(0);
+      while(!nodes.isEmpty()) {
+         CharTrie<T> node = nodes.peek();
+         int index = indexes.pop();
+         if(index == node.size()) {
+            nodes.pop();
+            if(!nodes.isEmpty()) path.setLength(path.length() - 1);
+            continue;
+         }
+         indexes.push(index + 1);
+         CharTrie<T> child = node.childAt(index);
+         path.append(node.codeAt(index));
+         T value = child.get();
+         if(value != null) result.put(path, value);
+         nodes.push(child);
+         indexes.push(0);
+      }
+      return result;
+   }
+
+}
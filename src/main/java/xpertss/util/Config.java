@@ -12,20 +12,53 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.net.URL;
+import java.util.Arrays;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.Properties;
+import java.util.function.Function;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 /**
  * A configuration object represents an immutable set of properties.
+ * <p>
+ * Frequently accessed properties may be read using precompiled typed {@link Key}s.
+ * A key parses its property at most once per Config after which reading it is a
+ * lookup in a small identity keyed table which neither locks nor allocates.
+ * <blockquote><pre>
+ *    private static final Config.Key&lt;Integer&gt; POOL_SIZE = Config.intKey("pool.size", 10);
+ *    ...
+ *    int size = config.get(POOL_SIZE);
+ * </pre></blockquote>
+ * <p>
+ * Configs returned by {@link #subConfig(String)} are lightweight views over a sorted
+ * index of their root config's property names and do not copy any properties.
  */
 @SuppressWarnings("UnusedDeclaration")
 public class Config {
 
+   private static final Object NULL = new Object();
 
-   protected final Properties properties;
+
+   private final Graph graph;
+   private final Map<String,String> overlay;
+   private final String prefix;
+   private final int from;
+   private final int to;
+
+   private volatile Properties properties;
+   private volatile Index index;
+   private volatile Map<String,String> snapshot;
+   private volatile Parsed parsed = Parsed.EMPTY;
 
 
 
@@ -33,8 +66,28 @@ public class Config {
     * Create a new <code>Config</code>.
     */
    private Config(Properties properties)
+   {
+      this(properties, null, null);
+   }
+
+   private Config(Properties properties, Graph graph, Map<String,String> overlay)
    {
       this.properties = Objects.notNull(properties);
+      this.graph = graph;
+      this.overlay = overlay;
+      this.prefix = null;
+      this.from = 0;
+      this.to = 0;
+   }
+
+   private Config(Index index, String prefix, int from, int to)
+   {
+      this.index = index;
+      this.prefix = prefix;
+      this.from = from;
+      this.to = to;
+      this.graph = null;
+      this.overlay = null;
    }
 
 
@@ -46,7 +99,8 @@ public class Config {
     */
    public String getProperty(String key)
    {
-      return properties.getProperty(key);
+      if(prefix != null) return index.get(prefix.length(), from, to, key);
+      return snapshot().get(key);
    }
 
    /**
@@ -179,7 +233,7 @@ public class Config {
     */
    public String[] getStrings(String name)
    {
-      return getNotNullProperty(name).split("\\s*(,|\\s)\\s*");
+      return split(getNotNullProperty(name));
    }
 
    /**
@@ -190,7 +244,27 @@ public class Config {
    public String[] getStrings(String name, String ... def)
    {
       String property = getProperty(name);
-      return (property == null) ? def : property.split("\\s*(,|\\s)\\s*");
+      return (property == null) ? def : split(property);
+   }
+
+
+
+   /**
+    * Returns the value of the given typed key in this config. The property is
+    * parsed on first access and cached for the life of this config.
+    *
+    * @throws NullPointerException if key is {@code null}
+    */
+   @SuppressWarnings("unchecked")
+   public <T> T get(Key<T> key)
+   {
+      Object value = parsed.get(key);
+      if(value != null) return (value == NULL) ? null : (T) value;
+      T result = key.parse(getProperty(key.name));
+      synchronized(this) {
+         if(parsed.get(key) == null) parsed = parsed.with(key, (result == null) ? NULL : result);
+      }
+      return result;
    }
 
 
@@ -210,21 +284,23 @@ public class Config {
     *    String[] allowed = sub.getStrings("allowed");
     * </pre>
     *
+    * <p>
+    * The returned config is a view which shares a sorted index of this config's
+    * property names. Locating the sub config's properties is a binary search of
+    * that index and nested sub configs narrow the same index without copying.
+    *
     * @param prefix The property name prefix to include in the sub config
     * @return A config object with the included properties minus their name
     *    prefix.
     */
    public Config subConfig(String prefix)
    {
-      prefix = prefix + ".";
-      Properties props = new Properties();
-      for(String propName : properties.stringPropertyNames()) {
-         if(propName.startsWith(prefix)) {
-            props.setProperty(propName.substring(prefix.length()),
-                              properties.getProperty(propName));
-         }
-      }
-      return new Config(props);
+      Index idx = index();
+      prefix = (this.prefix == null) ? prefix + "." : this.prefix + prefix + ".";
+      int start = (this.prefix == null) ? 0 : from;
+      int end = (this.prefix == null) ? idx.keys.length : to;
+      int lower = idx.lower(prefix, start, end);
+      return new Config(idx, prefix, lower, idx.upper(prefix, lower, end));
    }
 
 
@@ -242,8 +318,14 @@ public class Config {
     */
    public Config overlayWith(Properties properties)
    {
-      Properties props = new Properties(this.properties);
-      return new Config(copyTo(Objects.notNull(properties), props));
+      Properties props = new Properties(properties());
+      copyTo(Objects.notNull(properties), props);
+      if(graph == null) return new Config(props);
+      Map<String,String> merged = (overlay == null) ? new HashMap<>() : new HashMap<>(overlay);
+      for(String propName : properties.stringPropertyNames()) {
+         merged.put(propName, properties.getProperty(propName));
+      }
+      return new Config(props, graph, merged);
    }
 
 
@@ -251,16 +333,25 @@ public class Config {
     * This will return a new Config object in which all of the properties
     * within this Config are fully resolved.   This means that property
     * values of the form ${property.name} will be replaced by any defined
-    * property value that matches property.name.
+    * property value that matches property.name. References to properties
+    * which are not defined are left as is.
+    * <p>
+    * Each value is parsed once into a graph of property references which is
+    * then resolved in dependency order such that every property is computed
+    * exactly once, however deeply references are nested. The resolved config
+    * retains the graph so that resolving a config obtained from it via {@link
+    * #overlayWith(Properties)} only recomputes the properties which were
+    * overlaid or which depend on them.
+    *
+    * @throws SyntaxException if the properties contain a circular reference
     */
    public Config resolve()
    {
+      if(graph != null && overlay == null) return this;
+      Graph result = (graph == null) ? Graph.compile(toMap()) : graph.overlay(overlay);
       Properties copy = new Properties();
-      for(String propName : properties.stringPropertyNames()) {
-         String value = properties.getProperty(propName);
-         copy.put(propName, resolve(properties, value));
-      }
-      return new Config(copy);
+      copy.putAll(result.values);
+      return new Config(copy, result, null);
    }
 
 
@@ -270,8 +361,14 @@ public class Config {
    public Map<String,String> toMap()
    {
       Map<String,String> map = new LinkedHashMap<>();
-      for(String propName : properties.stringPropertyNames()) {
-         map.put(propName, properties.getProperty(propName));
+      if(prefix != null) {
+         for(int i = from; i < to; i++) {
+            map.put(index.keys[i].substring(prefix.length()), index.values[i]);
+         }
+      } else {
+         for(String propName : properties.stringPropertyNames()) {
+            map.put(propName, properties.getProperty(propName));
+         }
       }
       return map;
    }
@@ -345,6 +442,11 @@ public class Config {
 
    private static final Pattern pattern = Pattern.compile("\\$\\{([\\w.\\-_]+)\\}");
 
+   /**
+    * Replace each ${property.name} reference in the given message with the
+    * value of the named property. Unlike {@link #resolve()} the replaced values
+    * are not themselves resolved.
+    */
    public static String resolve(Properties props, String msg)
    {
       StringBuilder builder = new StringBuilder();
@@ -362,6 +464,44 @@ public class Config {
    }
 
 
+   private static String[] split(String value)
+   {
+      return value.split("\\s*(,|\\s)\\s*");
+   }
+
+   private Properties properties()
+   {
+      Properties result = properties;
+      if(result == null) {
+         result = new Properties();
+         for(int i = from; i < to; i++) {
+            result.setProperty(index.keys[i].substring(prefix.length()), index.values[i]);
+         }
+         properties = result;
+      }
+      return result;
+   }
+
+   private Index index()
+   {
+      Index result = index;
+      if(result == null) index = result = new Index(properties);
+      return result;
+   }
+
+   private Map<String,String> snapshot()
+   {
+      Map<String,String> result = snapshot;
+      if(result == null) {
+         result = new HashMap<>();
+         for(String propName : properties.stringPropertyNames()) {
+            result.put(propName, properties.getProperty(propName));
+         }
+         snapshot = result;
+      }
+      return result;
+   }
+
    private static InputStream open(URL url)
    {
       try { return url.openStream(); } catch(Exception e) { throw new ResourceNotFoundException(e); }
@@ -375,4 +515,437 @@ public class Config {
       }
       return dst;
    }
+
+
+
+   /**
+    * Create a typed key for an {@code int} property which returns the given default
+    * if the property is not defined or is not a valid integer.
+    */
+   public static Key<Integer> intKey(String name, int def)
+   {
+      return new Key<>(name, value -> Integer.parseInt(value.trim()), def);
+   }
+
+   /**
+    * Create a typed key for a {@code long} property which returns the given default
+    * if the property is not defined or is not a valid long.
+    */
+   public static Key<Long> longKey(String name, long def)
+   {
+      return new Key<>(name, value -> Long.parseLong(value.trim()), def);
+   }
+
+   /**
+    * Create a typed key for a {@code double} property which returns the given default
+    * if the property is not defined or is not a valid double.
+    */
+   public static Key<Double> doubleKey(String name, double def)
+   {
+      return new Key<>(name, value -> Double.parseDouble(value.trim()), def);
+   }
+
+   /**
+    * Create a typed key for a {@code boolean} property using the same rules as
+    * {@link #getBoolean(String, boolean)}.
+    */
+   public static Key<Boolean> booleanKey(String name, boolean def)
+   {
+      return new Key<>(name, value -> def ? !value.equals("false") : value.equals("true"), def);
+   }
+
+   /**
+    * Create a typed key for a string property which returns the given default if
+    * the property is not defined.
+    */
+   public static Key<String> stringKey(String name, String def)
+   {
+      return new Key<>(name, value -> value, def);
+   }
+
+   /**
+    * Create a typed key for a string array property using the same rules as
+    * {@link #getStrings(String, String...)}. Callers should treat the returned
+    * array as read-only as it is shared by all readers.
+    */
+   public static Key<String[]> stringsKey(String name, String ... def)
+   {
+      return new Key<>(name, Config::split, def);
+   }
+
+   /**
+    * Create a typed key for a property which is parsed using the given function.
+    * The default value is returned if the property is not defined or if the parser
+    * throws an exception. The parsed value should be immutable as it is shared by
+    * all readers.
+    */
+   public static <T> Key<T> key(String name, Function<String, ? extends T> parser, T def)
+   {
+      return new Key<>(name, Objects.notNull(parser, "parser"), def);
+   }
+
+
+   /**
+    * The property names of a root config in sorted order along with their values.
+    * The names sharing any given prefix occupy a contiguous range of the index.
+    */
+   private static final class Index {
+
+      private final String[] keys;
+      private final String[] values;
+
+      private Index(Properties properties)
+      {
+         Set<String> names = properties.stringPropertyNames();
+         this.keys = names.toArray(new String[names.size()]);
+         Arrays.sort(keys);
+         this.values = new String[keys.length];
+         for(int i = 0; i < keys.length; i++) values[i] = properties.getProperty(keys[i]);
+      }
+
+      /**
+       * Returns the value of the key in the range [from, to) whose characters
+       * following offset equal name.
+       */
+      private String get(int offset, int from, int to, String name)
+      {
+         int low = from;
+         int high = to - 1;
+         while(low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = compare(keys[mid], offset, name);
+            if(cmp < 0) {
+               low = mid + 1;
+            } else if(cmp > 0) {
+               high = mid - 1;
+            } else {
+               return values[mid];
+            }
+         }
+         return null;
+      }
+
+      /**
+       * Returns the index of the first key in [from, to) which starts with or
+       * sorts after the prefix.
+       */
+      private int lower(String prefix, int from, int to)
+      {
+         while(from < to) {
+            int mid = (from + to) >>> 1;
+            if(comparePrefix(keys[mid], prefix) < 0) from = mid + 1;
+            else to = mid;
+         }
+         return from;
+      }
+
+      /**
+       * Returns the index of the first key in [from, to) which sorts after every
+       * key starting with the prefix.
+       */
+      private int upper(String prefix, int from, int to)
+      {
+         while(from < to) {
+            int mid = (from + to) >>> 1;
+            if(comparePrefix(keys[mid], prefix) <= 0) from = mid + 1;
+            else to = mid;
+         }
+         return from;
+      }
+
+      private static int compare(String key, int offset, String name)
+      {
+         int len = Math.min(key.length() - offset, name.length());
+         for(int i = 0; i < len; i++) {
+            int cmp = key.charAt(offset + i) - name.charAt(i);
+            if(cmp != 0) return cmp;
+         }
+         return (key.length() - offset) - name.length();
+      }
+
+      private static int comparePrefix(String key, String prefix)
+      {
+         int len = Math.min(key.length(), prefix.length());
+         for(int i = 0; i < len; i++) {
+            int cmp = key.charAt(i) - prefix.charAt(i);
+            if(cmp != 0) return cmp;
+         }
+         return (key.length() < prefix.length()) ? -1 : 0;
+      }
+   }
+
+
+   /**
+    * The placeholder references of a set of properties compiled into a graph
+    * along with their resolved values.
+    */
+   private static final class Graph {
+
+      private final Map<String,Template> templates;
+      private final Map<String,List<String>> dependents;
+      private final Map<String,String> values;
+
+      private Graph(Map<String,Template> templates, Map<String,List<String>> dependents, Map<String,String> values)
+      {
+         this.templates = templates;
+         this.dependents = dependents;
+         this.values = values;
+      }
+
+      private static Graph compile(Map<String,String> properties)
+      {
+         Graph graph = new Graph(new HashMap<>(), new HashMap<>(), new HashMap<>());
+         for(Map.Entry<String,String> entry : properties.entrySet()) {
+            graph.define(entry.getKey(), entry.getValue());
+         }
+         graph.resolveAll(properties.keySet());
+         return graph;
+      }
+
+      /**
+       * Returns a new graph with the given properties redefined. Only the redefined
+       * properties and those which transitively reference them are resolved again.
+       */
+      private Graph overlay(Map<String,String> properties)
+      {
+         Graph graph = new Graph(new HashMap<>(templates), new HashMap<>(dependents), new HashMap<>(values));
+         for(Map.Entry<String,String> entry : properties.entrySet()) {
+            graph.define(entry.getKey(), entry.getValue());
+         }
+         Set<String> affected = new LinkedHashSet<>();
+         Deque<String> pending = new ArrayDeque<>(properties.keySet());
+         while(!pending.isEmpty()) {
+            String name = pending.poll();
+            if(affected.add(name)) {
+               pending.addAll(graph.dependents.getOrDefault(name, Collections.emptyList()));
+            }
+         }
+         graph.values.keySet().removeAll(affected);
+         graph.resolveAll(affected);
+         return graph;
+      }
+
+      private void define(String name, String value)
+      {
+         Template previous = templates.put(name, new Template(value));
+         if(previous != null) {
+            for(String ref : previous.refs) {
+               List<String> list = new ArrayList<>(dependents.get(ref));
+               list.remove(name);
+               dependents.put(ref, list);
+            }
+         }
+         for(String ref : templates.get(name).refs) {
+            // lists may be shared with the graph this was derived from so copy on write
+            List<String> list = dependents.get(ref);
+            list = (list == null) ? new ArrayList<>(1) : new ArrayList<>(list);
+            list.add(name);
+            dependents.put(ref, list);
+         }
+      }
+
+      private void resolveAll(Set<String> names)
+      {
+         Set<String> path = new LinkedHashSet<>();
+         for(String name : names) {
+            if(templates.containsKey(name)) resolve(name, path);
+         }
+      }
+
+      /**
+       * Resolves the named property after every property it transitively references.
+       * The walk uses an explicit stack so that long reference chains cannot overflow
+       * the thread's stack. The path holds the properties currently being resolved in
+       * the order they were entered and is used to detect and report cycles.
+       */
+      private void resolve(String name, Set<String> path)
+      {
+         if(values.containsKey(name)) return;
+         Deque<String> stack = new ArrayDeque<>();
+         stack.push(name);
+         path.add(name);
+         while(!stack.isEmpty()) {
+            String current = stack.peek();
+            Template template = templates.get(current);
+            String next = null;
+            for(String ref : template.refs) {
+               if(!values.containsKey(ref) && templates.containsKey(ref)) {
+                  next = ref;
+                  break;
+               }
+            }
+            if(next == null) {
+               values.put(current, template.render(values));
+               path.remove(stack.pop());
+            } else if(path.add(next)) {
+               stack.push(next);
+            } else {
+               List<String> cycle = new ArrayList<>(path);
+               cycle = cycle.subList(cycle.indexOf(next), cycle.size());
+               throw new SyntaxException("circular property reference: " + String.join(" -> ", cycle) + " -> " + next);
+            }
+         }
+      }
+   }
+
+   /**
+    * A property value split into literal parts and the names of the properties
+    * referenced between them.
+    */
+   private static final class Template {
+
+      private static final String[] NONE = new String[0];
+
+      private final String[] parts;
+      private final String[] refs;
+
+      private Template(String value)
+      {
+         Matcher matcher = pattern.matcher(value);
+         if(!matcher.find()) {
+            this.parts = new String[] { value };
+            this.refs = NONE;
+         } else {
+            List<String> parts = new ArrayList<>();
+            List<String> refs = new ArrayList<>();
+            int last = 0;
+            do {
+               parts.add(value.substring(last, matcher.start()));
+               refs.add(matcher.group(1));
+               last = matcher.end();
+            } while(matcher.find());
+            parts.add(value.substring(last));
+            this.parts = parts.toArray(new String[parts.size()]);
+            this.refs = refs.toArray(new String[refs.size()]);
+         }
+      }
+
+      /**
+       * Returns this template with each reference replaced by its resolved value. A
+       * reference to an undefined property is left in place.
+       */
+      private String render(Map<String,String> values)
+      {
+         if(refs.length == 0) return parts[0];
+         StringBuilder builder = new StringBuilder();
+         for(int i = 0; i < refs.length; i++) {
+            String ref = values.get(refs[i]);
+            builder.append(parts[i]);
+            if(ref != null) builder.append(ref);
+            else builder.append("${").append(refs[i]).append('}');
+         }
+         return builder.append(parts[refs.length]).toString();
+      }
+   }
+
+
+   /**
+    * An immutable identity keyed table of the values parsed by typed keys. Each
+    * addition copies the table so that a Config can publish a new table through a
+    * volatile field and read it without locking.
+    */
+   private static final class Parsed {
+
+      private static final Parsed EMPTY = new Parsed(new Key<?>[8], new Object[8], 0);
+
+      private final Key<?>[] keys;
+      private final Object[] values;
+      private final int size;
+
+      private Parsed(Key<?>[] keys, Object[] values, int size)
+      {
+         this.keys = keys;
+         this.values = values;
+         this.size = size;
+      }
+
+      private Object get(Key<?> key)
+      {
+         int mask = keys.length - 1;
+         for(int i = key.hash & mask; keys[i] != null; i = (i + 1) & mask) {
+            if(keys[i] == key) return values[i];
+         }
+         return null;
+      }
+
+      private Parsed with(Key<?> key, Object value)
+      {
+         int capacity = keys.length;
+         if((size + 1) * 4 > capacity * 3) capacity <<= 1;
+         Key<?>[] newKeys = new Key<?>[capacity];
+         Object[] newValues = new Object[capacity];
+         for(int i = 0; i < keys.length; i++) {
+            if(keys[i] != null) insert(newKeys, newValues, keys[i], values[i]);
+         }
+         insert(newKeys, newValues, key, value);
+         return new Parsed(newKeys, newValues, size + 1);
+      }
+
+      private static void insert(Key<?>[] keys, Object[] values, Key<?> key, Object value)
+      {
+         int mask = keys.length - 1;
+         int i = key.hash & mask;
+         while(keys[i] != null) i = (i + 1) & mask;
+         keys[i] = key;
+         values[i] = value;
+      }
+   }
+
+
+   /**
+    * A precompiled typed configuration key.
+    * <p>
+    * Each Config caches the values parsed by the keys read from it for as long as the
+    * Config itself is reachable. Keys are therefore intended to be created once and
+    * held in constants rather than being created on demand, as each new key read from
+    * a Config adds an entry to its cache.
+    */
+   public static final class Key<T> {
+
+      private final int hash = System.identityHashCode(this);
+      private final String name;
+      private final Function<String, ? extends T> parser;
+      private final T def;
+
+      private Key(String name, Function<String, ? extends T> parser, T def)
+      {
+         this.name = Objects.notNull(name, "name");
+         this.parser = parser;
+         this.def = def;
+      }
+
+      /**
+       * Returns the name of the property this key reads.
+       */
+      public String name()
+      {
+         return name;
+      }
+
+      /**
+       * Returns the value returned when the property is undefined or invalid.
+       */
+      public T defaultValue()
+      {
+         return def;
+      }
+
+      private T parse(String value)
+      {
+         if(value == null) return def;
+         try {
+            T result = parser.apply(value);
+            return (result == null) ? def : result;
+         } catch(Exception e) {
+            return def;
+         }
+      }
+
+      @Override
+      public String toString()
+      {
+         return String.format("Key(%s)", name);
+      }
+   }
+
 }
@@ -0,0 +1,446 @@
+package xpertss.util;
+
+import xpertss.lang.CharSequences;
+import xpertss.lang.Objects;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+
+/**
+ * A frozen {@link CharTrie} encoded as a double-array trie.
+ * <p>
+ * The entire trie is held in a pair of parallel integer arrays named base and check
+ * rather than a graph of node objects. The transition from state {@code s} on a
+ * character with code {@code c} leads to state {@code t = base[s] + c} and is valid
+ * only when {@code check[t] == s}. Each step of a lookup is therefore a couple of
+ * plain array reads rather than a binary search over a child array, making lookups
+ * {@code O(key length)}.
+ * <p>
+ * Characters are mapped to a dense alphabet before indexing using a two level table
+ * keyed by the high and low order bytes of the character. Only those blocks of the
+ * table for which a character actually appears in the trie are allocated so tries
+ * over internationalized keys remain compact.
+ * <p>
+ * Instances are created using a {@link Builder} which takes a snapshot of an existing
+ * CharTrie. The resulting trie is immutable and therefore safe for concurrent use by
+ * multiple threads. Calls to {@link #put(CharSequence, Object)} will throw {@link
+ * UnsupportedOperationException}.
+ * <blockquote><pre>
+ *    CharTrie&lt;TimeZone&gt; zones = new CharTrie&lt;&gt;();
+ *    ...
+ *    CharTrie&lt;TimeZone&gt; frozen = DoubleArrayCharTrie.Builder.create(zones).build();
+ * </pre></blockquote>
+ */
+public final class DoubleArrayCharTrie<T> extends CharTrie<T> {
+
+   private final Data data;
+   private final int state;
+
+   private Children children;
+
+   private DoubleArrayCharTrie(Data data, int state)
+   {
+      super((char) 0, 0);
+      this.data = data;
+      this.state = state;
+   }
+
+
+   @Override
+   public T find(CharSequence key)
+   {
+      CharSequences.notEmpty(key, "key must not be empty");
+      return find(key, 0, key.length());
+   }
+
+   @Override
+   public T find(CharSequence key, int start, int end)
+   {
+      checkRange(key, start, end);
+      if(start == end) throw new IllegalArgumentException("key must not be empty");
+      int s = state;
+      for(int i = start; i < end; i++) {
+         if((s = data.next(s, key.charAt(i))) < 0) return null;
+      }
+      return data.value(s);
+   }
+
+   @Override
+   public int longestPrefixMatch(CharSequence seq, int offset)
+   {
+      checkRange(seq, offset, seq.length());
+      int result = 0;
+      for(int i = offset, s = state; i < seq.length(); i++) {
+         if((s = data.next(s, seq.charAt(i))) < 0) break;
+         if(data.values[s] != null) result = i - offset + 1;
+      }
+      return result;
+   }
+
+   @Override
+   public boolean isRoot()
+   {
+      return state == 0;
+   }
+
+   @Override
+   public T get()
+   {
+      return data.value(state);
+   }
+
+   @Override
+   public CharTrie<T> findChild(char c)
+   {
+      int t = data.next(state, c);
+      return (t < 0) ? null : new DoubleArrayCharTrie<>(data, t);
+   }
+
+   @Override
+   public T put(CharSequence key, T value)
+   {
+      throw new UnsupportedOperationException();
+   }
+
+   @Override
+   public int size()
+   {
+      return children().labels.length;
+   }
+
+   @Override
+   char codeAt(int index)
+   {
+      return children().labels[index];
+   }
+
+   @Override
+   CharTrie<T> childAt(int index)
+   {
+      return new DoubleArrayCharTrie<>(data, children().states[index]);
+   }
+
+   // a racy single check is safe as Children is immutable and its fields final
+   private Children children()
+   {
+      Children result = children;
+      if(result == null) children = result = Children.of(data, state);
+      return result;
+   }
+
+
+   // raw accessors used to serialize the trie
+   char[] alphabet() { return data.chars; }
+   int[] base() { return data.base; }
+   int[] check() { return data.check; }
+   Object[] values() { return data.values; }
+
+
+   /**
+    * Returns the number of slots allocated in the base and check arrays.
+    */
+   public int capacity()
+   {
+      return data.check.length;
+   }
+
+
+
+   @Override
+   public boolean equals(Object obj)
+   {
+      if(obj instanceof DoubleArrayCharTrie) {
+         DoubleArrayCharTrie<?> o = (DoubleArrayCharTrie<?>) obj;
+         return data == o.data && state == o.state;
+      }
+      return false;
+   }
+
+   @Override
+   public int hashCode()
+   {
+      return Objects.hash(System.identityHashCode(data), state);
+   }
+
+   @Override
+   public String toString()
+   {
+      StringBuilder buf = new StringBuilder(String.format("DoubleArrayCharTrie(%d)", state));
+      T value = get();
+      if(value != null) buf.append(" {").append(value).append("}");
+      return buf.toString();
+   }
+
+
+
+   private static final class Data {
+
+      private final char[][] codes;
+      private final char[] chars;
+      private final int[] base;
+      private final int[] check;
+      private final Object[] values;
+
+      private Data(char[][] codes, char[] chars, int[] base, int[] check, Object[] values)
+      {
+         this.codes = codes;
+         this.chars = chars;
+         this.base = base;
+         this.check = check;
+         this.values = values;
+      }
+
+      private int next(int s, char c)
+      {
+         char[] block = codes[c >>> 8];
+         if(block == null) return -1;
+         int code = block[c & 0xff];
+         if(code == 0) return -1;
+         int t = base[s] + code;
+         return (t < check.length && check[t] == s) ? t : -1;
+      }
+
+      @SuppressWarnings("unchecked")
+      private <T> T value(int s)
+      {
+         return (T) values[s];
+      }
+   }
+
+
+
+   // The children of a state in ascending char order rather than alphabet code order
+   private static final class Children {
+
+      private final char[] labels;
+      private final int[] states;
+
+      private Children(char[] labels, int[] states)
+      {
+         this.labels = labels;
+         this.states = states;
+      }
+
+      private static Children of(Data data, int s)
+      {
+         int base = data.base[s];
+         int end = Math.min(data.chars.length, data.check.length - base);
+         int count = 0;
+         for(int c = 1; c < end; c++) {
+            if(data.check[base + c] == s) count++;
+         }
+         long[] sorted = new long[count];
+         for(int c = 1, i = 0; i < count; c++) {
+            if(data.check[base + c] == s) sorted[i++] = ((long) data.chars[c] << 32) | (base + c);
+         }
+         Arrays.sort(sorted);
+         char[] labels = new char[count];
+         int[] states = new int[count];
+         for(int i = 0; i < count; i++) {
+            labels[i] = (char) (sorted[i] >>> 32);
+            states[i] = (int) sorted[i];
+         }
+         return new Children(labels, states);
+      }
+   }
+
+
+
+   /**
+    * Builds a {@link DoubleArrayCharTrie} from the contents of an existing
+    * {@link CharTrie}.
+    */
+   public static final class Builder<T> {
+
+      private static final int FREE = -1;
+
+      private final CharTrie<T> source;
+
+      private char[][] codes;
+      private int[] base;
+      private int[] check;
+      private Object[] values;
+      private int[] nextFree;
+      private int[] prevFree;
+      private int head = -1;
+      private int tail = -1;
+      private int crowded;
+      private int limit;
+
+      private Builder(CharTrie<T> source)
+      {
+         this.source = source;
+      }
+
+
+      /**
+       * Create a builder which will snapshot the given trie. The given trie will
+       * typically be a root node although that is not required. Subsequent
+       * modifications to the source trie will not be reflected in tries built
+       * previously.
+       *
+       * @throws NullPointerException if source is {@code null}
+       */
+      public static <T> Builder<T> create(CharTrie<T> source)
+      {
+         return new Builder<>(Objects.notNull(source, "source"));
+      }
+
+
+      /**
+       * Build the double array trie.
+       */
+      public DoubleArrayCharTrie<T> build()
+      {
+         char[] chars = buildAlphabet();
+         base = new int[0];
+         check = new int[0];
+         values = new Object[0];
+         nextFree = new int[0];
+         prevFree = new int[0];
+         head = tail = -1;
+         crowded = 0;
+         ensureCapacity(64);
+         claim(0, 0);
+         values[0] = source.get();
+         limit = 1;
+
+         ArrayDeque<CharTrie<T>> nodes = new ArrayDeque<>();
+         ArrayDeque<Integer> states = new ArrayDeque<>();
+         nodes.add(source);
+         states.add(0);
+         while(!nodes.isEmpty()) {
+            CharTrie<T> node = nodes.poll();
+            int s = states.poll();
+            int count = node.size();
+            if(count == 0) continue;
+            int[] children = new int[count];
+            for(int i = 0; i < count; i++) children[i] = code(node.codeAt(i));
+            Arrays.sort(children);
+            int b = place(children);
+            base[s] = b;
+            for(int i = 0; i < count; i++) {
+               CharTrie<T> child = node.childAt(i);
+               int t = b + code(node.codeAt(i));
+               claim(t, s);
+               values[t] = child.get();
+               limit = Math.max(limit, t + 1);
+               nodes.add(child);
+               states.add(t);
+            }
+         }
+
+         Data data = new Data(codes, chars, Arrays.copyOf(base, limit),
+                              Arrays.copyOf(check, limit), Arrays.copyOf(values, limit));
+         base = check = nextFree = prevFree = null;
+         values = null;
+         return new DoubleArrayCharTrie<>(data, 0);
+      }
+
+
+
+      private int code(char c)
+      {
+         return codes[c >>> 8][c & 0xff];
+      }
+
+      // assigns a dense code to each character with the most frequent characters
+      // getting the lowest codes so that the base array packs tightly.
+      private char[] buildAlphabet()
+      {
+         int[] frequency = new int[Character.MAX_VALUE + 1];
+         ArrayDeque<CharTrie<T>> nodes = new ArrayDeque<>();
+         nodes.add(source);
+         while(!nodes.isEmpty()) {
+            CharTrie<T> node = nodes.poll();
+            for(int i = 0; i < node.size(); i++) {
+               frequency[node.codeAt(i)]++;
+               nodes.add(node.childAt(i));
+            }
+         }
+
+         int distinct = 0;
+         for(int f : frequency) if(f > 0) distinct++;
+         long[] sorted = new long[distinct];
+         for(int c = 0, i = 0; c < frequency.length; c++) {
+            if(frequency[c] > 0) sorted[i++] = ((long) -frequency[c] << 32) | c;
+         }
+         Arrays.sort(sorted);
+
+         codes = new char[256][];
+         char[] chars = new char[distinct + 1];
+         for(int i = 0; i < sorted.length; i++) {
+            char c = chars[i + 1] = (char) sorted[i];
+            char[] block = codes[c >>> 8];
+            if(block == null) block = codes[c >>> 8] = new char[256];
+            block[c & 0xff] = (char) (i + 1);
+         }
+         return chars;
+      }
+
+      // find a base such that every child slot is free walking only the free slots.
+      // Nodes with several children skip the region in front of the array that has
+      // repeatedly failed to fit them leaving those holes to single child nodes.
+      private int place(int[] children)
+      {
+         int first = children[0], last = children[children.length - 1];
+         int pos = head, failed = 0;
+         if(children.length > 1) {
+            pos = crowded;
+            while(pos < check.length && check[pos] != FREE) pos++;
+            if(pos == check.length) pos = -1;
+         }
+         for( ; ; pos = nextFree[pos]) {
+            if(pos < 0) {
+               pos = check.length;
+               ensureCapacity(pos + 1);
+            }
+            if(pos < first) continue;
+            int b = pos - first;
+            ensureCapacity(b + last + 1);
+            if(fits(b, children)) {
+               if(failed > 64) crowded = pos;
+               return b;
+            }
+            failed++;
+         }
+      }
+
+      private boolean fits(int b, int[] children)
+      {
+         for(int c : children) {
+            if(check[b + c] != FREE) return false;
+         }
+         return true;
+      }
+
+      private void claim(int pos, int parent)
+      {
+         check[pos] = parent;
+         int next = nextFree[pos], prev = prevFree[pos];
+         if(prev < 0) head = next; else nextFree[prev] = next;
+         if(next < 0) tail = prev; else prevFree[next] = prev;
+      }
+
+      private void ensureCapacity(int minCapacity)
+      {
+         if(minCapacity > check.length) {
+            int length = Math.max(minCapacity, check.length << 1);
+            int old = check.length;
+            base = Arrays.copyOf(base, length);
+            check = Arrays.copyOf(check, length);
+            values = Arrays.copyOf(values, length);
+            nextFree = Arrays.copyOf(nextFree, length);
+            prevFree = Arrays.copyOf(prevFree, length);
+            for(int pos = old; pos < length; pos++) {
+               check[pos] = FREE;
+               prevFree[pos] = tail;
+               nextFree[pos] = -1;
+               if(tail < 0) head = pos; else nextFree[tail] = pos;
+               tail = pos;
+            }
+         }
+      }
+   }
+
+}
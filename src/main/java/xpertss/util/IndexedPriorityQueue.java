@@ -0,0 +1,351 @@
+package xpertss.util;
+
+import xpertss.lang.Numbers;
+import xpertss.lang.Objects;
+
+import java.util.AbstractQueue;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * An unbounded priority queue backed by an indexed d-ary heap.
+ * <p>
+ * Unlike {@link java.util.PriorityQueue} this queue maintains an index from each
+ * element to its position in the heap. That allows {@link #contains(Object)} to
+ * execute in constant time and {@link #remove(Object)} and {@link #update(Object)}
+ * to execute in {@code O(log n)} time rather than requiring a linear scan of the
+ * heap. It is intended for schedulers and graph searches which reprioritize the
+ * elements they have queued on a regular basis.
+ * <p>
+ * The element's priority is determined by the queue's comparator (or natural
+ * ordering). When the state that comparator depends on changes for a queued
+ * element the caller must invoke {@link #update(Object)} to restore the heap
+ * invariant. Changing an element's priority without calling update leaves the
+ * queue in an undefined state.
+ * <p>
+ * The heap arity defaults to four which generally performs better than a binary
+ * heap due to its shallower depth and better cache locality. Higher arity favors
+ * insertion and priority increases while lower arity favors removal.
+ * <p>
+ * Elements are identified by {@link Object#equals(Object)} and a queue may contain
+ * at most one instance of any given element. Attempts to offer an element which is
+ * already queued will return {@code false}. Null elements are not permitted.
+ * <p>
+ * This class is NOT thread safe and external thread synchronization will be
+ * necessary if multiple concurrent threads read and write to it.
+ *
+ * @param <E> the type of elements held in this queue
+ * @see LongPriorityQueue
+ */
+public class IndexedPriorityQueue<E> extends AbstractQueue<E> {
+
+   static final int DEFAULT_ARITY = 4;
+
+   private final Map<E,Node<E>> index = new HashMap<>();
+   private final Comparator<? super E> comparator;
+   private final int arity;
+
+   private Node<E>[] heap;
+   private int size;
+   private int modCount;
+
+
+   /**
+    * Create a quaternary heap based priority queue that orders its elements by
+    * their natural ordering.
+    */
+   public IndexedPriorityQueue()
+   {
+      this(DEFAULT_ARITY, null);
+   }
+
+   /**
+    * Create a quaternary heap based priority queue that orders its elements using
+    * the given comparator.
+    *
+    * @param comparator the comparator used to order this queue. If {@code null} the
+    *                   natural ordering of the elements will be used.
+    */
+   public IndexedPriorityQueue(Comparator<? super E> comparator)
+   {
+      this(DEFAULT_ARITY, comparator);
+   }
+
+   /**
+    * Create a d-ary heap based priority queue with the specified arity that orders
+    * its elements using the given comparator.
+    *
+    * @param arity the number of children each heap node may have
+    * @param comparator the comparator used to order this queue. If {@code null} the
+    *                   natural ordering of the elements will be used.
+    * @throws IllegalArgumentException if arity is less than two
+    */
+   @SuppressWarnings("unchecked")
+   public IndexedPriorityQueue(int arity, Comparator<? super E> comparator)
+   {
+      this.arity = Numbers.gte(2, arity, "arity");
+      this.comparator = comparator;
+      this.heap = (Node<E>[]) new Node<?>[16];
+   }
+
+
+   /**
+    * Returns the comparator used to order the elements in this queue, or
+    * {@code null} if this queue is sorted according to the natural ordering
+    * of its elements.
+    */
+   public Comparator<? super E> comparator()
+   {
+      return comparator;
+   }
+
+   /**
+    * Returns the arity of the underlying heap.
+    */
+   public int arity()
+   {
+      return arity;
+   }
+
+
+
+   /**
+    * Inserts the specified element into this priority queue.
+    *
+    * @return {@code true} if the element was added, {@code false} if the
+    *          element was already queued
+    * @throws ClassCastException if the specified element cannot be compared
+    *          with elements currently in this priority queue according to
+    *          the priority queue's ordering
+    * @throws NullPointerException if the specified element is null
+    */
+   @Override
+   public boolean offer(E e)
+   {
+      Objects.notNull(e);
+      if(index.containsKey(e)) return false;
+      if(size == heap.length) heap = Arrays.copyOf(heap, size << 1);
+      Node<E> node = new Node<>(e);
+      index.put(e, node);
+      modCount++;
+      siftUp(size++, node);
+      return true;
+   }
+
+   @Override
+   public E poll()
+   {
+      if(size == 0) return null;
+      Node<E> result = heap[0];
+      removeAt(0);
+      return result.element;
+   }
+
+   @Override
+   public E peek()
+   {
+      return (size == 0) ? null : heap[0].element;
+   }
+
+   @Override
+   public int size()
+   {
+      return size;
+   }
+
+   /**
+    * Returns {@code true} if this queue contains the specified element. This
+    * executes in constant time.
+    */
+   @Override
+   public boolean contains(Object o)
+   {
+      return o != null && index.containsKey(o);
+   }
+
+   /**
+    * Removes the specified element from this queue if it is present. This
+    * executes in {@code O(log n)} time.
+    */
+   @Override
+   public boolean remove(Object o)
+   {
+      if(o == null) return false;
+      Node<E> node = index.get(o);
+      if(node == null) return false;
+      removeAt(node.pos);
+      return true;
+   }
+
+   /**
+    * Restores the heap ordering for the given element after its priority has
+    * changed. The priority may have been increased or decreased.
+    *
+    * @return {@code true} if the element was queued and has been repositioned,
+    *          {@code false} if the element was not queued
+    * @throws NullPointerException if the specified element is null
+    */
+   public boolean update(E e)
+   {
+      Node<E> node = index.get(Objects.notNull(e));
+      if(node == null) return false;
+      modCount++;
+      int pos = node.pos;
+      siftUp(pos, node);
+      if(node.pos == pos) siftDown(pos, node);
+      return true;
+   }
+
+   @Override
+   public void clear()
+   {
+      modCount++;
+      Arrays.fill(heap, 0, size, null);
+      index.clear();
+      size = 0;
+   }
+
+   /**
+    * Returns an iterator over the elements in this queue. The iterator does not
+    * return the elements in any particular order.
+    */
+   @Override
+   public Iterator<E> iterator()
+   {
+      return new Itr();
+   }
+
+
+
+
+   private Node<E> removeAt(int i)
+   {
+      modCount++;
+      Node<E> removed = heap[i];
+      index.remove(removed.element);
+      int s = --size;
+      Node<E> moved = heap[s];
+      heap[s] = null;
+      if(s != i) {
+         siftDown(i, moved);
+         if(heap[i] == moved) {
+            siftUp(i, moved);
+            if(heap[i] != moved) return moved;
+         }
+      }
+      return null;
+   }
+
+   private void siftUp(int k, Node<E> node)
+   {
+      while(k > 0) {
+         int parent = (k - 1) / arity;
+         Node<E> p = heap[parent];
+         if(compare(node, p) >= 0) break;
+         heap[k] = p;
+         p.pos = k;
+         k = parent;
+      }
+      heap[k] = node;
+      node.pos = k;
+   }
+
+   private void siftDown(int k, Node<E> node)
+   {
+      int first;
+      while((first = k * arity + 1) < size) {
+         int last = Math.min(first + arity, size);
+         int best = first;
+         for(int c = first + 1; c < last; c++) {
+            if(compare(heap[c], heap[best]) < 0) best = c;
+         }
+         Node<E> child = heap[best];
+         if(compare(node, child) <= 0) break;
+         heap[k] = child;
+         child.pos = k;
+         k = best;
+      }
+      heap[k] = node;
+      node.pos = k;
+   }
+
+   @SuppressWarnings("unchecked")
+   private int compare(Node<E> a, Node<E> b)
+   {
+      return (comparator != null) ? comparator.compare(a.element, b.element)
+                                  : ((Comparable<? super E>) a.element).compareTo(b.element);
+   }
+
+
+
+   private static final class Node<E> {
+      private final E element;
+      private int pos;
+
+      private Node(E element)
+      {
+         this.element = element;
+      }
+   }
+
+
+   private final class Itr implements Iterator<E> {
+
+      private int cursor;
+      private int lastRet = -1;
+      private int expectedModCount = modCount;
+
+      // elements moved from the unvisited portion of the heap to the visited
+      // portion as a result of iterator removals
+      private ArrayDeque<Node<E>> forgetMeNot;
+      private Node<E> lastRetElt;
+
+      @Override
+      public boolean hasNext()
+      {
+         return cursor < size || (forgetMeNot != null && !forgetMeNot.isEmpty());
+      }
+
+      @Override
+      public E next()
+      {
+         if(expectedModCount != modCount) throw new ConcurrentModificationException();
+         if(cursor < size) return heap[lastRet = cursor++].element;
+         if(forgetMeNot != null) {
+            lastRet = -1;
+            lastRetElt = forgetMeNot.poll();
+            if(lastRetElt != null) return lastRetElt.element;
+         }
+         throw new NoSuchElementException();
+      }
+
+      @Override
+      public void remove()
+      {
+         if(expectedModCount != modCount) throw new ConcurrentModificationException();
+         if(lastRet != -1) {
+            Node<E> moved = removeAt(lastRet);
+            lastRet = -1;
+            if(moved == null) {
+               cursor--;
+            } else {
+               if(forgetMeNot == null) forgetMeNot = new ArrayDeque<>();
+               forgetMeNot.add(moved);
+            }
+         } else if(lastRetElt != null) {
+            removeAt(lastRetElt.pos);
+            lastRetElt = null;
+         } else {
+            throw new IllegalStateException();
+         }
+         expectedModCount = modCount;
+      }
+   }
+
+}
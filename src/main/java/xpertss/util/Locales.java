@@ -2,16 +2,34 @@ package xpertss.util;
 
 import xpertss.lang.Strings;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
 
 /**
  * Static utility methods for operating with {@link Locale} objects.
+ * <p>
+ * The locales available on this JVM are indexed by country and by language the
+ * first time either index is needed. Parsed locale strings and Accept-Language
+ * headers are held in bounded caches as they tend to be drawn from a small set
+ * of values which repeat on every request. Each cache is a direct mapped table in
+ * which a new value replaces whichever value occupied its slot, so values seen
+ * once, such as junk headers, are eventually displaced by the values which recur.
  */
 public final class Locales {
 
+   private static final int CACHE_SIZE = 1024;     // must be a power of two
+
+   private static final Cache<Locale> parsed = new Cache<>();
+   private static final Cache<List<Locale>> accepted = new Cache<>();
+
    private Locales() { }
 
    /**
@@ -24,14 +42,8 @@ public final class Locales {
    public static Set<Locale> byCountry(String country)
    {
       if(Strings.isEmpty(country)) return Collections.emptySet();
-      Set<Locale> locales = new LinkedHashSet<>();
-      for(Locale locale : Locale.getAvailableLocales()) {
-         if(locale.getVariant().isEmpty()) {
-            if(country.equalsIgnoreCase(locale.getCountry())) locales.add(locale);
-         }
-      }
-      return Collections.unmodifiableSet(locales);
-
+      Set<Locale> locales = Index.countries.get(country.toUpperCase(Locale.ENGLISH));
+      return (locales == null) ? Collections.emptySet() : locales;
    }
 
    /**
@@ -44,13 +56,8 @@ public final class Locales {
    public static Set<Locale> byLanguage(String language)
    {
       if(Strings.isEmpty(language)) return Collections.emptySet();
-      Set<Locale> locales = new LinkedHashSet<>();
-      for(Locale locale : Locale.getAvailableLocales()) {
-         if(locale.getVariant().isEmpty() && locale.getCountry().length() > 0) {
-            if(language.equalsIgnoreCase(locale.getLanguage())) locales.add(locale);
-         }
-      }
-      return Collections.unmodifiableSet(locales);
+      Set<Locale> locales = Index.languages.get(language.toLowerCase(Locale.ENGLISH));
+      return (locales == null) ? Collections.emptySet() : locales;
    }
 
 
@@ -82,14 +89,16 @@ public final class Locales {
    public static Locale parse(String str, Locale def)
    {
       if (!Strings.isEmpty(str)) {
+         Locale result = parsed.get(str);
+         if(result != null) return result;
          String[] parts = str.split("[-_]");
          switch (parts.length) {
             case 1:
-               return new Locale(parts[0].toLowerCase());
+               return parsed.put(str, new Locale(parts[0].toLowerCase()));
             case 2:
-               return new Locale(parts[0].toLowerCase(), parts[1].toUpperCase());
+               return parsed.put(str, new Locale(parts[0].toLowerCase(), parts[1].toUpperCase()));
             case 3:
-               return new Locale(parts[0].toLowerCase(), parts[1].toUpperCase(), parts[2]);
+               return parsed.put(str, new Locale(parts[0].toLowerCase(), parts[1].toUpperCase(), parts[2]));
          }
       }
       return def;
@@ -97,6 +106,107 @@ public final class Locales {
 
 
 
+   /**
+    * Parse an HTTP Accept-Language header into the list of locales it identifies
+    * ordered from most to least preferred. Locales with equal quality values remain
+    * in header order. The wildcard range, ranges with a quality of zero, and
+    * malformed ranges are omitted.
+    *
+    * @param header The Accept-Language header value
+    * @return An immutable list of the acceptable locales
+    */
+   public static List<Locale> parseAcceptLanguage(String header)
+   {
+      if(Strings.isEmpty(header)) return Collections.emptyList();
+      List<Locale> result = accepted.get(header);
+      if(result != null) return result;
+
+      List<Range> ranges = new ArrayList<>();
+      for(int start = 0, end; start < header.length(); start = end + 1) {
+         if((end = header.indexOf(',', start)) < 0) end = header.length();
+         int semi = header.indexOf(';', start);
+         String tag = header.substring(start, (semi < 0 || semi > end) ? end : semi).trim();
+         float quality = 1f;
+         if(semi >= 0 && semi < end) {
+            String param = header.substring(semi + 1, end).trim();
+            if(!param.startsWith("q=")) continue;
+            try {
+               quality = Float.parseFloat(param.substring(2));
+            } catch(NumberFormatException e) {
+               continue;
+            }
+         }
+         if(quality > 0 && !tag.isEmpty() && !tag.equals("*")) {
+            Locale locale = parse(tag, null);
+            if(locale != null) ranges.add(new Range(locale, quality));
+         }
+      }
+      Collections.sort(ranges, (one, two) -> Float.compare(two.quality, one.quality));
+      result = new ArrayList<>(ranges.size());
+      for(Range range : ranges) result.add(range.locale);
+      return accepted.put(header, Collections.unmodifiableList(result));
+   }
+
+   /**
+    * Returns the locale available on this JVM which best satisfies the given HTTP
+    * Accept-Language header or the default if none is acceptable.
+    * <p>
+    * Ranges are considered in order of preference. A range naming a country matches
+    * that exact locale, or failing that the locale for its language alone. A range
+    * naming only a language matches the locale for that language or else the first
+    * available locale of that language.
+    *
+    * @param header The Accept-Language header value
+    * @param def The locale to return if no available locale is acceptable
+    * @return The best matching available locale or the default
+    */
+   public static Locale match(String header, Locale def)
+   {
+      for(Locale range : parseAcceptLanguage(header)) {
+         if(Index.available.contains(range)) return range;
+         Locale language = new Locale(range.getLanguage());
+         if(!range.getCountry().isEmpty() && Index.available.contains(language)) return language;
+         if(range.getCountry().isEmpty()) {
+            Set<Locale> locales = byLanguage(range.getLanguage());
+            if(!locales.isEmpty()) return locales.iterator().next();
+         }
+      }
+      return def;
+   }
+
+   /**
+    * Returns the locale from the given supported locales which best satisfies the
+    * given HTTP Accept-Language header or the default if none is acceptable.
+    * <p>
+    * Ranges are considered in order of preference. A range naming a country matches
+    * that exact locale, or failing that the supported locale for its language alone.
+    * A range naming only a language matches the first supported locale of that
+    * language.
+    *
+    * @param header The Accept-Language header value
+    * @param supported The locales the caller is able to serve in order of preference
+    * @param def The locale to return if no supported locale is acceptable
+    * @return The best matching supported locale or the default
+    */
+   public static Locale match(String header, Collection<Locale> supported, Locale def)
+   {
+      for(Locale range : parseAcceptLanguage(header)) {
+         Locale fallback = null;
+         for(Locale locale : supported) {
+            if(!locale.getLanguage().equals(range.getLanguage())) continue;
+            if(locale.getCountry().equals(range.getCountry()) && locale.getVariant().equals(range.getVariant())) {
+               return locale;
+            } else if(fallback == null && (range.getCountry().isEmpty() || locale.getCountry().isEmpty())) {
+               fallback = locale;
+            }
+         }
+         if(fallback != null) return fallback;
+      }
+      return def;
+   }
+
+
+
    /**
     * Converts a locale object into a properly formatted language string usable by
     * various mime based systems such as the Content-Language header of HTTP.
@@ -113,4 +223,86 @@ public final class Locales {
       return locale.getLanguage().toLowerCase() + "-" + locale.getCountry().toUpperCase();
    }
 
+
+
+
+   /*
+    * Entries are immutable so one racing with another for the same slot is harmless,
+    * a thread simply sees either of them or parses the value again.
+    */
+   private static final class Cache<T> {
+
+      private final Entry<?>[] entries = new Entry<?>[CACHE_SIZE];
+
+      @SuppressWarnings("unchecked")
+      private T get(String key)
+      {
+         Entry<?> entry = entries[index(key)];
+         return (entry != null && entry.key.equals(key)) ? (T) entry.value : null;
+      }
+
+      private T put(String key, T value)
+      {
+         entries[index(key)] = new Entry<>(key, value);
+         return value;
+      }
+
+      private static int index(String key)
+      {
+         int hash = key.hashCode();
+         return (hash ^ (hash >>> 16)) & (CACHE_SIZE - 1);
+      }
+   }
+
+   private static final class Entry<T> {
+
+      private final String key;
+      private final T value;
+
+      private Entry(String key, T value)
+      {
+         this.key = key;
+         this.value = value;
+      }
+   }
+
+   private static final class Range {
+      private final Locale locale;
+      private final float quality;
+
+      private Range(Locale locale, float quality)
+      {
+         this.locale = locale;
+         this.quality = quality;
+      }
+   }
+
+   // the locales of this JVM indexed by country and language, built when first needed
+   private static final class Index {
+
+      private static final Set<Locale> available;
+      private static final Map<String,Set<Locale>> countries;
+      private static final Map<String,Set<Locale>> languages;
+
+      static {
+         Set<Locale> all = new HashSet<>();
+         Map<String,Set<Locale>> byCountry = new HashMap<>();
+         Map<String,Set<Locale>> byLanguage = new HashMap<>();
+         for(Locale locale : Locale.getAvailableLocales()) {
+            all.add(locale);
+            if(locale.getVariant().isEmpty()) {
+               if(!locale.getCountry().isEmpty()) {
+                  byCountry.computeIfAbsent(locale.getCountry().toUpperCase(Locale.ENGLISH), k -> new LinkedHashSet<>()).add(locale);
+                  byLanguage.computeIfAbsent(locale.getLanguage().toLowerCase(Locale.ENGLISH), k -> new LinkedHashSet<>()).add(locale);
+               }
+            }
+         }
+         byCountry.replaceAll((k, v) -> Collections.unmodifiableSet(v));
+         byLanguage.replaceAll((k, v) -> Collections.unmodifiableSet(v));
+         available = Collections.unmodifiableSet(all);
+         countries = byCountry;
+         languages = byLanguage;
+      }
+   }
+
 }
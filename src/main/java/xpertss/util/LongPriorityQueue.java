@@ -0,0 +1,326 @@
+package xpertss.util;
+
+import xpertss.lang.Numbers;
+import xpertss.lang.Objects;
+
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * A min priority queue backed by an indexed d-ary heap where each element's priority
+ * is an explicit primitive {@code long} rather than being derived via a comparator.
+ * <p>
+ * Priorities are held in a primitive array parallel to the heap so that ordering
+ * the heap never boxes nor calls through a comparator. The queue maintains an index
+ * from each element to its heap position allowing {@link #contains(Object)} to
+ * execute in constant time and {@link #update(Object, long)} and {@link #remove(Object)}
+ * to execute in {@code O(log n)} time.
+ * <p>
+ * The element with the lowest priority value is at the head of the queue. Ties are
+ * broken arbitrarily.
+ * <p>
+ * Elements are identified by {@link Object#equals(Object)} and a queue may contain
+ * at most one instance of any given element. Null elements are not permitted.
+ * <p>
+ * This class is NOT thread safe and external thread synchronization will be
+ * necessary if multiple concurrent threads read and write to it.
+ *
+ * @param <E> the type of elements held in this queue
+ * @see IndexedPriorityQueue
+ */
+public class LongPriorityQueue<E> implements Iterable<E> {
+
+   private final Map<E,Node<E>> index = new HashMap<>();
+   private final int arity;
+
+   private Node<E>[] heap;
+   private long[] priorities;
+   private int size;
+   private int modCount;
+
+
+   /**
+    * Create a quaternary heap based long priority queue.
+    */
+   public LongPriorityQueue()
+   {
+      this(IndexedPriorityQueue.DEFAULT_ARITY);
+   }
+
+   /**
+    * Create a d-ary heap based long priority queue with the specified arity.
+    *
+    * @param arity the number of children each heap node may have
+    * @throws IllegalArgumentException if arity is less than two
+    */
+   @SuppressWarnings("unchecked")
+   public LongPriorityQueue(int arity)
+   {
+      this.arity = Numbers.gte(2, arity, "arity");
+      this.heap = (Node<E>[]) new Node<?>[16];
+      this.priorities = new long[16];
+   }
+
+
+   /**
+    * Returns the arity of the underlying heap.
+    */
+   public int arity()
+   {
+      return arity;
+   }
+
+
+   /**
+    * Inserts the specified element into this queue with the given priority.
+    *
+    * @return {@code true} if the element was added, {@code false} if the
+    *          element was already queued
+    * @throws NullPointerException if the specified element is null
+    */
+   public boolean offer(E e, long priority)
+   {
+      Objects.notNull(e);
+      if(index.containsKey(e)) return false;
+      if(size == heap.length) {
+         heap = Arrays.copyOf(heap, size << 1);
+         priorities = Arrays.copyOf(priorities, size << 1);
+      }
+      Node<E> node = new Node<>(e);
+      index.put(e, node);
+      modCount++;
+      siftUp(size++, node, priority);
+      return true;
+   }
+
+   /**
+    * Changes the priority of the specified queued element. The new priority may
+    * be higher or lower than the element's current priority.
+    *
+    * @return {@code true} if the element was queued and has been repositioned,
+    *          {@code false} if the element was not queued
+    * @throws NullPointerException if the specified element is null
+    */
+   public boolean update(E e, long priority)
+   {
+      Node<E> node = index.get(Objects.notNull(e));
+      if(node == null) return false;
+      modCount++;
+      int pos = node.pos;
+      if(priority < priorities[pos]) {
+         siftUp(pos, node, priority);
+      } else {
+         siftDown(pos, node, priority);
+      }
+      return true;
+   }
+
+   /**
+    * Returns the priority of the specified element.
+    *
+    * @throws NoSuchElementException if the element is not queued
+    */
+   public long priority(Object e)
+   {
+      Node<E> node = (e == null) ? null : index.get(e);
+      if(node == null) throw new NoSuchElementException();
+      return priorities[node.pos];
+   }
+
+
+   /**
+    * Retrieves and removes the head of this queue, or returns {@code null} if this
+    * queue is empty.
+    */
+   public E poll()
+   {
+      if(size == 0) return null;
+      E result = heap[0].element;
+      removeAt(0);
+      return result;
+   }
+
+   /**
+    * Retrieves, but does not remove, the head of this queue, or returns {@code null}
+    * if this queue is empty.
+    */
+   public E peek()
+   {
+      return (size == 0) ? null : heap[0].element;
+   }
+
+   /**
+    * Returns the priority of the head of this queue.
+    *
+    * @throws NoSuchElementException if this queue is empty
+    */
+   public long peekPriority()
+   {
+      if(size == 0) throw new NoSuchElementException();
+      return priorities[0];
+   }
+
+   /**
+    * Returns {@code true} if this queue contains the specified element. This
+    * executes in constant time.
+    */
+   public boolean contains(Object o)
+   {
+      return o != null && index.containsKey(o);
+   }
+
+   /**
+    * Removes the specified element from this queue if it is present. This
+    * executes in {@code O(log n)} time.
+    */
+   public boolean remove(Object o)
+   {
+      Node<E> node = (o == null) ? null : index.get(o);
+      if(node == null) return false;
+      removeAt(node.pos);
+      return true;
+   }
+
+   /**
+    * Returns the number of elements in this queue.
+    */
+   public int size()
+   {
+      return size;
+   }
+
+   /**
+    * Returns {@code true} if this queue contains no elements.
+    */
+   public boolean isEmpty()
+   {
+      return size == 0;
+   }
+
+   /**
+    * Removes all of the elements from this queue.
+    */
+   public void clear()
+   {
+      modCount++;
+      Arrays.fill(heap, 0, size, null);
+      index.clear();
+      size = 0;
+   }
+
+   /**
+    * Returns an iterator over the elements in this queue. The iterator does not
+    * return the elements in any particular order and does not support removal.
+    */
+   @Override
+   public Iterator<E> iterator()
+   {
+      return new Iterator<E>() {
+         private final int expectedModCount = modCount;
+         private int cursor;
+
+         @Override
+         public boolean hasNext()
+         {
+            return cursor < size;
+         }
+
+         @Override
+         public E next()
+         {
+            if(expectedModCount != modCount) throw new ConcurrentModificationException();
+            if(cursor >= size) throw new NoSuchElementException();
+            return heap[cursor++].element;
+         }
+      };
+   }
+
+   @Override
+   public String toString()
+   {
+      StringBuilder buf = new StringBuilder("[");
+      for(int i = 0; i < size; i++) {
+         if(i > 0) buf.append(", ");
+         buf.append(heap[i].element).append('=').append(priorities[i]);
+      }
+      return buf.append(']').toString();
+   }
+
+
+
+
+   private void removeAt(int i)
+   {
+      modCount++;
+      index.remove(heap[i].element);
+      int s = --size;
+      Node<E> moved = heap[s];
+      long priority = priorities[s];
+      heap[s] = null;
+      if(s != i) {
+         if(priority < priorities[i]) {
+            siftUp(i, moved, priority);
+         } else {
+            siftDown(i, moved, priority);
+         }
+      }
+   }
+
+   private void siftUp(int k, Node<E> node, long priority)
+   {
+      while(k > 0) {
+         int parent = (k - 1) / arity;
+         if(priority >= priorities[parent]) break;
+         move(parent, k);
+         k = parent;
+      }
+      place(k, node, priority);
+   }
+
+   private void siftDown(int k, Node<E> node, long priority)
+   {
+      int first;
+      while((first = k * arity + 1) < size) {
+         int last = Math.min(first + arity, size);
+         int best = first;
+         for(int c = first + 1; c < last; c++) {
+            if(priorities[c] < priorities[best]) best = c;
+         }
+         if(priority <= priorities[best]) break;
+         move(best, k);
+         k = best;
+      }
+      place(k, node, priority);
+   }
+
+   private void move(int from, int to)
+   {
+      Node<E> node = heap[from];
+      heap[to] = node;
+      priorities[to] = priorities[from];
+      node.pos = to;
+   }
+
+   private void place(int k, Node<E> node, long priority)
+   {
+      heap[k] = node;
+      priorities[k] = priority;
+      node.pos = k;
+   }
+
+
+   private static final class Node<E> {
+      private final E element;
+      private int pos;
+
+      private Node(E element)
+      {
+         this.element = element;
+      }
+   }
+
+}
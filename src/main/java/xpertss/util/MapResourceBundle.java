@@ -2,8 +2,13 @@ package xpertss.util;
 
 import xpertss.lang.Objects;
 
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
 import java.util.Enumeration;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.ResourceBundle;
@@ -23,6 +28,9 @@ import java.util.Set;
  * This bundle could easily be used with a control which parses the map data
  * from a properties file, or some other custom file format including java
  * serialized data, json data, or xml data.
+ * <p>
+ * Large bundles which are kept resident may be created via {@link #frozen(Map)}
+ * which copies the resources into flat arrays indexed by a minimal perfect hash.
  */
 public class MapResourceBundle extends ResourceBundle {
 
@@ -41,6 +49,25 @@ public class MapResourceBundle extends ResourceBundle {
    }
 
 
+   /**
+    * Construct an immutable {@code MapResourceBundle} from a copy of the given map.
+    * <p>
+    * The resources are copied into parallel key and value arrays indexed by a
+    * minimal perfect hash of the keys. Each lookup computes a single hash from the
+    * key's cached hash code and performs a single string comparison. Compared to a
+    * {@link HashMap} no entry objects are allocated, reducing the footprint of
+    * large bundles.
+    *
+    * @param resources The resource data to copy
+    * @throws NullPointerException if the supplied resource map or any of its keys
+    *    are {@code null}
+    */
+   public static MapResourceBundle frozen(Map<String,?> resources)
+   {
+      return new MapResourceBundle(new PerfectHashMap(Objects.notNull(resources)));
+   }
+
+
 
    @Override
    public Enumeration<String> getKeys()
@@ -63,6 +90,185 @@ public class MapResourceBundle extends ResourceBundle {
    }
 
 
+   /**
+    * An immutable map of string keys built using hash and displace. Keys are
+    * first hashed into a bucket, each bucket then holds either the slot of its
+    * only key or a seed which maps all of its keys to distinct free slots.
+    * Distinct keys which share a hash code cannot be separated and are held in
+    * a small overflow map.
+    */
+   private static final class PerfectHashMap extends AbstractMap<String,Object> {
+
+      private final String[] keys;
+      private final Object[] values;
+      private final int[] seeds;
+      private final Map<String,Object> overflow;
+
+      private PerfectHashMap(Map<String,?> source)
+      {
+         int n = source.size();
+         keys = new String[n];
+         values = new Object[n];
+         seeds = new int[Math.max(1, n)];
+
+         List<List<Map.Entry<String,?>>> buckets = new ArrayList<>(seeds.length);
+         for(int i = 0; i < seeds.length; i++) buckets.add(null);
+         for(Map.Entry<String,?> entry : source.entrySet()) {
+            int b = bucket(Objects.notNull(entry.getKey(), "key").hashCode(), seeds.length);
+            List<Map.Entry<String,?>> bucket = buckets.get(b);
+            if(bucket == null) buckets.set(b, bucket = new ArrayList<>(2));
+            bucket.add(entry);
+         }
+         buckets.sort((one, two) -> Integer.compare(size(two), size(one)));
+
+         Map<String,Object> extra = null;
+         boolean[] used = new boolean[n];
+         int free = 0;
+         for(List<Map.Entry<String,?>> bucket : buckets) {
+            if(bucket == null) break;
+            // separate keys whose hash codes collide as no seed can distinguish them
+            for(int i = 1; i < bucket.size(); i++) {
+               for(int j = 0; j < i; j++) {
+                  if(bucket.get(i).getKey().hashCode() == bucket.get(j).getKey().hashCode()) {
+                     if(extra == null) extra = new HashMap<>();
+                     extra.put(bucket.get(i).getKey(), bucket.remove(i--).getValue());
+                     break;
+                  }
+               }
+            }
+            int b = bucket(bucket.get(0).getKey().hashCode(), seeds.length);
+            if(bucket.size() == 1) {
+               while(used[free]) free++;
+               place(bucket.get(0), used, free);
+               seeds[b] = -(free + 1);
+            } else {
+               int[] slots = new int[bucket.size()];
+               for(int seed = 1; ; seed++) {
+                  if(fits(bucket, seed, used, slots)) {
+                     for(int i = 0; i < slots.length; i++) place(bucket.get(i), used, slots[i]);
+                     seeds[b] = seed;
+                     break;
+                  }
+               }
+            }
+         }
+         this.overflow = extra;
+      }
+
+      private boolean fits(List<Map.Entry<String,?>> bucket, int seed, boolean[] used, int[] slots)
+      {
+         for(int i = 0; i < slots.length; i++) {
+            int slot = slot(bucket.get(i).getKey().hashCode(), seed, keys.length);
+            if(used[slot]) return false;
+            for(int j = 0; j < i; j++) if(slots[j] == slot) return false;
+            slots[i] = slot;
+         }
+         return true;
+      }
+
+      private void place(Map.Entry<String,?> entry, boolean[] used, int slot)
+      {
+         used[slot] = true;
+         keys[slot] = entry.getKey();
+         values[slot] = entry.getValue();
+      }
+
+
+      @Override
+      public Object get(Object key)
+      {
+         int index = index(key);
+         if(index >= 0) return values[index];
+         return (overflow == null) ? null : overflow.get(key);
+      }
+
+      @Override
+      public boolean containsKey(Object key)
+      {
+         return index(key) >= 0 || (overflow != null && overflow.containsKey(key));
+      }
+
+      @Override
+      public int size()
+      {
+         return keys.length;
+      }
+
+      @Override
+      public Set<Entry<String,Object>> entrySet()
+      {
+         return new AbstractSet<Entry<String,Object>>() {
+            @Override
+            public Iterator<Entry<String,Object>> iterator()
+            {
+               final Iterator<Entry<String,Object>> extra = (overflow == null) ? null : overflow.entrySet().iterator();
+               return new Iterator<Entry<String,Object>>() {
+                  private int index;
+
+                  @Override
+                  public boolean hasNext()
+                  {
+                     while(index < keys.length && keys[index] == null) index++;
+                     return index < keys.length || (extra != null && extra.hasNext());
+                  }
+
+                  @Override
+                  public Entry<String,Object> next()
+                  {
+                     if(!hasNext()) throw new NoSuchElementException();
+                     if(index < keys.length) {
+                        return new SimpleImmutableEntry<>(keys[index], values[index++]);
+                     }
+                     return extra.next();
+                  }
+               };
+            }
+
+            @Override
+            public int size()
+            {
+               return keys.length;
+            }
+         };
+      }
+
+
+      private int index(Object key)
+      {
+         if(!(key instanceof String) || keys.length == 0) return -1;
+         int h = key.hashCode();
+         int seed = seeds[bucket(h, seeds.length)];
+         if(seed == 0) return -1;
+         int index = (seed < 0) ? -seed - 1 : slot(h, seed, keys.length);
+         return key.equals(keys[index]) ? index : -1;
+      }
+
+      private static int size(List<?> list)
+      {
+         return (list == null) ? 0 : list.size();
+      }
+
+      private static int bucket(int h, int buckets)
+      {
+         return (mix(h) & 0x7fffffff) % buckets;
+      }
+
+      private static int slot(int h, int seed, int slots)
+      {
+         return (mix(h ^ (seed * 0x9e3779b9)) & 0x7fffffff) % slots;
+      }
+
+      private static int mix(int h)
+      {
+         h ^= h >>> 16;
+         h *= 0x85ebca6b;
+         h ^= h >>> 13;
+         h *= 0xc2b2ae35;
+         return h ^ (h >>> 16);
+      }
+   }
+
+
    private class ResourceBundleEnumeration implements Enumeration<String> {
 
       Set<String> set;
@@ -0,0 +1,407 @@
+package xpertss.util;
+
+import xpertss.io.Charsets;
+import xpertss.io.NIOUtils;
+import xpertss.lang.CharSequences;
+import xpertss.lang.Objects;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * A read-only {@link CharTrie} which operates directly against a flat binary image
+ * of a frozen trie, typically memory mapped from a file.
+ * <p>
+ * The image is written once using {@link #write(CharTrie, Path, Function)} and
+ * reopened using {@link #open(Path, Function)} which maps the file read-only via
+ * {@link NIOUtils#mapReadOnly(Path)}. Opening a trie does not parse or copy its
+ * contents, only the character alphabet is loaded onto the heap. Lookups run
+ * against the mapped bytes using the same double-array layout as {@link
+ * DoubleArrayCharTrie} and the trie lives off heap where it may be shared via
+ * the page cache by every process mapping the same file.
+ * <p>
+ * Each state in the image holds the offset of its value within a value region of
+ * the file. Values are encoded to bytes when written and decoded on each access
+ * using a caller supplied codec. Equal values are only written once.
+ * <p>
+ * Instances are immutable and safe for use by multiple concurrent threads. Calls
+ * to {@link #put(CharSequence, Object)} will throw {@link UnsupportedOperationException}.
+ *
+ * <pre>
+ * Layout (big endian)
+ *    int     magic
+ *    int     version
+ *    int     alphabet size (n)
+ *    int     state count (m)
+ *    int     value region size in bytes
+ *    char[n] alphabet ordered by code, padded to a four byte boundary
+ *    int[m]  base
+ *    int[m]  check
+ *    int[m]  value offset or -1
+ *    value region of length prefixed encoded values
+ * </pre>
+ */
+public final class MappedCharTrie<T> extends CharTrie<T> {
+
+   private static final int MAGIC = 0x43545249;    // CTRI
+   private static final int VERSION = 1;
+   private static final int HEADER = 20;
+
+
+   /**
+    * Write the given trie to the specified file encoding each value using the given
+    * encoder function. Any existing file will be replaced.
+    *
+    * @throws NullPointerException if any of the arguments are {@code null}
+    * @throws IOException if an I/O error occurs
+    */
+   public static <T> void write(CharTrie<T> trie, Path file, Function<? super T, byte[]> encoder)
+      throws IOException
+   {
+      Objects.notNull(encoder, "encoder");
+      DoubleArrayCharTrie<T> frozen = (trie instanceof DoubleArrayCharTrie && trie.isRoot())
+                                          ? (DoubleArrayCharTrie<T>) trie
+                                          : DoubleArrayCharTrie.Builder.create(trie).build();
+      char[] alphabet = frozen.alphabet();
+      int[] base = frozen.base(), check = frozen.check();
+      Object[] values = frozen.values();
+
+      int[] offsets = new int[values.length];
+      Map<Object,Integer> written = new HashMap<>();
+      ByteBuffer region = ByteBuffer.allocate(1024);
+      for(int s = 0; s < values.length; s++) {
+         if(values[s] == null) {
+            offsets[s] = -1;
+         } else {
+            Integer offset = written.get(values[s]);
+            if(offset == null) {
+               @SuppressWarnings("unchecked")
+               byte[] bytes = encoder.apply((T) values[s]);
+               if(region.remaining() < bytes.length + 4) {
+                  region = grow(region, bytes.length + 4);
+               }
+               written.put(values[s], offset = region.position());
+               region.putInt(bytes.length).put(bytes);
+            }
+            offsets[s] = offset;
+         }
+      }
+      region.flip();
+
+      int alphabetSize = (alphabet.length - 1) * 2;
+      alphabetSize += (4 - (alphabetSize & 3)) & 3;
+      ByteBuffer buf = ByteBuffer.allocate(HEADER + alphabetSize + base.length * 12 + region.remaining());
+      buf.putInt(MAGIC).putInt(VERSION).putInt(alphabet.length - 1).putInt(base.length).putInt(region.remaining());
+      for(int i = 1; i < alphabet.length; i++) buf.putChar(alphabet[i]);
+      buf.position(HEADER + alphabetSize);
+      buf.asIntBuffer().put(base).put(check).put(offsets);
+      buf.position(buf.position() + base.length * 12);
+      buf.put(region).flip();
+
+      try(FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                                                 StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+         while(buf.hasRemaining()) channel.write(buf);
+      }
+   }
+
+   /**
+    * Write the given trie of strings to the specified file encoding each value as
+    * UTF-8.
+    *
+    * @throws NullPointerException if any of the arguments are {@code null}
+    * @throws IOException if an I/O error occurs
+    */
+   public static void write(CharTrie<String> trie, Path file)
+      throws IOException
+   {
+      write(trie, file, value -> value.getBytes(Charsets.UTF_8));
+   }
+
+
+   /**
+    * Memory map the specified trie image read-only decoding values with the given
+    * function. The decoder is given a read-only buffer whose remaining bytes are
+    * exactly those of the encoded value.
+    *
+    * @throws NullPointerException if any of the arguments are {@code null}
+    * @throws IOException if an I/O error occurs
+    * @throws IllegalArgumentException if the file is not a valid trie image
+    */
+   public static <T> MappedCharTrie<T> open(Path file, Function<ByteBuffer, ? extends T> decoder)
+      throws IOException
+   {
+      return wrap(NIOUtils.mapReadOnly(file), decoder);
+   }
+
+   /**
+    * Memory map the specified trie image read-only decoding values as UTF-8 strings.
+    *
+    * @throws NullPointerException if the file is {@code null}
+    * @throws IOException if an I/O error occurs
+    * @throws IllegalArgumentException if the file is not a valid trie image
+    */
+   public static MappedCharTrie<String> open(Path file)
+      throws IOException
+   {
+      return open(file, buf -> Charsets.UTF_8.decode(buf).toString());
+   }
+
+   /**
+    * Create a trie which operates against the given buffer containing a trie image
+    * decoding values with the given function. The buffer's content from its current
+    * position onward is used and subsequent changes to its position and limit will
+    * not affect the trie.
+    *
+    * @throws NullPointerException if any of the arguments are {@code null}
+    * @throws IllegalArgumentException if the buffer is not a valid trie image
+    */
+   public static <T> MappedCharTrie<T> wrap(ByteBuffer buffer, Function<ByteBuffer, ? extends T> decoder)
+   {
+      return new MappedCharTrie<>(new Image<>(buffer.slice().asReadOnlyBuffer(), Objects.notNull(decoder, "decoder")), 0);
+   }
+
+
+
+
+   private final Image<T> image;
+   private final int state;
+
+   private Children children;
+
+   private MappedCharTrie(Image<T> image, int state)
+   {
+      super((char) 0, 0);
+      this.image = image;
+      this.state = state;
+   }
+
+
+   @Override
+   public T find(CharSequence key)
+   {
+      CharSequences.notEmpty(key, "key must not be empty");
+      return find(key, 0, key.length());
+   }
+
+   @Override
+   public T find(CharSequence key, int start, int end)
+   {
+      checkRange(key, start, end);
+      if(start == end) throw new IllegalArgumentException("key must not be empty");
+      int s = state;
+      for(int i = start; i < end; i++) {
+         if((s = image.next(s, key.charAt(i))) < 0) return null;
+      }
+      return image.value(s);
+   }
+
+   @Override
+   public int longestPrefixMatch(CharSequence seq, int offset)
+   {
+      checkRange(seq, offset, seq.length());
+      int result = 0;
+      for(int i = offset, s = state; i < seq.length(); i++) {
+         if((s = image.next(s, seq.charAt(i))) < 0) break;
+         if(image.offset(s) >= 0) result = i - offset + 1;
+      }
+      return result;
+   }
+
+   @Override
+   public boolean isRoot()
+   {
+      return state == 0;
+   }
+
+   @Override
+   public T get()
+   {
+      return image.value(state);
+   }
+
+   @Override
+   public CharTrie<T> findChild(char c)
+   {
+      int t = image.next(state, c);
+      return (t < 0) ? null : new MappedCharTrie<>(image, t);
+   }
+
+   @Override
+   public T put(CharSequence key, T value)
+   {
+      throw new UnsupportedOperationException();
+   }
+
+   @Override
+   public int size()
+   {
+      return children().labels.length;
+   }
+
+   @Override
+   char codeAt(int index)
+   {
+      return children().labels[index];
+   }
+
+   @Override
+   CharTrie<T> childAt(int index)
+   {
+      return new MappedCharTrie<>(image, children().states[index]);
+   }
+
+   // a racy single check is safe as Children is immutable and its fields final
+   private Children children()
+   {
+      Children result = children;
+      if(result == null) children = result = Children.of(image, state);
+      return result;
+   }
+
+
+
+   @Override
+   public boolean equals(Object obj)
+   {
+      if(obj instanceof MappedCharTrie) {
+         MappedCharTrie<?> o = (MappedCharTrie<?>) obj;
+         return image == o.image && state == o.state;
+      }
+      return false;
+   }
+
+   @Override
+   public int hashCode()
+   {
+      return Objects.hash(System.identityHashCode(image), state);
+   }
+
+   @Override
+   public String toString()
+   {
+      return String.format("MappedCharTrie(%d)", state);
+   }
+
+
+
+
+   private static ByteBuffer grow(ByteBuffer buf, int required)
+   {
+      ByteBuffer result = ByteBuffer.allocate(Math.max(buf.capacity() << 1, buf.position() + required));
+      buf.flip();
+      return result.put(buf);
+   }
+
+
+   // The children of a state in ascending char order rather than alphabet code order
+   private static final class Children {
+
+      private final char[] labels;
+      private final int[] states;
+
+      private Children(char[] labels, int[] states)
+      {
+         this.labels = labels;
+         this.states = states;
+      }
+
+      private static Children of(Image<?> image, int s)
+      {
+         int count = 0;
+         for(int c = 1; c < image.chars.length; c++) {
+            if(image.transition(s, c) >= 0) count++;
+         }
+         long[] sorted = new long[count];
+         for(int c = 1, i = 0; i < count; c++) {
+            int t = image.transition(s, c);
+            if(t >= 0) sorted[i++] = ((long) image.chars[c] << 32) | t;
+         }
+         Arrays.sort(sorted);
+         char[] labels = new char[count];
+         int[] states = new int[count];
+         for(int i = 0; i < count; i++) {
+            labels[i] = (char) (sorted[i] >>> 32);
+            states[i] = (int) sorted[i];
+         }
+         return new Children(labels, states);
+      }
+   }
+
+   private static final class Image<T> {
+
+      private final ByteBuffer buf;
+      private final Function<ByteBuffer, ? extends T> decoder;
+      private final char[][] codes = new char[256][];
+      private final char[] chars;
+      private final int states;
+      private final int baseOffset;
+      private final int checkOffset;
+      private final int valueOffset;
+      private final int regionOffset;
+
+      private Image(ByteBuffer buf, Function<ByteBuffer, ? extends T> decoder)
+      {
+         if(buf.remaining() < HEADER || buf.getInt(0) != MAGIC)
+            throw new IllegalArgumentException("not a trie image");
+         if(buf.getInt(4) != VERSION)
+            throw new IllegalArgumentException("unsupported trie image version " + buf.getInt(4));
+         this.buf = buf;
+         this.decoder = decoder;
+         int alphabet = buf.getInt(8);
+         this.states = buf.getInt(12);
+         int alphabetSize = alphabet * 2;
+         alphabetSize += (4 - (alphabetSize & 3)) & 3;
+         this.baseOffset = HEADER + alphabetSize;
+         this.checkOffset = baseOffset + states * 4;
+         this.valueOffset = checkOffset + states * 4;
+         this.regionOffset = valueOffset + states * 4;
+         if(regionOffset + buf.getInt(16) > buf.limit())
+            throw new IllegalArgumentException("truncated trie image");
+
+         this.chars = new char[alphabet + 1];
+         for(int i = 1; i <= alphabet; i++) {
+            char c = chars[i] = buf.getChar(HEADER + (i - 1) * 2);
+            char[] block = codes[c >>> 8];
+            if(block == null) block = codes[c >>> 8] = new char[256];
+            block[c & 0xff] = (char) i;
+         }
+      }
+
+      private int next(int s, char c)
+      {
+         char[] block = codes[c >>> 8];
+         if(block == null) return -1;
+         int code = block[c & 0xff];
+         return (code == 0) ? -1 : transition(s, code);
+      }
+
+      private int transition(int s, int code)
+      {
+         int t = buf.getInt(baseOffset + (s << 2)) + code;
+         return (t < states && buf.getInt(checkOffset + (t << 2)) == s) ? t : -1;
+      }
+
+      private int offset(int s)
+      {
+         return buf.getInt(valueOffset + (s << 2));
+      }
+
+      private T value(int s)
+      {
+         int offset = offset(s);
+         if(offset < 0) return null;
+         int position = regionOffset + offset;
+         ByteBuffer value = buf.duplicate();
+         value.limit(position + 4 + buf.getInt(position)).position(position + 4);
+         return decoder.apply(value.slice());
+      }
+   }
+
+}
@@ -9,6 +9,7 @@ import xpertss.lang.Integers;
 import xpertss.lang.Strings;
 import xpertss.security.SimplePrincipal;
 
+import java.lang.management.ManagementFactory;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.security.Principal;
@@ -21,7 +22,10 @@ import java.security.Principal;
  * It also provides quick access to system paths like the users home directory,
  * the current working directory, the temp file directory, and the java install
  * directory.
- *
+ * <p>
+ * Finally it describes the CPU and memory resources available to the process taking
+ * into account any {@link ResourceLimits limits} imposed by a container, and offers
+ * a recommended parallelism with which to size thread pools.
  */
 public enum Platform {
 
@@ -208,10 +212,85 @@ public enum Platform {
 
    /**
     * Returns the number of processors available to the Java virtual machine.
+    * <p>
+    * When running within a container this is the number of processors it may
+    * effectively use, which is limited by its CPU set and its CPU quota rounded
+    * up to a whole processor.
     */
    public static int processors()
    {
-      return Runtime.getRuntime().availableProcessors();
+      return ResourceLimits.current().processors(Runtime.getRuntime().availableProcessors());
+   }
+
+   /**
+    * Returns the CPU bandwidth quota imposed on this process as a number of
+    * processors, which may be fractional, or {@code -1} if it is unlimited.
+    */
+   public static double cpuQuota()
+   {
+      return ResourceLimits.current().getCpuQuota();
+   }
+
+   /**
+    * Returns the memory limit in bytes imposed on this process or {@code -1} if
+    * it is unlimited.
+    */
+   public static long memoryLimit()
+   {
+      return ResourceLimits.current().getMemoryLimit();
+   }
+
+   /**
+    * Returns the maximum amount of direct (off heap) buffer memory in bytes the
+    * Java virtual machine may allocate. This is the value of the
+    * {@code -XX:MaxDirectMemorySize} option, or the maximum heap size if it was not
+    * specified, further bounded by the process memory limit.
+    */
+   public static long directMemoryLimit()
+   {
+      long result = Runtime.getRuntime().maxMemory();
+      try {
+         for(String arg : ManagementFactory.getRuntimeMXBean().getInputArguments()) {
+            if(arg.startsWith("-XX:MaxDirectMemorySize=")) {
+               long size = parseSize(arg.substring(arg.indexOf('=') + 1));
+               if(size > 0) result = size;
+            }
+         }
+      } catch(RuntimeException e) {
+         // management not available use the default
+      }
+      long limit = memoryLimit();
+      return (limit > 0) ? Math.min(result, limit) : result;
+   }
+
+
+   /**
+    * Returns the recommended number of threads with which to execute CPU bound
+    * tasks. This is the number of {@link #processors() processors} effectively
+    * available to the process.
+    */
+   public static int recommendedParallelism()
+   {
+      return processors();
+   }
+
+   /**
+    * Returns the recommended number of threads with which to execute tasks which
+    * spend the given fraction of their time blocked, for example on I/O. A CPU
+    * bound task has a blocking coefficient of {@code 0} while a task that spends
+    * nine tenths of its time waiting has a coefficient of {@code 0.9}. The result
+    * is the number of effectively available processors divided by the fraction of
+    * time each task spends computing.
+    *
+    * @param blockingCoefficient The fraction of time tasks spend blocked
+    * @throws IllegalArgumentException if the coefficient is not in the range
+    *    {@code 0 <= coefficient < 1}
+    */
+   public static int recommendedParallelism(double blockingCoefficient)
+   {
+      if(!(blockingCoefficient >= 0 && blockingCoefficient < 1))
+         throw new IllegalArgumentException("blockingCoefficient must be >= 0 and < 1");
+      return (int) Math.max(1, Math.min(Integer.MAX_VALUE, Math.round(processors() / (1 - blockingCoefficient))));
    }
 
 
@@ -311,6 +390,18 @@ public enum Platform {
 
 
 
+   private static long parseSize(String size)
+   {
+      if(Strings.isEmpty(size)) return -1;
+      int unit = "kmgt".indexOf(Character.toLowerCase(size.charAt(size.length() - 1))) + 1;
+      if(unit > 0) size = size.substring(0, size.length() - 1);
+      try {
+         return Long.parseLong(size) << (10 * unit);
+      } catch(NumberFormatException e) {
+         return -1;
+      }
+   }
+
    private static boolean contains(String key, String value)
    {
       String propValue = Strings.toLower(System.getProperty("java.vm.name"));
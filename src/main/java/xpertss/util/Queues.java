@@ -136,6 +136,40 @@ public final class Queues {
       return new PriorityQueue<>(11, comparator);
    }
 
+   /**
+    * Returns a priority queue backed by an indexed d-ary heap which supports
+    * constant time {@code contains} and logarithmic time priority updates via
+    * {@link IndexedPriorityQueue#update(Object)}.
+    */
+   public static <E> IndexedPriorityQueue<E> newIndexedPriorityQueue()
+   {
+      return new IndexedPriorityQueue<>();
+   }
+
+   public static <E> IndexedPriorityQueue<E> newIndexedPriorityQueue(Comparator<? super E> comparator)
+   {
+      return new IndexedPriorityQueue<>(comparator);
+   }
+
+   public static <E> IndexedPriorityQueue<E> newIndexedPriorityQueue(int arity, Comparator<? super E> comparator)
+   {
+      return new IndexedPriorityQueue<>(arity, comparator);
+   }
+
+   /**
+    * Returns a priority queue backed by an indexed d-ary heap whose elements are
+    * ordered by an explicit primitive {@code long} priority.
+    */
+   public static <E> LongPriorityQueue<E> newLongPriorityQueue()
+   {
+      return new LongPriorityQueue<>();
+   }
+
+   public static <E> LongPriorityQueue<E> newLongPriorityQueue(int arity)
+   {
+      return new LongPriorityQueue<>(arity);
+   }
+
    public static <E> SynchronousQueue<E> newSynchronousQueue()
    {
       return new SynchronousQueue<>();
@@ -0,0 +1,351 @@
+package xpertss.util;
+
+import xpertss.lang.CharSequences;
+import xpertss.lang.Objects;
+
+import java.util.Arrays;
+
+/**
+ * A {@link CharTrie} which compresses chains of single child nodes into a single
+ * edge in the manner of a radix (Patricia) tree.
+ * <p>
+ * Each edge is labeled with a range of characters held in a buffer shared by the
+ * entire tree rather than by a node per character. Nodes only exist where keys
+ * diverge or where a value is mapped, and each node holds an exactly sized child
+ * array. A dictionary of URLs or host names which share long prefixes and have long
+ * unique suffixes will typically require an order of magnitude fewer nodes than the
+ * equivalent {@link CharTrie}.
+ * <p>
+ * The API mirrors that of CharTrie. Tries returned from {@link #findChild(char)}
+ * may identify a position part way along an edge. As with CharTrie they are read
+ * only, only the root node accepts {@link #put(CharSequence, Object)}, and they
+ * continue to reflect keys added to the root after they were obtained. Splitting
+ * an edge moves the positions along it so such a trie re-resolves its position
+ * from its parent the first time it is used after an edge was split.
+ * <p>
+ * This class is NOT thread safe and external thread synchronization will be
+ * necessary if multiple concurrent threads read and write to it.
+ */
+public class RadixCharTrie<T> extends CharTrie<T> {
+
+   private final Tree<T> tree;
+   private final RadixCharTrie<T> parent;
+   private final char code;
+
+   private Node<T> node;
+   private int offset;
+   private int splits;
+
+
+   /**
+    * Create the root Trie node.
+    */
+   public RadixCharTrie()
+   {
+      super((char) 0, 0);
+      this.tree = new Tree<>();
+      this.parent = null;
+      this.code = 0;
+      this.node = tree.root;
+   }
+
+   private RadixCharTrie(RadixCharTrie<T> parent, char code, Node<T> node, int offset)
+   {
+      super((char) 0, 0);
+      this.tree = parent.tree;
+      this.parent = parent;
+      this.code = code;
+      this.node = node;
+      this.offset = offset;
+      this.splits = tree.splits;
+   }
+
+
+
+   @Override
+   public T find(CharSequence key)
+   {
+      CharSequences.notEmpty(key, "key must not be empty");
+      return find(key, 0, key.length());
+   }
+
+   @Override
+   public T find(CharSequence key, int start, int end)
+   {
+      checkRange(key, start, end);
+      if(start == end) throw new IllegalArgumentException("key must not be empty");
+      resolve();
+      char[] labels = tree.labels;
+      Node<T> n = node;
+      int pos = n.start + offset, limit = n.start + n.length;
+      for(int i = start; i < end; ) {
+         if(pos == limit) {
+            if((n = n.child(labels, key.charAt(i))) == null) return null;
+            pos = n.start;
+            limit = n.start + n.length;
+         }
+         if(labels[pos++] != key.charAt(i++)) return null;
+      }
+      return (pos == limit) ? n.value : null;
+   }
+
+   @Override
+   public int longestPrefixMatch(CharSequence seq, int offset)
+   {
+      checkRange(seq, offset, seq.length());
+      resolve();
+      char[] labels = tree.labels;
+      int result = 0;
+      Node<T> n = node;
+      int pos = n.start + this.offset, limit = n.start + n.length;
+      for(int i = offset; i < seq.length(); ) {
+         if(pos == limit) {
+            if((n = n.child(labels, seq.charAt(i))) == null) break;
+            pos = n.start;
+            limit = n.start + n.length;
+         }
+         if(labels[pos++] != seq.charAt(i++)) break;
+         if(pos == limit && n.value != null) result = i - offset;
+      }
+      return result;
+   }
+
+   @Override
+   public boolean isRoot()
+   {
+      return parent == null;
+   }
+
+   @Override
+   public T get()
+   {
+      resolve();
+      return (offset == node.length) ? node.value : null;
+   }
+
+   @Override
+   public CharTrie<T> findChild(char c)
+   {
+      resolve();
+      if(offset < node.length) {
+         if(tree.labels[node.start + offset] != c) return null;
+         return new RadixCharTrie<>(this, c, node, offset + 1);
+      }
+      Node<T> child = node.child(tree.labels, c);
+      return (child == null) ? null : new RadixCharTrie<>(this, c, child, 1);
+   }
+
+   @Override
+   public int size()
+   {
+      resolve();
+      return (offset < node.length) ? 1 : node.children.length;
+   }
+
+   @Override
+   char codeAt(int index)
+   {
+      resolve();
+      if(offset < node.length) {
+         if(index != 0) throw new IndexOutOfBoundsException();
+         return tree.labels[node.start + offset];
+      }
+      return tree.labels[node.children[index].start];
+   }
+
+   @Override
+   CharTrie<T> childAt(int index)
+   {
+      char c = codeAt(index);
+      if(offset < node.length) return new RadixCharTrie<>(this, c, node, offset + 1);
+      return new RadixCharTrie<>(this, c, node.children[index], 1);
+   }
+
+   /*
+    * Walks this trie's position down from its parent's should an edge have been split
+    * since it was last located. Positions are never removed so the walk always succeeds.
+    */
+   private void resolve()
+   {
+      if(parent == null || splits == tree.splits) return;
+      parent.resolve();
+      if(parent.offset < parent.node.length) {
+         node = parent.node;
+         offset = parent.offset + 1;
+      } else {
+         node = parent.node.child(tree.labels, code);
+         offset = 1;
+      }
+      splits = tree.splits;
+   }
+
+
+
+   /**
+    * Map the given value into this Trie hierarchy using the specified key.
+    * <p>
+    * Returns the previously mapped value if one existed or {@code null} if
+    * the key was not previously mapped to a value.
+    * <p>
+    * This method may only be called on the root node.
+    *
+    * @throws NullPointerException if the value is {@code null}
+    * @throws IllegalArgumentException if the key is empty
+    * @throws UnsupportedOperationException if {@code this} is not the root node
+    */
+   @Override
+   public T put(CharSequence key, T value)
+   {
+      if(!isRoot()) throw new UnsupportedOperationException();
+      CharSequences.notEmpty(key, "key must not be empty");
+      Objects.notNull(value);
+      Node<T> n = node;
+      for(int i = 0; i < key.length(); ) {
+         int idx = n.search(tree.labels, key.charAt(i));
+         if(idx < 0) {
+            Node<T> leaf = new Node<>(tree.append(key, i), key.length() - i);
+            leaf.value = value;
+            n.insert(-(idx + 1), leaf);
+            tree.nodes++;
+            return null;
+         }
+         Node<T> child = n.children[idx];
+         int common = 1;
+         while(common < child.length && i + common < key.length()
+                  && tree.labels[child.start + common] == key.charAt(i + common)) {
+            common++;
+         }
+         if(common < child.length) {
+            // split the edge at the point of divergence
+            Node<T> split = new Node<>(child.start, common);
+            child.start += common;
+            child.length -= common;
+            split.insert(0, child);
+            n.children[idx] = split;
+            tree.nodes++;
+            tree.splits++;
+            child = split;
+         }
+         n = child;
+         i += common;
+      }
+      T result = n.value;
+      n.value = value;
+      return result;
+   }
+
+
+   /**
+    * Returns the number of nodes in the entire tree, including the root.
+    */
+   public int nodeCount()
+   {
+      return tree.nodes;
+   }
+
+
+
+   @Override
+   public boolean equals(Object obj)
+   {
+      if(obj instanceof RadixCharTrie) {
+         RadixCharTrie<?> o = (RadixCharTrie<?>) obj;
+         resolve();
+         o.resolve();
+         return node == o.node && offset == o.offset;
+      }
+      return false;
+   }
+
+   @Override
+   public int hashCode()
+   {
+      resolve();
+      return Objects.hash(System.identityHashCode(node), offset);
+   }
+
+   @Override
+   public String toString()
+   {
+      resolve();
+      StringBuilder buf = new StringBuilder("RadixCharTrie(")
+         .append(tree.labels, node.start, offset).append(")");
+      T value = get();
+      if(value != null) buf.append(" {").append(value).append("}");
+      return buf.toString();
+   }
+
+
+
+
+   private static final class Tree<T> {
+
+      private final Node<T> root = new Node<>(0, 0);
+      private char[] labels = new char[64];
+      private int used;
+      private int nodes = 1;
+      private int splits;
+
+      private int append(CharSequence key, int from)
+      {
+         int start = used, length = key.length() - from;
+         if(used + length > labels.length) {
+            labels = Arrays.copyOf(labels, Math.max(used + length, labels.length << 1));
+         }
+         for(int i = from; i < key.length(); i++) labels[used++] = key.charAt(i);
+         return start;
+      }
+   }
+
+
+   @SuppressWarnings("unchecked")
+   private static final class Node<T> {
+
+      private static final Node<?>[] EMPTY = new Node<?>[0];
+
+      private Node<T>[] children = (Node<T>[]) EMPTY;
+      private int start;
+      private int length;
+      private T value;
+
+      private Node(int start, int length)
+      {
+         this.start = start;
+         this.length = length;
+      }
+
+      private Node<T> child(char[] labels, char c)
+      {
+         int idx = search(labels, c);
+         return (idx < 0) ? null : children[idx];
+      }
+
+      private int search(char[] labels, char c)
+      {
+         int low = 0;
+         int high = children.length - 1;
+         while (low <= high) {
+            int mid = (low + high) >>> 1;
+            char midVal = labels[children[mid].start];
+            if(midVal < c) {
+               low = mid + 1;
+            } else if(midVal > c) {
+               high = mid - 1;
+            } else {
+               return mid;
+            }
+         }
+         return -(low + 1);  // key not found.
+      }
+
+      private void insert(int index, Node<T> child)
+      {
+         Node<T>[] result = (Node<T>[]) new Node<?>[children.length + 1];
+         System.arraycopy(children, 0, result, 0, index);
+         System.arraycopy(children, index, result, index + 1, children.length - index);
+         result[index] = child;
+         children = result;
+      }
+   }
+
+}
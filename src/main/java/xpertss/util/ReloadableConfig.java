@@ -0,0 +1,327 @@
+package xpertss.util;
+
+import xpertss.lang.Numbers;
+import xpertss.lang.Objects;
+import xpertss.lang.Startable;
+import xpertss.lang.Stoppable;
+import xpertss.lang.SyntaxException;
+import xpertss.threads.Threads;
+
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+
+/**
+ * A ReloadableConfig supplies the current {@link Config} loaded from a properties file
+ * and reloads it whenever that file changes.
+ * <p>
+ * Once started, a background daemon thread watches the file's directory using a
+ * {@link WatchService}. Bursts of modifications, such as those made by an editor
+ * saving a file, are debounced such that the file is only reloaded once it has been
+ * quiet for the debounce period. The file is then parsed on the watcher thread and
+ * the resulting immutable Config is published atomically. Readers simply load the
+ * current snapshot from a volatile field and never block. Combined with precompiled
+ * {@link Config.Key}s reads do not allocate.
+ * <p>
+ * Listeners are notified on the watcher thread after each reload that changed the
+ * configuration with a {@link Change} identifying the properties that were added,
+ * removed, or modified. If the file cannot be read or parsed the previous snapshot
+ * is retained and the failure is reported to the watcher thread's uncaught exception
+ * handler.
+ */
+public final class ReloadableConfig implements Supplier<Config>, Startable, Stoppable {
+
+   private final List<Consumer<? super Change>> listeners = new CopyOnWriteArrayList<>();
+   private final Path file;
+   private final boolean system;
+   private final long debounce;
+
+   private volatile Config current;
+   private WatchService watcher;
+   private Thread thread;
+
+
+   private ReloadableConfig(Path file, boolean system, long debounce)
+   {
+      this.file = file;
+      this.system = system;
+      this.debounce = debounce;
+      this.current = load();
+   }
+
+
+   /**
+    * Returns the current configuration snapshot.
+    */
+   @Override
+   public Config get()
+   {
+      return current;
+   }
+
+   /**
+    * Returns the value of the given typed key in the current configuration snapshot.
+    */
+   public <T> T get(Config.Key<T> key)
+   {
+      return current.get(key);
+   }
+
+   /**
+    * Returns the file this config is loaded from.
+    */
+   public Path getFile()
+   {
+      return file;
+   }
+
+
+   /**
+    * Register a listener to be notified when the configuration changes.
+    */
+   public void addListener(Consumer<? super Change> listener)
+   {
+      listeners.add(Objects.notNull(listener, "listener"));
+   }
+
+   /**
+    * Remove a previously registered listener.
+    */
+   public void removeListener(Consumer<? super Change> listener)
+   {
+      listeners.remove(listener);
+   }
+
+
+   /**
+    * Synchronously reload the configuration on the calling thread, publish the
+    * result, and notify listeners if anything changed.
+    *
+    * @return {@code true} if the configuration changed
+    * @throws ResourceNotFoundException If the file cannot be opened
+    * @throws SyntaxException If the file could not be parsed
+    */
+   public synchronized boolean reload()
+   {
+      Config previous = current;
+      Config next = load();
+      Set<String> changed = diff(previous.toMap(), next.toMap());
+      if(changed.isEmpty()) return false;
+      current = next;
+      Change change = new Change(previous, next, changed);
+      for(Consumer<? super Change> listener : listeners) {
+         try {
+            listener.accept(change);
+         } catch(RuntimeException e) {
+            Threads.report(e);
+         }
+      }
+      return true;
+   }
+
+
+   /**
+    * Start watching the configuration file for changes.
+    *
+    * @throws IllegalStateException if already started or if the file system
+    *    watch service could not be created
+    */
+   @Override
+   public synchronized void start()
+   {
+      if(thread != null) throw new IllegalStateException("already started");
+      try {
+         Path dir = file.toAbsolutePath().getParent();
+         watcher = FileSystems.getDefault().newWatchService();
+         dir.register(watcher, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE);
+      } catch(IOException e) {
+         throw new IllegalStateException("unable to watch " + file, e);
+      }
+      thread = Threads.newThreadFactory("config-watcher", true).newThread(this::watch);
+      thread.start();
+   }
+
+   /**
+    * Stop watching the configuration file. The current snapshot remains available.
+    */
+   @Override
+   public synchronized void stop()
+   {
+      if(thread != null) {
+         try { watcher.close(); } catch(IOException e) { /* ignore */ }
+         thread.interrupt();
+         thread = null;
+         watcher = null;
+      }
+   }
+
+
+
+   private void watch()
+   {
+      WatchService service = watcher;
+      Path name = file.getFileName();
+      try {
+         while(!Thread.currentThread().isInterrupted()) {
+            if(!relevant(service.take(), name)) continue;
+            // debounce: wait until the file has been quiet for the debounce period
+            WatchKey key;
+            while((key = service.poll(debounce, TimeUnit.MILLISECONDS)) != null) {
+               relevant(key, name);
+            }
+            try {
+               reload();
+            } catch(RuntimeException e) {
+               Threads.report(e);
+            }
+         }
+      } catch(InterruptedException | ClosedWatchServiceException e) {
+         // stopped
+      }
+   }
+
+   private static boolean relevant(WatchKey key, Path name)
+   {
+      boolean result = false;
+      for(WatchEvent<?> event : key.pollEvents()) {
+         if(name.equals(event.context())) result = true;
+      }
+      key.reset();
+      return result;
+   }
+
+   private Config load()
+   {
+      try {
+         return Config.load(file.toUri().toURL(), system);
+      } catch(MalformedURLException e) {
+         throw new ResourceNotFoundException(e);
+      }
+   }
+
+   private static Set<String> diff(Map<String,String> previous, Map<String,String> next)
+   {
+      Set<String> changed = new LinkedHashSet<>();
+      for(Map.Entry<String,String> entry : next.entrySet()) {
+         if(!entry.getValue().equals(previous.get(entry.getKey()))) changed.add(entry.getKey());
+      }
+      for(String name : previous.keySet()) {
+         if(!next.containsKey(name)) changed.add(name);
+      }
+      return Collections.unmodifiableSet(changed);
+   }
+
+
+
+
+   /**
+    * Create a reloadable config for the given properties file which debounces file
+    * changes for 250 milliseconds. The file is loaded synchronously before this
+    * returns. The returned config must be started for it to watch for changes.
+    *
+    * @param file The configuration properties file to load
+    * @param system if {@code true}, overlay the configuration with system properties.
+    * @throws ResourceNotFoundException If the given file cannot be opened
+    * @throws SyntaxException If the configuration could not be parsed
+    */
+   public static ReloadableConfig create(Path file, boolean system)
+   {
+      return create(file, system, 250, TimeUnit.MILLISECONDS);
+   }
+
+   /**
+    * Create a reloadable config for the given properties file which debounces file
+    * changes for the specified period. The file is loaded synchronously before this
+    * returns. The returned config must be started for it to watch for changes.
+    *
+    * @param file The configuration properties file to load
+    * @param system if {@code true}, overlay the configuration with system properties.
+    * @param debounce the quiet period to wait after a change before reloading
+    * @param unit the unit debounce is measured in
+    * @throws ResourceNotFoundException If the given file cannot be opened
+    * @throws SyntaxException If the configuration could not be parsed
+    * @throws IllegalArgumentException If debounce is negative
+    */
+   public static ReloadableConfig create(Path file, boolean system, long debounce, TimeUnit unit)
+   {
+      Numbers.gte(0L, debounce, "debounce");
+      return new ReloadableConfig(Objects.notNull(file, "file"), system, Objects.notNull(unit, "unit").toMillis(debounce));
+   }
+
+
+
+
+   /**
+    * Describes a change between two configuration snapshots.
+    */
+   public static final class Change {
+
+      private final Config previous;
+      private final Config current;
+      private final Set<String> changed;
+
+      private Change(Config previous, Config current, Set<String> changed)
+      {
+         this.previous = previous;
+         this.current = current;
+         this.changed = changed;
+      }
+
+      /**
+       * The configuration snapshot prior to the change.
+       */
+      public Config getPrevious()
+      {
+         return previous;
+      }
+
+      /**
+       * The configuration snapshot after the change.
+       */
+      public Config getCurrent()
+      {
+         return current;
+      }
+
+      /**
+       * The names of the properties which were added, removed, or modified.
+       */
+      public Set<String> getChanged()
+      {
+         return changed;
+      }
+
+      /**
+       * Returns {@code true} if the named property was added, removed, or modified.
+       */
+      public boolean isChanged(String name)
+      {
+         return changed.contains(name);
+      }
+
+      @Override
+      public String toString()
+      {
+         return String.format("Change%s", changed);
+      }
+   }
+
+}
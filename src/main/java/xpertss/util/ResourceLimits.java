@@ -0,0 +1,228 @@
+package xpertss.util;
+
+import xpertss.lang.Objects;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * The CPU and memory limits imposed on this process by its Linux control groups,
+ * typically by a container runtime.
+ * <p>
+ * Both the unified cgroup v2 hierarchy and the cgroup v1 controller hierarchies are
+ * supported. Limits are read from the files found beneath a cgroup file system root,
+ * {@code /sys/fs/cgroup} for the {@link #current() current} process, which within a
+ * container is the container's own cgroup. Any limit that is not set or cannot be
+ * read is reported as unlimited.
+ *
+ * <pre>
+ *    cgroup v2                         cgroup v1
+ *    cpu.max                           cpu/cpu.cfs_quota_us, cpu/cpu.cfs_period_us
+ *    cpuset.cpus.effective             cpuset/cpuset.effective_cpus
+ *    memory.max                        memory/memory.limit_in_bytes
+ * </pre>
+ *
+ * @see Platform#processors()
+ * @see Platform#memoryLimit()
+ */
+public final class ResourceLimits {
+
+   /**
+    * Resource limits which impose no constraints.
+    */
+   public static final ResourceLimits UNLIMITED = new ResourceLimits(0, -1, -1, -1);
+
+   // v1 reports an unlimited memory limit as a page aligned Long.MAX_VALUE
+   private static final long UNLIMITED_MEMORY = 1L << 60;
+
+
+   private final int version;
+   private final double cpuQuota;
+   private final int cpuSetSize;
+   private final long memoryLimit;
+
+   private ResourceLimits(int version, double cpuQuota, int cpuSetSize, long memoryLimit)
+   {
+      this.version = version;
+      this.cpuQuota = cpuQuota;
+      this.cpuSetSize = cpuSetSize;
+      this.memoryLimit = memoryLimit;
+   }
+
+
+   /**
+    * Returns the cgroup version the limits were read from, {@code 1} or {@code 2},
+    * or {@code 0} if no control groups were found.
+    */
+   public int getVersion()
+   {
+      return version;
+   }
+
+   /**
+    * Returns the CPU bandwidth quota as a number of processors, which may be
+    * fractional, or {@code -1} if CPU bandwidth is unlimited.
+    */
+   public double getCpuQuota()
+   {
+      return cpuQuota;
+   }
+
+   /**
+    * Returns the number of processors this process may be scheduled on or
+    * {@code -1} if it is not constrained to a set of processors.
+    */
+   public int getCpuSetSize()
+   {
+      return cpuSetSize;
+   }
+
+   /**
+    * Returns the memory limit in bytes or {@code -1} if memory is unlimited.
+    */
+   public long getMemoryLimit()
+   {
+      return memoryLimit;
+   }
+
+   /**
+    * Returns {@code true} if any CPU or memory limit is imposed.
+    */
+   public boolean isLimited()
+   {
+      return cpuQuota > 0 || cpuSetSize > 0 || memoryLimit > 0;
+   }
+
+   /**
+    * Returns the number of processors which may effectively be used given the
+    * specified number of processors in the host. This is the smallest of the
+    * host processors, the size of the CPU set, and the CPU quota rounded up.
+    */
+   public int processors(int available)
+   {
+      int result = available;
+      if(cpuSetSize > 0) result = Math.min(result, cpuSetSize);
+      if(cpuQuota > 0) result = Math.min(result, (int) Math.ceil(cpuQuota));
+      return Math.max(1, result);
+   }
+
+
+   @Override
+   public String toString()
+   {
+      return String.format("ResourceLimits(v%d, cpu quota %s, cpu set %d, memory %d)",
+                              version, cpuQuota, cpuSetSize, memoryLimit);
+   }
+
+
+
+
+   /**
+    * Returns the resource limits of the current process. The limits are read once
+    * on first use. On platforms other than Linux this returns {@link #UNLIMITED}.
+    */
+   public static ResourceLimits current()
+   {
+      return Current.LIMITS;
+   }
+
+   /**
+    * Read the resource limits from the cgroup file system mounted at the given root.
+    *
+    * @param root The cgroup file system root, normally {@code /sys/fs/cgroup}
+    * @throws NullPointerException if root is {@code null}
+    */
+   public static ResourceLimits read(Path root)
+   {
+      Objects.notNull(root, "root");
+      if(Files.exists(root.resolve("cgroup.controllers"))) {
+         double quota = -1;
+         String[] cpu = split(read(root, "cpu.max"));
+         if(cpu.length == 2 && !"max".equals(cpu[0])) {
+            quota = quota(parse(cpu[0]), parse(cpu[1]));
+         }
+         return new ResourceLimits(2, quota,
+                                    count(read(root, "cpuset.cpus.effective")),
+                                    memory(read(root, "memory.max")));
+      } else if(Files.isDirectory(root.resolve("cpu")) || Files.isDirectory(root.resolve("memory"))) {
+         double quota = quota(parse(read(root, "cpu/cpu.cfs_quota_us")),
+                              parse(read(root, "cpu/cpu.cfs_period_us")));
+         return new ResourceLimits(1, quota,
+                                    count(read(root, "cpuset/cpuset.effective_cpus")),
+                                    memory(read(root, "memory/memory.limit_in_bytes")));
+      }
+      return UNLIMITED;
+   }
+
+
+
+   private static String read(Path root, String file)
+   {
+      try {
+         List<String> lines = Files.readAllLines(root.resolve(file), StandardCharsets.US_ASCII);
+         return lines.isEmpty() ? null : lines.get(0).trim();
+      } catch(IOException | RuntimeException e) {
+         return null;
+      }
+   }
+
+   private static String[] split(String value)
+   {
+      return (value == null) ? new String[0] : value.split("\\s+");
+   }
+
+   private static long parse(String value)
+   {
+      try {
+         return (value == null) ? -1 : Long.parseLong(value);
+      } catch(NumberFormatException e) {
+         return -1;
+      }
+   }
+
+   private static double quota(long quota, long period)
+   {
+      return (quota > 0 && period > 0) ? (double) quota / period : -1;
+   }
+
+   private static long memory(String value)
+   {
+      long limit = parse(value);
+      return (limit > 0 && limit < UNLIMITED_MEMORY) ? limit : -1;
+   }
+
+   // parses cpu lists of the form 0-3,6,8-9
+   private static int count(String value)
+   {
+      if(value == null || value.isEmpty()) return -1;
+      int count = 0;
+      try {
+         for(String range : value.split(",")) {
+            int dash = range.indexOf('-');
+            if(dash < 0) {
+               Integer.parseInt(range.trim());
+               count++;
+            } else {
+               count += Integer.parseInt(range.substring(dash + 1).trim())
+                           - Integer.parseInt(range.substring(0, dash).trim()) + 1;
+            }
+         }
+      } catch(NumberFormatException e) {
+         return -1;
+      }
+      return (count > 0) ? count : -1;
+   }
+
+
+   // the cgroup limits of this process, read once when first requested
+   private static final class Current {
+      private static final ResourceLimits LIMITS = (Platform.current() == Platform.Linux)
+                                                      ? read(Paths.get("/sys/fs/cgroup"))
+                                                      : UNLIMITED;
+   }
+
+}
@@ -4,8 +4,14 @@ import xpertss.lang.Classes;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.lang.ref.WeakReference;
 import java.net.URL;
 import java.util.Enumeration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 
 /**
@@ -21,10 +27,22 @@ import java.util.Enumeration;
  * do this you will likely need to use the context class loader. This utility aims to
  * eliminate the need for you to care or worry which class loader to use by solving
  * that for you.
- *
+ * <p>
+ * The results of {@link #getResource(String)}, {@link #getResourceAsStream(String)},
+ * and {@link #loadClass(String)} are cached per class loader such that repeated probes
+ * do not walk the class loader hierarchy. Only the most recently probed names which
+ * found nothing are remembered, so probing arbitrary names cannot grow the cache
+ * without limit. Class loaders are weakly referenced by the cache and their entries are discarded
+ * once they are garbage collected. Applications which add resources or classes to a
+ * class loader at runtime should call {@link #invalidate(ClassLoader)} or {@link
+ * #invalidate()} afterwards.
  */
 public abstract class ResourceLoader {
 
+   private static final int MISS_CACHE_SIZE = 256;
+
+   private static final Map<ClassLoader,Entries> cache = new WeakHashMap<>();
+
 
    /**
     * @see ClassLoader#loadClass(String)
@@ -33,7 +51,20 @@ public abstract class ResourceLoader {
       throws ClassNotFoundException
    {
       final ClassLoader loader = Classes.resolveClassLoader();
-      return Class.forName(name, false, loader);
+      Entries entries = entries(loader);
+      if(entries.missingClasses.contains(name)) throw new ClassNotFoundException(name);
+      ClassRef cached = entries.classes.get(name);
+      Class<?> result = (cached == null) ? null : cached.get();
+      if(result == null) {
+         try {
+            result = Class.forName(name, false, loader);
+         } catch(ClassNotFoundException e) {
+            entries.missingClasses.add(name);
+            throw e;
+         }
+         entries.classes.put(name, new ClassRef(result));
+      }
+      return result;
    }
 
    /**
@@ -42,8 +73,7 @@ public abstract class ResourceLoader {
    public static URL getResource(final String name)
    {
       final ClassLoader loader = Classes.resolveClassLoader();
-      if (loader != null) return loader.getResource(name);
-      return ClassLoader.getSystemResource(name);
+      return resource(loader, name);
    }
 
    /**
@@ -52,8 +82,12 @@ public abstract class ResourceLoader {
    public static InputStream getResourceAsStream(final String name)
    {
       final ClassLoader loader = Classes.resolveClassLoader();
-      if (loader != null)return loader.getResourceAsStream(name);
-      return ClassLoader.getSystemResourceAsStream(name);
+      URL url = resource(loader, name);
+      try {
+         return (url == null) ? null : url.openStream();
+      } catch(IOException e) {
+         return null;
+      }
    }
 
    /**
@@ -68,6 +102,88 @@ public abstract class ResourceLoader {
    }
 
 
+
+   /**
+    * Discard the cached resources and classes of the given class loader. A
+    * {@code null} loader identifies the system resources.
+    */
+   public static void invalidate(ClassLoader loader)
+   {
+      synchronized(cache) {
+         cache.remove(loader);
+      }
+   }
+
+   /**
+    * Discard all cached resources and classes.
+    */
+   public static void invalidate()
+   {
+      synchronized(cache) {
+         cache.clear();
+      }
+   }
+
+
+
+   private static URL resource(ClassLoader loader, String name)
+   {
+      Entries entries = entries(loader);
+      URL url = entries.resources.get(name);
+      if(url != null || entries.missingResources.contains(name)) return url;
+      url = (loader != null) ? loader.getResource(name) : ClassLoader.getSystemResource(name);
+      if(url != null) entries.resources.put(name, url);
+      else entries.missingResources.add(name);
+      return url;
+   }
+
+   private static Entries entries(ClassLoader loader)
+   {
+      synchronized(cache) {
+         Entries entries = cache.get(loader);
+         if(entries == null) cache.put(loader, entries = new Entries());
+         return entries;
+      }
+   }
+
+
+   private static final class Entries {
+      private final Map<String,URL> resources = new ConcurrentHashMap<>();
+      private final Map<String,ClassRef> classes = new ConcurrentHashMap<>();
+      private final Misses missingResources = new Misses();
+      private final Misses missingClasses = new Misses();
+   }
+
+   // The most recently probed names which were not found, least recently used first
+   private static final class Misses {
+
+      private final Map<String,Boolean> names = new LinkedHashMap<>(16, 0.75f, true);
+
+      private synchronized boolean contains(String name)
+      {
+         return names.get(name) != null;
+      }
+
+      private synchronized void add(String name)
+      {
+         names.put(name, Boolean.TRUE);
+         if(names.size() > MISS_CACHE_SIZE) {
+            Iterator<String> eldest = names.keySet().iterator();
+            eldest.next();
+            eldest.remove();
+         }
+      }
+   }
+
+   // Classes are weakly referenced as they strongly reference their loader
+   private static final class ClassRef extends WeakReference<Class<?>> {
+      private ClassRef(Class<?> referent)
+      {
+         super(referent);
+      }
+   }
+
+
    private ResourceLoader()
    {
    }
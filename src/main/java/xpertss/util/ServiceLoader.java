@@ -1,11 +1,16 @@
 package xpertss.util;
 
+import xpertss.lang.Objects;
+
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.net.URL;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 
 /**
  * A simple service-provider loading facility.
@@ -47,9 +52,14 @@ import java.util.*;
  * configuration file; note that this is not necessarily the class loader from which the
  * file was actually loaded.
  * <p>
- * Providers are located and instantiated on construction. A service loader maintains a
- * cache of all providers for a given service. The cache can be cleared and reloaded via
- * the reload method.
+ * Providers are located on construction but each provider's class is only loaded and
+ * instantiated when it is first reached by an iterator or looked up by name using
+ * {@link #getProvider(String)}. Providers which cannot be loaded or instantiated are
+ * silently skipped. A service loader maintains a cache of the providers it has
+ * instantiated, while the provider class names read from the provider-configuration
+ * files are cached per class loader and shared by every service loader created for
+ * the same service. The caches can be cleared and reloaded via the reload method.
+ * Providers may be loaded in parallel ahead of use via {@link #preload(Executor)}.
  * <p>
  * Service loaders always execute in the security context of the caller. Trusted system
  * code should typically invoke the methods in this class, and the methods of the iterators
@@ -64,21 +74,24 @@ public class ServiceLoader<S> implements Iterable<S> {
 
    private static final String PREFIX = "META-INF/services/";
 
+   // Provider class names keyed by class loader and then by service name
+   private static final Map<ClassLoader,Map<String,List<String>>> index = new WeakHashMap<>();
+
    // The class or interface representing the service being loaded
    private Class<S> service;
 
    // The class loader used to locate, load, and instantiate providers
    private ClassLoader loader;
 
-   // Cached providers, in instantiation order
-   private Set<S> providers;
+   // Lazily instantiated providers, in configuration order
+   private List<Provider> providers;
 
 
    private ServiceLoader(Class<S> svc, ClassLoader cl)
    {
       service = svc;
       loader = cl;
-      reload();
+      providers = providers(names(false));
    }
 
 
@@ -86,56 +99,54 @@ public class ServiceLoader<S> implements Iterable<S> {
     * Clear this loader's provider cache and reload it.
     * <p>
     * This method is intended for use in situations in which new providers can be
-    * installed into a running Java virtual machine.
+    * installed into a running Java virtual machine. The provider-configuration files
+    * are read again and the shared index of provider class names is updated.
     */
    public void reload()
    {
-      Set<S> list = new LinkedHashSet<S>();
-      String fullName = PREFIX + service.getName();
-      try {
-         Enumeration<URL> configs = loader.getResources(fullName);
-         Set<Class<?>> classes = new HashSet<Class<?>>();
-         while(configs.hasMoreElements()) {
-            try {
-               InputStream in = configs.nextElement().openStream();
-               try {
-                  for(String clsName : parse(in)) {
-                     try {
-                        Class<?> clazz = loader.loadClass(clsName);
-                        if(!classes.contains(clazz) && service.isAssignableFrom(clazz)) {
-                           list.add(service.cast(clazz.newInstance()));
-                           classes.add(clazz);
-                        }
-                     } catch(Exception e) { }
-                  }
-               } finally {
-                  if(in != null) in.close();
-               }
-            } catch(Exception iex) { }
-         }
-      } catch(Exception ex) { }
-      providers = Collections.unmodifiableSet(list);
+      providers = providers(names(true));
    }
-   
-   
-   private List<String> parse(InputStream in)
-      throws IOException
+
+
+   /**
+    * Returns the provider whose class has the given fully-qualified binary name
+    * loading and instantiating it if necessary. No other providers are loaded.
+    *
+    * @param className The binary name of the provider class
+    * @return The provider or {@code null} if no such provider is configured or
+    *    if it could not be loaded
+    */
+   public S getProvider(String className)
    {
-      List<String> classes = new ArrayList<String>();
-      BufferedReader br = new BufferedReader(new InputStreamReader(in, "utf-8"));
-      String line;
-      while((line = br.readLine()) != null) {
-         if(line.contains("#")) {
-            line = line.substring(0, line.indexOf("#")).trim();
-         }
-         if(line.length() > 0) classes.add(line);
+      Objects.notNull(className, "className");
+      for(Provider provider : providers) {
+         if(provider.name.equals(className)) return provider.get();
       }
-      return classes;
+      return null;
+   }
+
+   /**
+    * Load and instantiate all of this loader's providers concurrently using the
+    * given executor, returning once all of them have been attempted. Subsequent
+    * iteration will not need to load any classes.
+    *
+    * @param executor The executor to load providers with
+    */
+   public void preload(Executor executor)
+   {
+      Objects.notNull(executor, "executor");
+      List<Provider> current = providers;
+      CompletableFuture<?>[] futures = new CompletableFuture<?>[current.size()];
+      for(int i = 0; i < futures.length; i++) {
+         futures[i] = CompletableFuture.runAsync(current.get(i)::get, executor);
+      }
+      CompletableFuture.allOf(futures).join();
    }
-   
+
 
    /**
-    * An iterator over the loaded service providers.
+    * An iterator over the loaded service providers. Each provider is loaded and
+    * instantiated when the iterator first reaches it.
     * <p>
     * The iterator returned by this method does not support removal. Invoking its
     * {@link java.util.Iterator#remove() remove} method will cause an {@link
@@ -145,7 +156,26 @@ public class ServiceLoader<S> implements Iterable<S> {
     */
    public Iterator<S> iterator()
    {
-      return providers.iterator();
+      final Iterator<Provider> it = providers.iterator();
+      return new Iterator<S>() {
+         private S next;
+
+         @Override
+         public boolean hasNext()
+         {
+            while(next == null && it.hasNext()) next = it.next().get();
+            return next != null;
+         }
+
+         @Override
+         public S next()
+         {
+            if(!hasNext()) throw new NoSuchElementException();
+            S result = next;
+            next = null;
+            return result;
+         }
+      };
    }
 
    /**
@@ -158,6 +188,86 @@ public class ServiceLoader<S> implements Iterable<S> {
       return "ServiceLoader[" + service.getName() + "]";
    }
 
+
+
+   private List<Provider> providers(List<String> names)
+   {
+      List<Provider> result = new ArrayList<Provider>(names.size());
+      for(String name : names) result.add(new Provider(name));
+      return result;
+   }
+
+   private List<String> names(boolean refresh)
+   {
+      Map<String,List<String>> services;
+      synchronized(index) {
+         services = index.get(loader);
+         if(services == null) index.put(loader, services = new ConcurrentHashMap<>());
+      }
+      if(refresh) services.remove(service.getName());
+      return services.computeIfAbsent(service.getName(), this::scan);
+   }
+
+   private List<String> scan(String serviceName)
+   {
+      Set<String> names = new LinkedHashSet<String>();
+      try {
+         Enumeration<URL> configs = loader.getResources(PREFIX + serviceName);
+         while(configs.hasMoreElements()) {
+            try(InputStream in = configs.nextElement().openStream()) {
+               names.addAll(parse(in));
+            } catch(Exception iex) { }
+         }
+      } catch(Exception ex) { }
+      return Collections.unmodifiableList(new ArrayList<String>(names));
+   }
+
+   private static List<String> parse(InputStream in)
+      throws IOException
+   {
+      List<String> classes = new ArrayList<String>();
+      BufferedReader br = new BufferedReader(new InputStreamReader(in, "utf-8"));
+      String line;
+      while((line = br.readLine()) != null) {
+         if(line.contains("#")) {
+            line = line.substring(0, line.indexOf("#"));
+         }
+         line = line.trim();
+         if(line.length() > 0) classes.add(line);
+      }
+      return classes;
+   }
+
+
+   private final class Provider {
+
+      private final String name;
+      private S instance;
+      private boolean failed;
+
+      private Provider(String name)
+      {
+         this.name = name;
+      }
+
+      private synchronized S get()
+      {
+         if(instance == null && !failed) {
+            try {
+               Class<?> clazz = loader.loadClass(name);
+               if(service.isAssignableFrom(clazz)) {
+                  instance = service.cast(clazz.newInstance());
+               } else {
+                  failed = true;
+               }
+            } catch(Exception e) {
+               failed = true;
+            }
+         }
+         return instance;
+      }
+   }
+
    
    
    
@@ -0,0 +1,109 @@
+package xpertss.io;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.text.ParsePosition;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class AsciiTest {
+
+   @Test
+   public void testParseInt()
+   {
+      String[] inputs = { "0", "-0", "+7", "-2147483648", "2147483647", "0000012" };
+      for(String input : inputs) {
+         byte[] data = bytes(input);
+         assertEquals(Integer.parseInt(input), Ascii.parseInt(data, 0, data.length), input);
+         assertEquals(Integer.parseInt(input), Ascii.parseInt(ByteBuffer.wrap(data), 0, data.length), input);
+      }
+      String[] invalid = { "", "-", "+", "2147483648", "-2147483649", "12a", " 1", "1 ", "--1" };
+      for(String input : invalid) {
+         byte[] data = bytes(input);
+         assertThrows(NumberFormatException.class, () -> Ascii.parseInt(data, 0, data.length), input);
+      }
+      assertThrows(IndexOutOfBoundsException.class, () -> Ascii.parseInt(bytes("12"), 1, 2));
+   }
+
+   @Test
+   public void testParseLong()
+   {
+      String[] inputs = { "-9223372036854775808", "9223372036854775807", "1234567890123" };
+      for(String input : inputs) {
+         byte[] data = bytes("[" + input + "]");
+         assertEquals(Long.parseLong(input), Ascii.parseLong(data, 1, data.length - 2), input);
+      }
+      byte[] data = bytes("9223372036854775808");
+      assertThrows(NumberFormatException.class, () -> Ascii.parseLong(data, 0, data.length));
+   }
+
+   @Test
+   public void testTokenize()
+   {
+      byte[] data = bytes("12,-34,5.5e3,x,99999999999");
+      ParsePosition pos = new ParsePosition(0);
+      assertEquals(12, Ascii.parseInt(data, 0, data.length, pos));
+      assertEquals(2, pos.getIndex());
+      assertEquals(-1, pos.getErrorIndex());
+      assertEquals(-34L, Ascii.parseLong(data, 3, data.length - 3, pos));
+      assertEquals(6, pos.getIndex());
+      assertEquals(5500.0, Ascii.parseDouble(data, 7, data.length - 7, pos), 0.0);
+      assertEquals(12, pos.getIndex());
+      assertEquals(0, Ascii.parseInt(data, 13, data.length - 13, pos));
+      assertEquals(13, pos.getIndex());
+      assertEquals(13, pos.getErrorIndex());
+      assertEquals(0, Ascii.parseInt(data, 15, data.length - 15, pos));
+      assertEquals(15, pos.getIndex());
+      assertEquals(24, pos.getErrorIndex());
+      assertEquals(99999999999L, Ascii.parseLong(data, 15, data.length - 15, pos));
+      assertEquals(data.length, pos.getIndex());
+
+      ByteBuffer buf = ByteBuffer.wrap(data);
+      buf.position(5);
+      assertEquals(-34, Ascii.parseInt(buf, 3, 3, pos));
+      assertEquals(6, pos.getIndex());
+      assertEquals(5, buf.position());
+   }
+
+   @Test
+   public void testParseDouble()
+   {
+      String[] inputs = { "0", "-0", "0.0", "1", "-1.5", ".5", "5.", "3.141592653589793", "1e10", "1E-10",
+                          "2.2250738585072014E-308", "4.9e-324", "1.7976931348623157e308", "1e309", "1e-400",
+                          "123456789012345678901234567890", "0.1", "0.30000000000000004", "9007199254740993",
+                          "+12.5e+2", "1e0000000000000000000001" };
+      for(String input : inputs) {
+         byte[] data = bytes(input);
+         assertEquals(Double.parseDouble(input), Ascii.parseDouble(data, 0, data.length), input);
+         assertEquals(Double.parseDouble(input), Ascii.parseDouble(ByteBuffer.wrap(data), 0, data.length), input);
+      }
+      String[] invalid = { "", "-", ".", "-.", "e5", "1e", "1e+", "1.2.3", "NaN", "Infinity", "1d" };
+      for(String input : invalid) {
+         byte[] data = bytes(input);
+         assertThrows(NumberFormatException.class, () -> Ascii.parseDouble(data, 0, data.length), input);
+      }
+   }
+
+   @Test
+   public void testParseDoubleRandom()
+   {
+      Random random = new Random(11);
+      for(int i = 0; i < 100000; i++) {
+         double value = (i % 2 == 0) ? Double.longBitsToDouble(random.nextLong()) : random.nextDouble() * 1000;
+         if(Double.isNaN(value) || Double.isInfinite(value)) continue;
+         String text = (i % 3 == 0) ? String.format("%.6f", value) : Double.toString(value);
+         byte[] data = bytes(text);
+         assertEquals(Double.parseDouble(text), Ascii.parseDouble(data, 0, data.length), text);
+      }
+   }
+
+   private static byte[] bytes(String str)
+   {
+      return str.getBytes(StandardCharsets.US_ASCII);
+   }
+
+}
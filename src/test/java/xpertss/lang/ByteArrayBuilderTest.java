@@ -0,0 +1,37 @@
+package xpertss.lang;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class ByteArrayBuilderTest {
+
+   @Test
+   public void testAppendBuffers()
+   {
+      ByteBuffer direct = ByteBuffer.allocateDirect(4);
+      direct.put(new byte[] { 3, 4, 5, 6 }).flip();
+      ByteArrayBuilder builder = new ByteArrayBuilder(2).append((byte) 1, (byte) 2).append(direct);
+      assertEquals(6, builder.size());
+      assertEquals(0, direct.remaining());
+      assertArrayEquals(new byte[] { 1, 2, 3, 4, 5, 6 }, builder.toArray());
+   }
+
+   @Test
+   public void testExactCapacity()
+   {
+      ByteArrayBuilder builder = new ByteArrayBuilder(4).ensureCapacity(2);
+      assertEquals(4, builder.capacity());
+      builder.append(new byte[] { 1, 2, 3, 4 });
+      byte[] result = builder.toArray();
+      assertSame(result, builder.toArray());
+      builder.append((byte) 5);
+      assertArrayEquals(new byte[] { 1, 2, 3, 4 }, result);
+      assertArrayEquals(new byte[] { 1, 2, 3, 4, 5 }, builder.toArray());
+   }
+
+}
@@ -151,6 +151,12 @@ public class BytesTest {
    {
       assertEquals((byte)10, Bytes.parse("10", (byte) -1));
       assertEquals((byte)10, Bytes.parse(new StringBuilder("10"), (byte) -1));
+      assertEquals(Byte.MIN_VALUE, Bytes.parse("-128", (byte) -1));
+      assertEquals(Byte.MAX_VALUE, Bytes.parse("127", (byte) -1));
+      assertEquals((byte) -1, Bytes.parse("128", (byte) -1));
+      assertEquals((byte) -1, Bytes.parse("-129", (byte) -1));
+      assertEquals((byte) 100, Bytes.parse("[100]", 1, 4, (byte) -1));
+      assertEquals((byte) -1, Bytes.parse("1111111111", 0, 10, 2, (byte) -1));
    }
 
 }
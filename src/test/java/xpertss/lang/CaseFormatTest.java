@@ -2,8 +2,13 @@ package xpertss.lang;
 
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
+import java.util.function.Function;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static xpertss.lang.CaseFormat.*;
 
 /**
@@ -184,4 +189,43 @@ public class CaseFormatTest {
 
 
 
+   @Test
+   public void testEmptyAndRepeatedSeparators()
+   {
+      assertEquals("", LOWER_HYPHEN.to(LOWER_CAMEL, ""));
+      assertEquals("", LOWER_HYPHEN.to(UPPER_UNDERSCORE, "--"));
+      assertEquals("a__b", LOWER_HYPHEN.to(LOWER_UNDERSCORE, "a--b"));
+      assertEquals("aB", LOWER_HYPHEN.to(LOWER_CAMEL, "-a--b-"));
+      assertEquals("A", LOWER_UNDERSCORE.to(UPPER_CAMEL, "_a__"));
+      assertEquals("a_bc", UPPER_CAMEL.to(LOWER_UNDERSCORE, "ABc"));
+      assertEquals("h_t_t_p_server", UPPER_CAMEL.to(LOWER_UNDERSCORE, "HTTPServer"));
+   }
+
+   @Test
+   public void testToAppendable() throws IOException
+   {
+      StringBuilder out = new StringBuilder("id: ");
+      assertSame(out, UPPER_UNDERSCORE.to(LOWER_CAMEL, "HELLO_KITTY", out));
+      assertEquals("id: helloKitty", out.toString());
+      assertEquals("hello-kitty", UPPER_CAMEL.to(LOWER_HYPHEN, new StringBuilder("HelloKitty"), new StringBuilder()).toString());
+      assertEquals("HelloKitty", UPPER_CAMEL.to(UPPER_CAMEL, "HelloKitty", new StringBuilder()).toString());
+   }
+
+   @Test
+   public void testConverterTo()
+   {
+      Function<String,String> converter = LOWER_CAMEL.converterTo(UPPER_UNDERSCORE, 4);
+      for(int i = 0; i < 3; i++) {
+         assertEquals("HELLO_KITTY", converter.apply("helloKitty"));
+         assertEquals("FIRST_NAME", converter.apply("firstName"));
+         assertEquals("LAST_NAME", converter.apply("lastName"));
+         assertEquals("ID", converter.apply("id"));
+         assertEquals("ZIP_CODE_PLUS4", converter.apply("zipCodePlus4"));
+      }
+      String first = converter.apply("firstName");
+      assertSame(first, converter.apply("firstName"));
+      assertThrows(IllegalArgumentException.class, () -> LOWER_CAMEL.converterTo(UPPER_UNDERSCORE, 0));
+      assertThrows(NullPointerException.class, () -> LOWER_CAMEL.converterTo(null, 16));
+   }
+
 }
\ No newline at end of file
@@ -2,6 +2,9 @@ package xpertss.lang;
 
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
+import java.util.Random;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class CharMatcherTest {
@@ -285,4 +288,156 @@ class CharMatcherTest {
         assertEquals("Crs", CharMatcher.inRange('h', 'i').removeFrom("Chris"));
     }
 
+
+    @Test
+    public void testPrecomputedMatches()
+    {
+        CharMatcher[] matchers = {
+                CharMatcher.none(), CharMatcher.any(), CharMatcher.is('x'), CharMatcher.isNot('x'),
+                CharMatcher.anyOf("ab"), CharMatcher.noneOf("ab"), CharMatcher.anyOf("aeiou"),
+                CharMatcher.noneOf("aeiou"), CharMatcher.whitespace(), CharMatcher.whitespace().negate(),
+                CharMatcher.breakingWhitespace(),
+                CharMatcher.javaIsoControl(), CharMatcher.ascii().negate(),
+                CharMatcher.inRange('a', 'z').or(CharMatcher.inRange('\u4e00', '\u9fff')),
+                CharMatcher.inRange('\u0100', '\ufffd').negate(),
+                CharMatcher.forPredicate(Character::isLetterOrDigit),
+                CharMatcher.forPredicate(Character::isLetterOrDigit).negate()
+        };
+        for (CharMatcher matcher : matchers) {
+            CharMatcher precomputed = matcher.precomputed();
+            CharMatcher negated = precomputed.negate();
+            for (int c = 0; c <= Character.MAX_VALUE; c++) {
+                assertEquals(matcher.matches((char) c), precomputed.matches((char) c), matcher + " " + c);
+                assertEquals(!matcher.matches((char) c), negated.matches((char) c), matcher + " " + c);
+            }
+        }
+    }
+
+    @Test
+    public void testPrecomputedReturnsFastMatchers()
+    {
+        CharMatcher any = CharMatcher.any();
+        assertSame(any, any.precomputed());
+        CharMatcher range = CharMatcher.inRange('a', 'z');
+        assertSame(range, range.precomputed());
+        CharMatcher precomputed = CharMatcher.anyOf("aeiou").precomputed();
+        assertSame(precomputed, precomputed.precomputed());
+        assertEquals("CharMatcher.anyOf(\"\\u0061\\u0065\\u0069\\u006F\\u0075\").precomputed()", precomputed.toString());
+        assertSame(CharMatcher.none(), CharMatcher.forPredicate(c -> false).precomputed());
+    }
+
+    @Test
+    public void testPrecomputedTextProcessing()
+    {
+        String alphabet = " \t\r\nab,;xyz\u00a0\u3000\u00e9\u4e2d";
+        Random random = new Random(47);
+        CharMatcher[] matchers = {
+                CharMatcher.whitespace(), CharMatcher.anyOf(" ,;"),
+                CharMatcher.forPredicate(Character::isLetter), CharMatcher.noneOf("xyz")
+        };
+        for (int n = 0; n < 500; n++) {
+            int length = random.nextInt(40);
+            StringBuilder buf = new StringBuilder(length);
+            boolean ascii = random.nextBoolean();
+            for (int i = 0; i < length; i++) {
+                buf.append(alphabet.charAt(random.nextInt(ascii ? 10 : alphabet.length())));
+            }
+            String text = buf.toString();
+            for (CharMatcher matcher : matchers) {
+                CharMatcher precomputed = matcher.precomputed();
+                int start = random.nextInt(length + 1);
+                assertEquals(matcher.indexIn(text), precomputed.indexIn(text), text);
+                assertEquals(matcher.indexIn(text, start), precomputed.indexIn(text, start), text);
+                assertEquals(matcher.lastIndexIn(text), precomputed.lastIndexIn(text), text);
+                assertEquals(matcher.countIn(text), precomputed.countIn(text), text);
+                assertEquals(matcher.matchesAllOf(text), precomputed.matchesAllOf(text), text);
+                assertEquals(matcher.matchesNoneOf(text), precomputed.matchesNoneOf(text), text);
+                assertEquals(matcher.trimFrom(text), precomputed.trimFrom(text), text);
+                assertEquals(matcher.trimLeadingFrom(text), precomputed.trimLeadingFrom(text), text);
+                assertEquals(matcher.trimTrailingFrom(text), precomputed.trimTrailingFrom(text), text);
+                assertEquals(matcher.removeFrom(text), precomputed.removeFrom(text), text);
+                assertEquals(matcher.collapseFrom(text, '-'), precomputed.collapseFrom(text, '-'), text);
+            }
+        }
+    }
+
+    @Test
+    public void testAppendingTextProcessing() throws IOException
+    {
+        String alphabet = "  \t\nab,;xyz\u0000";
+        Random random = new Random(48);
+        CharMatcher[] matchers = {
+                CharMatcher.whitespace(), CharMatcher.anyOf(" ,;"), CharMatcher.is('a'), CharMatcher.none()
+        };
+        for (int n = 0; n < 500; n++) {
+            int length = random.nextInt(30);
+            StringBuilder buf = new StringBuilder(length);
+            for (int i = 0; i < length; i++) {
+                buf.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            String text = buf.toString();
+            for (CharMatcher matcher : matchers) {
+                assertEquals(matcher.removeFrom(text), matcher.removeFrom(text, new StringBuilder()).toString());
+                assertEquals(matcher.retainFrom(text), matcher.retainFrom(text, new StringBuilder()).toString());
+                assertEquals(matcher.replaceFrom(text, '_'), matcher.replaceFrom(text, '_', new StringBuilder()).toString());
+                assertEquals(matcher.replaceFrom(text, "<>"), matcher.replaceFrom(text, "<>", new StringBuilder()).toString());
+                assertEquals(matcher.collapseFrom(text, '_'), matcher.collapseFrom(text, '_', new StringBuilder()).toString());
+                assertEquals(matcher.trimAndCollapseFrom(text, '_'),
+                        matcher.trimAndCollapseFrom(text, '_', new StringBuilder()).toString());
+                assertEquals(matcher.trimAndCollapseFrom(CharMatcher.is('\u0000').removeFrom(text), '_'),
+                        matcher.trimAndCollapseFrom(text, '_', CharMatcher.is('\u0000'), new StringBuilder()).toString());
+            }
+        }
+    }
+
+    @Test
+    public void testAppendingTextProcessingAppends() throws IOException
+    {
+        StringBuilder out = new StringBuilder("> ");
+        assertSame(out, CharMatcher.is('a').removeFrom("bazaar", out));
+        assertEquals("> bzr", out.toString());
+        assertEquals("a b", CharMatcher.is(' ').trimAndCollapseFrom(" a -- b- ", ' ', CharMatcher.is('-'), new StringBuilder()).toString());
+        assertThrows(NullPointerException.class, () -> CharMatcher.is(' ').trimAndCollapseFrom("a", ' ', null, new StringBuilder()));
+    }
+
+    @Test
+    public void testInPlaceTextProcessing()
+    {
+        String alphabet = "  \t\nab,;xyz\u0000";
+        Random random = new Random(148);
+        CharMatcher[] matchers = {
+                CharMatcher.whitespace(), CharMatcher.anyOf(" ,;"), CharMatcher.is('a'), CharMatcher.none()
+        };
+        for (int n = 0; n < 500; n++) {
+            int length = random.nextInt(30);
+            char[] chars = new char[length + 4];
+            for (int i = 0; i < chars.length; i++) {
+                chars[i] = alphabet.charAt(random.nextInt(alphabet.length()));
+            }
+            String text = new String(chars, 2, length);
+            for (CharMatcher matcher : matchers) {
+                char[] copy = chars.clone();
+                assertEquals(matcher.removeFrom(text), new String(copy, 2, matcher.removeFrom(copy, 2, length)));
+                copy = chars.clone();
+                assertEquals(matcher.retainFrom(text), new String(copy, 2, matcher.retainFrom(copy, 2, length)));
+                copy = chars.clone();
+                assertEquals(matcher.countIn(text), matcher.replaceFrom(copy, 2, length, '_'));
+                assertEquals(matcher.replaceFrom(text, '_'), new String(copy, 2, length));
+                copy = chars.clone();
+                assertEquals(matcher.collapseFrom(text, '_'), new String(copy, 2, matcher.collapseFrom(copy, 2, length, '_')));
+                copy = chars.clone();
+                assertEquals(matcher.trimAndCollapseFrom(text, '_'),
+                        new String(copy, 2, matcher.trimAndCollapseFrom(copy, 2, length, '_')));
+                copy = chars.clone();
+                CharMatcher removed = CharMatcher.is('\u0000');
+                assertEquals(matcher.trimAndCollapseFrom(removed.removeFrom(text), '_'),
+                        new String(copy, 2, matcher.trimAndCollapseFrom(copy, 2, length, '_', removed)));
+                assertEquals(chars[0], copy[0]);
+                assertEquals(chars[chars.length - 1], copy[chars.length - 1]);
+            }
+        }
+        assertThrows(IndexOutOfBoundsException.class, () -> CharMatcher.any().removeFrom(new char[4], 2, 3));
+        assertThrows(IndexOutOfBoundsException.class, () -> CharMatcher.any().collapseFrom(new char[4], -1, 2, ' '));
+    }
+
 }
\ No newline at end of file
@@ -8,7 +8,17 @@ package xpertss.lang;
 
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class DoublesTest {
@@ -63,6 +73,161 @@ public class DoublesTest {
    {
       assertTrue(10D == Doubles.parse("10", -1D));
       assertTrue(10D == Doubles.parse(new StringBuilder("10"), -1D));
+      assertTrue(-1D == Doubles.parse(null, -1D));
+      assertTrue(-1D == Doubles.parse("ten", -1D));
+      assertTrue(1.5D == Doubles.parse(" 1.5d ", -1D));
+      assertTrue(1024D == Doubles.parse("0x1p10", -1D));
+   }
+
+   @Test
+   public void testParseRange()
+   {
+      String str = "x=-12.5e-1;y=.25;z=1.;w=1e;v=NaN;u=-Infinity";
+      assertEquals(-1.25, Doubles.parse(str, 2, 10, 0D), 0D);
+      assertEquals(0.25, Doubles.parse(str, 13, 16, 0D), 0D);
+      assertEquals(1D, Doubles.parse(str, 19, 21, 0D), 0D);
+      assertEquals(-1D, Doubles.parse(str, 24, 26, -1D), 0D);
+      assertTrue(Double.isNaN(Doubles.parse(str, 29, 32, 0D)));
+      assertEquals(Double.NEGATIVE_INFINITY, Doubles.parse(str, 35, str.length(), 0D), 0D);
+      assertEquals(-1D, Doubles.parse(str, 0, 0, -1D), 0D);
+      assertEquals(-1D, Doubles.parse(str, 2, 3, -1D), 0D);
+      assertEquals(-1D, Doubles.parse(".", 0, 1, -1D), 0D);
+      assertEquals(-1D, Doubles.parse("1e5x", 0, 4, -1D), 0D);
+      assertEquals(Double.doubleToRawLongBits(-0D), Double.doubleToRawLongBits(Doubles.parse("-0.000", 0, 6, 1D)));
+      assertThrows(IndexOutOfBoundsException.class, () -> Doubles.parse(str, -1, 2, 0D));
+      assertThrows(IndexOutOfBoundsException.class, () -> Doubles.parse(str, 2, 1, 0D));
+      assertThrows(IndexOutOfBoundsException.class, () -> Doubles.parse(str, 0, str.length() + 1, 0D));
+   }
+
+   @Test
+   public void testParseCorrectlyRounded()
+   {
+      String[] cases = {
+         "2.2250738585072011e-308", "2.2250738585072012e-308", "2.2250738585072014e-308",
+         "4.9e-324", "2.4703282292062327e-324", "2.4703282292062328e-324", "1e-400",
+         "1.7976931348623157e308", "1.7976931348623158e308", "1.7976931348623159e308", "1e400",
+         "9007199254740993", "9007199254740992.000000000000000000001", "123456789012345678901234567890",
+         "0.1", "0.30000000000000004", "3.14159265358979323846264338327950288419716939937510",
+         "7.3177701707893310e+15", "1.00000000000000011102230246251565404236316680908203125",
+         "1.00000000000000011102230246251565404236316680908203124",
+         "1.00000000000000011102230246251565404236316680908203126",
+         "1448997445238699", "1e23", "8.589973e9", "0.000000000000000000000000000000000001",
+      };
+      for(String str : cases) {
+         assertEquals(Double.doubleToRawLongBits(Double.parseDouble(str)),
+                        Double.doubleToRawLongBits(Doubles.parse(str, 0, str.length(), 0D)), str);
+      }
+
+      Random random = new Random(42);
+      StringBuilder buf = new StringBuilder();
+      for(int i = 0; i < 200000; i++) {
+         buf.setLength(0);
+         if(random.nextBoolean()) buf.append('-');
+         int digits = 1 + random.nextInt(random.nextBoolean() ? 17 : 30);
+         int point = random.nextInt(digits + 1);
+         for(int j = 0; j < digits; j++) {
+            if(j == point) buf.append('.');
+            buf.append((char) ('0' + random.nextInt(10)));
+         }
+         buf.append('e').append(random.nextInt(700) - 350);
+         String str = buf.toString();
+         assertEquals(Double.doubleToRawLongBits(Double.parseDouble(str)),
+                        Double.doubleToRawLongBits(Doubles.parse(buf, 0, buf.length(), 0D)), str);
+      }
+   }
+
+   @Test
+   public void testFormat() throws IOException
+   {
+      assertEquals("0.0", format(0D));
+      assertEquals("-0.0", format(-0D));
+      assertEquals("NaN", format(Double.NaN));
+      assertEquals("Infinity", format(Double.POSITIVE_INFINITY));
+      assertEquals("-Infinity", format(Double.NEGATIVE_INFINITY));
+      assertEquals("1.0", format(1D));
+      assertEquals("-100.0", format(-100D));
+      assertEquals("1234567.0", format(1234567D));
+      assertEquals("1.0E7", format(1e7));
+      assertEquals("1.2345678E7", format(12345678D));
+      assertEquals("0.001", format(0.001));
+      assertEquals("1.0E-4", format(0.0001));
+      assertEquals("0.1", format(0.1));
+      assertEquals("0.30000000000000004", format(0.1 + 0.2));
+      assertEquals("2.0E23", format(2e23));
+      assertEquals("1.0E23", format(1e23));
+      assertEquals("9.007199254740991E15", format(9007199254740991D));
+      assertEquals("4.9E-324", format(Double.MIN_VALUE));
+      assertEquals("2.2250738585072014E-308", format(Double.MIN_NORMAL));
+      assertEquals("1.7976931348623157E308", format(Double.MAX_VALUE));
+      assertEquals("x=1.5", Doubles.format(1.5, new StringBuilder("x=")).toString());
+      assertThrows(NullPointerException.class, () -> Doubles.format(1D, null));
+   }
+
+   @Test
+   public void testFormatRoundTrip() throws IOException
+   {
+      Random random = new Random(7);
+      StringBuilder buf = new StringBuilder();
+      for(int i = 0; i < 500000; i++) {
+         double value;
+         switch(i % 4) {
+            case 0: value = Double.longBitsToDouble(random.nextLong()); break;
+            case 1: value = random.nextInt(1000000) / 1000D; break;
+            case 2: value = random.nextDouble() * Math.pow(10, random.nextInt(40) - 20); break;
+            default: value = Double.longBitsToDouble(random.nextInt(1 << 20));
+         }
+         if(Double.isNaN(value)) continue;
+         buf.setLength(0);
+         String str = Doubles.format(value, buf).toString();
+         assertEquals(Double.doubleToRawLongBits(value), Double.doubleToRawLongBits(Double.parseDouble(str)), str);
+         assertEquals(Double.doubleToRawLongBits(value), Double.doubleToRawLongBits(Doubles.parse(buf, 0, buf.length(), 0D)), str);
+         if(i % 8 < 4) assertShortest(value, str);
+      }
+   }
+
+   private static String format(double value) throws IOException
+   {
+      return Doubles.format(value, new StringBuilder()).toString();
+   }
+
+   // no decimal with one digit less, but at least two, lies within the value's rounding interval
+   private static void assertShortest(double value, String str)
+   {
+      if(Double.isInfinite(value) || value == 0) return;
+      BigDecimal decimal = new BigDecimal(str).stripTrailingZeros();
+      int precision = decimal.precision();
+      if(precision > 2) {
+         assertFalse(value == decimal.round(new MathContext(precision - 1, RoundingMode.DOWN)).doubleValue(), str);
+         assertFalse(value == decimal.round(new MathContext(precision - 1, RoundingMode.UP)).doubleValue(), str);
+      }
+   }
+
+   @Test
+   public void testPercentile()
+   {
+      double[] set = { 2.5, Double.NaN, -0.0, 0.0, -1.5, 7 };
+      assertEquals(-1.5, Doubles.percentile(set, 0), 0D);
+      assertEquals(Double.doubleToRawLongBits(-0.0), Double.doubleToRawLongBits(Doubles.percentile(set, 20)));
+      assertEquals(Double.doubleToRawLongBits(0.0), Double.doubleToRawLongBits(Doubles.percentile(set, 50)));
+      assertTrue(Double.isNaN(Doubles.percentile(set, 100)));
+      assertEquals(1.25, Doubles.median(2.5, 0, -1, 7), 0D);
+      assertEquals(7, Doubles.percentileInPlace(set, 80), 0D);
+
+      Random random = new Random(11);
+      double[] samples = new double[10001];
+      for(int i = 0; i < samples.length; i++) samples[i] = random.nextInt(100) / 4D;
+      double[] sorted = samples.clone();
+      Arrays.sort(sorted);
+      assertEquals(sorted[5000], Doubles.median(samples), 0D);
+      assertEquals(sorted[9899], Doubles.percentile(samples, 99), 0D);
+   }
+
+   @Test
+   public void testMode()
+   {
+      assertEquals(0, Doubles.mode(1, 2, 3).length);
+      assertArrayEquals(new double[] { 0, 2.5 }, Doubles.mode(2.5, -0.0, 1, 0.0, 2.5));
+      assertArrayEquals(new double[] { 1, Double.NaN }, Doubles.mode(Double.NaN, 1, 0.0 / 0.0, 1));
    }
 
 }
@@ -7,10 +7,19 @@ package xpertss.lang;
 
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.lang.reflect.Field;
 import java.util.EnumSet;
+import java.util.function.Function;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -44,4 +53,113 @@ public class EnumsTest {
       });
    }
 
+
+   @Test
+   public void testValueOf()
+   {
+      assertEquals(Thread.State.NEW, Enums.valueOf(Thread.State.class, "NEW"));
+      assertNull(Enums.valueOf(Thread.State.class, "new"));
+      assertNull(Enums.valueOf(Thread.State.class, "OLD"));
+      assertNull(Enums.valueOf(Thread.State.class, null));
+      assertEquals(Thread.State.BLOCKED, Enums.valueOf(Thread.State.class, "OLD", Thread.State.BLOCKED));
+      assertEquals(Thread.State.WAITING, Enums.valueOf(Thread.State.class, "WAITING", Thread.State.BLOCKED));
+      for(Thread.State state : Thread.State.values()) {
+         assertSame(state, Enums.valueOf(Thread.State.class, state.name()));
+      }
+      assertThrows(NullPointerException.class, ()-> Enums.valueOf(null, "NEW"));
+   }
+
+   @Test
+   public void testValueOfIgnoreCase()
+   {
+      assertEquals(Thread.State.TIMED_WAITING, Enums.valueOfIgnoreCase(Thread.State.class, "timed_waiting"));
+      assertEquals(Thread.State.TIMED_WAITING, Enums.valueOfIgnoreCase(Thread.State.class, "Timed_Waiting"));
+      assertNull(Enums.valueOfIgnoreCase(Thread.State.class, "timed-waiting"));
+      assertEquals(Thread.State.NEW, Enums.valueOfIgnoreCase(Thread.State.class, "old", Thread.State.NEW));
+      assertEquals(Protocol.HTTP_2, Enums.valueOfIgnoreCase(Protocol.class, "http_2"));
+      assertNull(Enums.valueOfIgnoreCase(Protocol.class, "h2"));
+   }
+
+   @Test
+   public void testForAlias()
+   {
+      assertEquals(Protocol.HTTP_1_1, Enums.forAlias(Protocol.class, "http/1.1"));
+      assertEquals(Protocol.HTTP_1_1, Enums.forAlias(Protocol.class, "HTTP1"));
+      // names take precedence over aliases
+      assertEquals(Protocol.HTTP_1_1, Enums.forAlias(Protocol.class, "http_1_1"));
+      assertEquals(Protocol.HTTP_2, Enums.forAlias(Protocol.class, "H2"));
+      assertEquals(Protocol.SPDY, Enums.forAlias(Protocol.class, "spdy"));
+      assertNull(Enums.forAlias(Protocol.class, "h3"));
+   }
+
+   @Test
+   public void testFunctions()
+   {
+      Function<String,Thread.State> exact = Enums.valueOf(Thread.State.class);
+      assertEquals(Thread.State.RUNNABLE, exact.apply("RUNNABLE"));
+      assertNull(exact.apply("runnable"));
+      Function<String,Thread.State> ignoreCase = Enums.valueOfIgnoreCase(Thread.State.class);
+      assertEquals(Thread.State.RUNNABLE, ignoreCase.apply("runnable"));
+      assertEquals(Protocol.HTTP_2, Enums.forAlias(Protocol.class).apply("h2"));
+
+      assertEquals(exact, Enums.valueOf(Thread.State.class));
+      assertNotEquals(exact, ignoreCase);
+      assertEquals("Enums.valueOfIgnoreCase(class java.lang.Thread$State)", ignoreCase.toString());
+   }
+
+   @Test
+   public void testSerializedFunctions() throws Exception
+   {
+      Function<String,Thread.State> ignoreCase = roundTrip(Enums.valueOfIgnoreCase(Thread.State.class));
+      assertEquals(Enums.valueOfIgnoreCase(Thread.State.class), ignoreCase);
+      assertEquals(Thread.State.RUNNABLE, ignoreCase.apply("runnable"));
+
+      // functions serialized before lookup tables existed have no table
+      Function<String,Thread.State> legacy = Enums.valueOf(Thread.State.class);
+      Field table = legacy.getClass().getDeclaredField("table");
+      table.setAccessible(true);
+      table.set(legacy, null);
+      Function<String,Thread.State> exact = roundTrip(legacy);
+      assertEquals(Enums.valueOf(Thread.State.class), exact);
+      assertEquals(Thread.State.RUNNABLE, exact.apply("RUNNABLE"));
+      assertNull(exact.apply("runnable"));
+   }
+
+   @SuppressWarnings("unchecked")
+   private static <T> T roundTrip(T obj) throws Exception
+   {
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      try(ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+         out.writeObject(obj);
+      }
+      try(ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+         return (T) in.readObject();
+      }
+   }
+
+   @Test
+   public void testLookup()
+   {
+      Function<String,Protocol> lookup = Enums.lookup(Protocol.class, p -> p.code);
+      assertEquals(Protocol.HTTP_1_1, lookup.apply("11"));
+      assertEquals(Protocol.HTTP_2, lookup.apply("20"));
+      assertNull(lookup.apply("HTTP_2"));
+      assertNull(lookup.apply(null));
+      assertThrows(NullPointerException.class, ()-> Enums.lookup(Protocol.class, null));
+   }
+
+
+   private enum Protocol {
+      @Enums.Alias({ "http/1.1", "http1" }) HTTP_1_1("11"),
+      @Enums.Alias("h2") HTTP_2("20"),
+      @Enums.Alias("http_1_1") SPDY(null);
+
+      private final String code;
+
+      Protocol(String code)
+      {
+         this.code = code;
+      }
+   }
+
 }
@@ -8,6 +8,13 @@ package xpertss.lang;
 
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -184,7 +191,112 @@ public class FloatsTest {
    {
       assertTrue(10F == Floats.parse("10", -1F));
       assertTrue(10F == Floats.parse(new StringBuilder("10"), -1F));
+      assertTrue(-1F == Floats.parse(null, -1F));
+      assertTrue(-1F == Floats.parse("ten", -1F));
+      assertTrue(1.5F == Floats.parse(" 1.5f ", -1F));
+   }
+
+   @Test
+   public void testParseRange()
+   {
+      String str = "[3.25,-1e-2,x]";
+      assertEquals(3.25F, Floats.parse(str, 1, 5, 0F), 0F);
+      assertEquals(-0.01F, Floats.parse(str, 6, 11, 0F), 0F);
+      assertEquals(-1F, Floats.parse(str, 12, 13, -1F), 0F);
+      assertEquals(Float.POSITIVE_INFINITY, Floats.parse("+Infinity", 0, 9, 0F), 0F);
+      assertEquals(Float.POSITIVE_INFINITY, Floats.parse("3.5e38", 0, 6, 0F), 0F);
+      assertThrows(IndexOutOfBoundsException.class, () -> Floats.parse(str, 5, 1, 0F));
+   }
+
+   @Test
+   public void testParseCorrectlyRounded()
+   {
+      String[] cases = {
+         "1.00000017881393432617187499", "1.000000178813934326171875", "1.00000017881393432617187501",
+         "1.4e-45", "7.006492321624085e-46", "7.006492321624086e-46", "3.4028235e38", "3.4028236e38",
+         "1.1754942e-38", "16777217", "0.1", "3.4028235677973366e38", "8.589973e9",
+      };
+      for(String str : cases) {
+         assertEquals(Float.floatToRawIntBits(Float.parseFloat(str)),
+                        Float.floatToRawIntBits(Floats.parse(str, 0, str.length(), 0F)), str);
+      }
+
+      Random random = new Random(42);
+      StringBuilder buf = new StringBuilder();
+      for(int i = 0; i < 200000; i++) {
+         buf.setLength(0);
+         int digits = 1 + random.nextInt(random.nextBoolean() ? 9 : 25);
+         for(int j = 0; j < digits; j++) buf.append((char) ('0' + random.nextInt(10)));
+         buf.append('e').append(random.nextInt(100) - 60);
+         String str = buf.toString();
+         assertEquals(Float.floatToRawIntBits(Float.parseFloat(str)),
+                        Float.floatToRawIntBits(Floats.parse(buf, 0, buf.length(), 0F)), str);
+      }
+   }
+
+   @Test
+   public void testFormat() throws IOException
+   {
+      assertEquals("0.0", format(0F));
+      assertEquals("-0.0", format(-0F));
+      assertEquals("NaN", format(Float.NaN));
+      assertEquals("-Infinity", format(Float.NEGATIVE_INFINITY));
+      assertEquals("0.1", format(0.1F));
+      assertEquals("1.0E7", format(1e7F));
+      assertEquals("8.0E-4", format(8e-4F));
+      assertEquals("1.4E-45", format(Float.MIN_VALUE));
+      assertEquals("1.1754944E-38", format(Float.MIN_NORMAL));
+      assertEquals("3.4028235E38", format(Float.MAX_VALUE));
+      assertEquals("1.6777216E7", format(16777216F));
+      assertEquals("2.0E-44", format(2.0E-44F));
    }
 
+   /*
+    * Covers every exponent with a stride through the significands, along with the
+    * first and last significands of each binade.
+    */
+   @Test
+   public void testFormatRoundTrip() throws IOException
+   {
+      StringBuilder buf = new StringBuilder();
+      for(long bits = 0; bits < 0x7f800000L; bits += ((bits & 0x7fffff) < 64 || (bits & 0x7fffff) > 0x7fffc0) ? 1 : 1021) {
+         for(int sign = 0; sign < 2; sign++) {
+            float value = Float.intBitsToFloat((int) bits | (sign << 31));
+            buf.setLength(0);
+            String str = Floats.format(value, buf).toString();
+            assertEquals(Float.floatToRawIntBits(value), Float.floatToRawIntBits(Float.parseFloat(str)), str);
+            assertEquals(Float.floatToRawIntBits(value), Float.floatToRawIntBits(Floats.parse(buf, 0, buf.length(), 0F)), str);
+            if(bits % 7 == 0) assertShortest(value, str);
+         }
+      }
+   }
+
+   private static String format(float value) throws IOException
+   {
+      return Floats.format(value, new StringBuilder()).toString();
+   }
+
+   // no decimal with one digit less, but at least two, lies within the value's rounding interval
+   private static void assertShortest(float value, String str)
+   {
+      if(value == 0) return;
+      BigDecimal decimal = new BigDecimal(str).stripTrailingZeros();
+      int precision = decimal.precision();
+      if(precision > 2) {
+         assertFalse(value == decimal.round(new MathContext(precision - 1, RoundingMode.DOWN)).floatValue(), str);
+         assertFalse(value == decimal.round(new MathContext(precision - 1, RoundingMode.UP)).floatValue(), str);
+      }
+   }
+
+   @Test
+   public void testPercentile()
+   {
+      float[] set = { 2.5F, Float.NaN, 0F, -1.5F, 7F };
+      assertEquals(-1.5F, Floats.percentile(set, 0), 0F);
+      assertEquals(2.5F, Floats.percentile(set, 60), 0F);
+      assertTrue(Float.isNaN(Floats.percentileInPlace(set, 100)));
+      assertEquals(1.25F, Floats.median(2.5F, 0F, -1F, 7F), 0F);
+      assertArrayEquals(new float[] { -1F, 7F }, Floats.mode(7F, -1F, 3F, 7F, -1F));
+   }
 
 }
@@ -0,0 +1,76 @@
+package xpertss.lang;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.IntBuffer;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class IntArrayBuilderTest {
+
+   @Test
+   public void testAppendGrows()
+   {
+      IntArrayBuilder builder = new IntArrayBuilder(0);
+      assertTrue(builder.isEmpty());
+      for(int i = 0; i < 1000; i++) builder.append(i);
+      assertEquals(1000, builder.size());
+      assertTrue(builder.capacity() >= 1000);
+      assertEquals(999, builder.get(999));
+      int[] result = builder.toArray();
+      assertEquals(1000, result.length);
+      for(int i = 0; i < result.length; i++) assertEquals(i, result[i]);
+   }
+
+   @Test
+   public void testBulkOperations()
+   {
+      IntArrayBuilder builder = new IntArrayBuilder();
+      builder.append(3, 4).append(new int[] { 9, 5, 6, 9 }, 1, 2).prepend(1, 2);
+      builder.insert(6, 7, 8).insert(0).append(IntBuffer.wrap(new int[] { 9, 10 }));
+      assertArrayEquals(new int[] { 1, 2, 3, 4, 5, 6, 7, 8, 9, 10 }, builder.toArray());
+      assertEquals("[1, 2, 3, 4, 5, 6, 7, 8, 9, 10]", builder.toString());
+
+      IntBuffer buf = IntBuffer.wrap(new int[] { 1, 2, 3 });
+      buf.position(1);
+      assertArrayEquals(new int[] { 2, 3 }, new IntArrayBuilder().append(buf).toArray());
+      assertEquals(0, buf.remaining());
+   }
+
+   @Test
+   public void testZeroCopyToArray()
+   {
+      IntArrayBuilder builder = new IntArrayBuilder(3).append(1, 2, 3);
+      int[] first = builder.toArray();
+      assertSame(first, builder.toArray());
+
+      // the returned array is never modified by the builder
+      assertEquals(1, builder.set(0, 10));
+      assertArrayEquals(new int[] { 1, 2, 3 }, first);
+      assertArrayEquals(new int[] { 10, 2, 3 }, builder.toArray());
+      builder.clear().append(7);
+      assertArrayEquals(new int[] { 1, 2, 3 }, first);
+
+      IntArrayBuilder partial = new IntArrayBuilder(8).append(1);
+      assertNotSame(partial.toArray(), partial.toArray());
+   }
+
+   @Test
+   public void testBounds()
+   {
+      IntArrayBuilder builder = new IntArrayBuilder().append(1, 2);
+      assertThrows(IndexOutOfBoundsException.class, () -> builder.get(2));
+      assertThrows(IndexOutOfBoundsException.class, () -> builder.set(-1, 0));
+      assertThrows(IndexOutOfBoundsException.class, () -> builder.insert(3, 0));
+      assertThrows(IndexOutOfBoundsException.class, () -> builder.append(new int[2], 1, 2));
+      assertThrows(NullPointerException.class, () -> builder.append((int[]) null));
+      assertThrows(IllegalArgumentException.class, () -> new IntArrayBuilder(-1));
+      assertEquals(2, builder.size());
+   }
+
+}
@@ -4,8 +4,11 @@ package xpertss.lang;
 import org.junit.jupiter.api.Test;
 
 import java.util.Arrays;
+import java.util.Random;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -199,5 +202,119 @@ public class IntegersTest {
       assertEquals(10, Integers.parse(new StringBuilder("10"), -1));
    }
 
+   @Test
+   public void testParseMatchesParseInt()
+   {
+      String[] inputs = { "0", "-0", "+7", "-2147483648", "2147483647", "2147483648", "-2147483649",
+                          "99999999999", "", "-", "+", "12a", " 1", "1 ", "--1", "+-1", "\u0661\u0662", "0000012" };
+      for(String input : inputs) {
+         int expected;
+         try { expected = Integer.parseInt(input); } catch(NumberFormatException e) { expected = -1; }
+         assertEquals(expected, Integers.parse(input, -1), input);
+      }
+      assertEquals(255, Integers.parse("ff", 16, -1));
+      assertEquals(-1, Integers.parse("ff", 10, -1));
+      assertEquals(-1, Integers.parse("1", 37, -1));
+      assertEquals(-1, Integers.parse(null, -1));
+   }
+
+   @Test
+   public void testParseRange()
+   {
+      String line = "id=1234;len=-56;bad=12x";
+      assertEquals(1234, Integers.parse(line, 3, 7, -1));
+      assertEquals(-56, Integers.parse(line, 12, 15, -1));
+      assertEquals(-1, Integers.parse(line, 20, 23, -1));
+      assertEquals(-1, Integers.parse(line, 3, 3, -1));
+      assertEquals(0x1234, Integers.parse(line, 3, 7, 16, -1));
+      assertEquals(-1, Integers.parse(null, 0, 4, -1));
+      assertThrows(IndexOutOfBoundsException.class, () -> Integers.parse(line, 20, 30, -1));
+      assertThrows(IndexOutOfBoundsException.class, () -> Integers.parse(line, 5, 4, -1));
+   }
+
+   @Test
+   public void testMedianInPlace()
+   {
+      int[] set = { 5, 1, 4, 2, 3, 6 };
+      assertEquals(3, Integers.medianInPlace(set));
+      Arrays.sort(set);
+      assertArrayEquals(new int[] { 1, 2, 3, 4, 5, 6 }, set);
+      assertEquals(-2, Integers.median(-1, -4, -2, -3));
+      assertEquals(Integer.MAX_VALUE, Integers.median(Integer.MAX_VALUE, Integer.MAX_VALUE));
+   }
+
+   @Test
+   public void testPercentile()
+   {
+      int[] set = { 15, 20, 35, 40, 50 };
+      assertEquals(15, Integers.percentile(set, 0));
+      assertEquals(15, Integers.percentile(set, 5));
+      assertEquals(20, Integers.percentile(set, 30));
+      assertEquals(20, Integers.percentile(set, 40));
+      assertEquals(35, Integers.percentile(set, 50));
+      assertEquals(50, Integers.percentile(set, 100));
+      assertArrayEquals(new int[] { 15, 20, 35, 40, 50 }, set);
+      assertThrows(IllegalArgumentException.class, () -> Integers.percentile(set, 100.5));
+      assertThrows(IllegalArgumentException.class, () -> Integers.percentile(set, Double.NaN));
+      assertThrows(IllegalArgumentException.class, () -> Integers.percentile(new int[0], 50));
+      assertThrows(NullPointerException.class, () -> Integers.percentileInPlace(null, 50));
+   }
+
+   @Test
+   public void testSelectionMatchesSort()
+   {
+      Random random = new Random(3);
+      for(int round = 0; round < 200; round++) {
+         int length = 1 + random.nextInt(round < 100 ? 40 : 5000);
+         int bound = (round % 3 == 0) ? 4 : Integer.MAX_VALUE;
+         int[] set = new int[length];
+         for(int i = 0; i < length; i++) set[i] = random.nextInt(bound) - bound / 2;
+         if(round % 5 == 0) Arrays.sort(set);
+         int[] sorted = set.clone();
+         Arrays.sort(sorted);
+         for(double p : new double[] { 0, 1, 25, 50, 90, 99, 99.9, 100 }) {
+            int rank = Math.max(0, (int) Math.ceil(p * length / 100) - 1);
+            assertEquals(sorted[rank], Integers.percentileInPlace(set.clone(), p));
+         }
+         int mid = (length - 1) / 2;
+         int expected = (length % 2 != 0) ? sorted[mid] : (int) (((double) sorted[mid] + sorted[mid + 1]) / 2);
+         assertEquals(expected, Integers.medianInPlace(set));
+      }
+   }
+
+   @Test
+   public void testModeLarge()
+   {
+      int[] items = new int[100000];
+      for(int i = 0; i < items.length; i++) items[i] = i;
+      assertEquals(0, Integers.mode(items).length);
+      items[7] = 99999;
+      items[500] = -3;
+      items[501] = -3;
+      assertArrayEquals(new int[] { -3, 99999 }, Integers.mode(items));
+   }
+
+   @Test
+   public void testSortVariants()
+   {
+      assertNull(Integers.sortRadix(null));
+      assertNull(Integers.sortParallel(null));
+      assertNull(Integers.sortAuto(null));
+      Random random = new Random(5);
+      for(int length : new int[] { 0, 1, 2, 17, 600, 5000, 300000 }) {
+         for(int bound : new int[] { 16, 1 << 20, Integer.MAX_VALUE }) {
+            int[] input = new int[length];
+            for(int i = 0; i < length; i++) input[i] = random.nextInt(bound) - (bound == 16 ? 0 : bound / 2);
+            int[] expected = input.clone();
+            Arrays.sort(expected);
+            assertArrayEquals(expected, Integers.sortRadix(input.clone()));
+            assertArrayEquals(expected, Integers.sortParallel(input.clone()));
+            assertArrayEquals(expected, Integers.sortAuto(input.clone()));
+         }
+      }
+      int[] extremes = { Integer.MAX_VALUE, 0, Integer.MIN_VALUE, -1, 1, Integer.MIN_VALUE + 1 };
+      assertArrayEquals(new int[] { Integer.MIN_VALUE, Integer.MIN_VALUE + 1, -1, 0, 1, Integer.MAX_VALUE },
+                        Integers.sortRadix(extremes));
+   }
 
 }
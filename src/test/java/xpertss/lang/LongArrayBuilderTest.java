@@ -0,0 +1,80 @@
+package xpertss.lang;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.LongBuffer;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LongArrayBuilderTest {
+
+   @Test
+   public void testAppendGrows()
+   {
+      LongArrayBuilder builder = new LongArrayBuilder(0);
+      assertTrue(builder.isEmpty());
+      for(long i = 0; i < 1000; i++) builder.append(i << 32);
+      assertEquals(1000, builder.size());
+      assertTrue(builder.capacity() >= 1000);
+      assertEquals(999L << 32, builder.get(999));
+      long[] result = builder.toArray();
+      assertEquals(1000, result.length);
+      for(int i = 0; i < result.length; i++) assertEquals((long) i << 32, result[i]);
+   }
+
+   @Test
+   public void testBulkOperations()
+   {
+      LongArrayBuilder builder = new LongArrayBuilder();
+      builder.append(3, 4).append(new long[] { 9, 5, 6, 9 }, 1, 2).prepend(1, 2);
+      builder.insert(6, 7, 8).insert(0).append(LongBuffer.wrap(new long[] { 9, Long.MAX_VALUE }));
+      assertArrayEquals(new long[] { 1, 2, 3, 4, 5, 6, 7, 8, 9, Long.MAX_VALUE }, builder.toArray());
+      assertEquals("[1, 2, 3, 4, 5, 6, 7, 8, 9, 9223372036854775807]", builder.toString());
+
+      LongBuffer buf = LongBuffer.wrap(new long[] { 1, 2, 3 });
+      buf.position(1);
+      assertArrayEquals(new long[] { 2, 3 }, new LongArrayBuilder().append(buf).toArray());
+      assertEquals(0, buf.remaining());
+   }
+
+   @Test
+   public void testZeroCopyToArray()
+   {
+      LongArrayBuilder builder = new LongArrayBuilder(3).append(1, 2, 3);
+      long[] first = builder.toArray();
+      assertSame(first, builder.toArray());
+
+      // the returned array is never modified by the builder
+      assertEquals(1, builder.set(0, 10));
+      assertArrayEquals(new long[] { 1, 2, 3 }, first);
+      long[] second = builder.toArray();
+      assertArrayEquals(new long[] { 10, 2, 3 }, second);
+      builder.insert(1, 20);
+      assertArrayEquals(new long[] { 10, 2, 3 }, second);
+      assertArrayEquals(new long[] { 10, 20, 2, 3 }, builder.toArray());
+      builder.clear().append(7);
+      assertArrayEquals(new long[] { 1, 2, 3 }, first);
+
+      LongArrayBuilder partial = new LongArrayBuilder(8).append(1);
+      assertNotSame(partial.toArray(), partial.toArray());
+   }
+
+   @Test
+   public void testBounds()
+   {
+      LongArrayBuilder builder = new LongArrayBuilder().append(1, 2);
+      assertThrows(IndexOutOfBoundsException.class, () -> builder.get(2));
+      assertThrows(IndexOutOfBoundsException.class, () -> builder.set(-1, 0));
+      assertThrows(IndexOutOfBoundsException.class, () -> builder.insert(3, 0));
+      assertThrows(IndexOutOfBoundsException.class, () -> builder.append(new long[2], 1, 2));
+      assertThrows(NullPointerException.class, () -> builder.append((long[]) null));
+      assertThrows(IllegalArgumentException.class, () -> new LongArrayBuilder(-1));
+      assertEquals(2, builder.size());
+   }
+
+}
@@ -9,9 +9,13 @@ package xpertss.lang;
 import org.junit.jupiter.api.Test;
 
 import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.Random;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -216,4 +220,61 @@ public class LongsTest {
       assertEquals(10L, Longs.parse(new StringBuilder("10"), -1L));
    }
 
+   @Test
+   public void testParseMatchesParseLong()
+   {
+      String[] inputs = { "0", "-9223372036854775808", "9223372036854775807", "9223372036854775808",
+                          "-9223372036854775809", "", "-", "+42", "4 2", "1e3", "12345678901234567890" };
+      for(String input : inputs) {
+         long expected;
+         try { expected = Long.parseLong(input); } catch(NumberFormatException e) { expected = -1; }
+         assertEquals(expected, Longs.parse(input, -1L), input);
+      }
+      assertEquals(Long.MIN_VALUE, Longs.parse("-8000000000000000", 16, -1L));
+      assertEquals(-1L, Longs.parse("8000000000000000", 16, -1L));
+      assertEquals(1234567890123L, Longs.parse("ts:1234567890123;", 3, 16, -1L));
+      assertThrows(IndexOutOfBoundsException.class, () -> Longs.parse("12", -1, 2, -1L));
+   }
+
+   @Test
+   public void testPercentile()
+   {
+      long[] set = { 50, Long.MAX_VALUE, 15, 40, Long.MIN_VALUE, 35, 20 };
+      assertEquals(Long.MIN_VALUE, Longs.percentile(set, 0));
+      assertEquals(20, Longs.percentile(set, 40));
+      assertEquals(35, Longs.median(set));
+      assertEquals(Long.MAX_VALUE, Longs.percentileInPlace(set, 100));
+      assertEquals(Long.MAX_VALUE, set[6]);
+      assertEquals(17, Longs.median(15, 10, 20, 40));
+      assertEquals(Long.MAX_VALUE, Longs.median(Long.MAX_VALUE, Long.MAX_VALUE));
+      assertEquals(Long.MAX_VALUE - 1, Longs.median(Long.MAX_VALUE, Long.MAX_VALUE - 1));
+      assertEquals(Long.MIN_VALUE, Longs.median(Long.MIN_VALUE, Long.MIN_VALUE));
+      assertEquals(Long.MIN_VALUE + 1, Longs.median(Long.MIN_VALUE, Long.MIN_VALUE + 1));
+      assertEquals(0, Longs.median(Long.MIN_VALUE, Long.MAX_VALUE));
+      assertEquals(-1, Longs.median(Long.MIN_VALUE, Long.MAX_VALUE - 1));
+      assertEquals((1L << 53) + 2, Longs.median((1L << 53) + 1, (1L << 53) + 3));
+      assertEquals((1L << 53) + 1, Longs.median((1L << 53) + 1, (1L << 53) + 2));
+      assertEquals(-(1L << 53) - 1, Longs.median(-(1L << 53) - 1, -(1L << 53) - 2));
+      assertEquals(-2, Longs.median(-1, -4, -2, -3));
+      assertArrayEquals(new long[] { -1, 7 }, Longs.mode(7, -1, 3, 7, -1, Long.MAX_VALUE));
+   }
+
+   @Test
+   public void testSortVariants()
+   {
+      Random random = new Random(5);
+      for(int length : new int[] { 0, 1, 33, 3000, 300000 }) {
+         long[] input = new long[length];
+         for(int i = 0; i < length; i++) input[i] = (i % 2 == 0) ? random.nextLong() : random.nextInt(1000);
+         long[] expected = input.clone();
+         Arrays.sort(expected);
+         assertArrayEquals(expected, Longs.sortRadix(input.clone()));
+         assertArrayEquals(expected, Longs.sortParallel(input.clone()));
+         assertArrayEquals(expected, Longs.sortAuto(input.clone()));
+      }
+      assertArrayEquals(new long[] { Long.MIN_VALUE, -1, 0, Long.MAX_VALUE },
+                        Longs.sortRadix(new long[] { 0, Long.MAX_VALUE, -1, Long.MIN_VALUE }));
+      assertNull(Longs.sortAuto(null));
+   }
+
 }
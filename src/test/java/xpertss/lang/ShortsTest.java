@@ -3,7 +3,12 @@ package xpertss.lang;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 public class ShortsTest {
 
@@ -12,7 +17,53 @@ public class ShortsTest {
    {
       assertEquals((short)10, Shorts.parse("10", (short) -1));
       assertEquals((short)10, Shorts.parse(new StringBuilder("10"), (short) -1));
+      assertEquals(Short.MIN_VALUE, Shorts.parse("-32768", (short) -1));
+      assertEquals(Short.MAX_VALUE, Shorts.parse("32767", (short) -1));
+      assertEquals((short) -1, Shorts.parse("32768", (short) -1));
+      assertEquals((short) -1, Shorts.parse("-32769", (short) -1));
+      assertEquals((short) 0x7f, Shorts.parse("0x7f", 2, 4, 16, (short) -1));
+      assertEquals((short) 12, Shorts.parse("a12b", 1, 3, (short) -1));
+      assertEquals((short) -1, Shorts.parse("a12b", 0, 3, (short) -1));
+   }
+
+   @Test
+   public void testMedianAndPercentile()
+   {
+      assertEquals(1, Shorts.median((short) 1));
+      assertEquals(2, Shorts.median(Shorts.toArray((short) 1, (short) 2, (short) 3, (short) 4)));
+      assertEquals(-2, Shorts.median(Shorts.toArray((short) -1, (short) -2, (short) -3, (short) -4)));
+      assertEquals(3, Shorts.median(Shorts.toArray((short) 1, (short) 3, (short) 2, (short) 5, (short) 4)));
+      short[] set = Shorts.toArray((short) 40, (short) 15, (short) 50, (short) 20, (short) 35);
+      assertEquals(15, Shorts.percentile(set, 0));
+      assertEquals(20, Shorts.percentile(set, 40));
+      assertEquals(50, Shorts.percentileInPlace(set, 100));
+      assertThrows(IllegalArgumentException.class, () -> Shorts.median(new short[0]));
+   }
+
+   @Test
+   public void testMode()
+   {
+      assertEquals(0, Shorts.mode(Shorts.toArray((short) 1, (short) 2, (short) 3)).length);
+      assertArrayEquals(Shorts.toArray((short) 2, (short) 3),
+                        Shorts.mode(Shorts.toArray((short) 1, (short) 3, (short) 3, (short) 2, (short) 2, (short) 4)));
+      assertThrows(NullPointerException.class, () -> Shorts.mode((short[]) null));
    }
 
+   @Test
+   public void testSortVariants()
+   {
+      Random random = new Random(5);
+      for(int length : new int[] { 0, 1, 100, 5000 }) {
+         short[] input = new short[length];
+         for(int i = 0; i < length; i++) input[i] = (short) random.nextInt();
+         short[] expected = input.clone();
+         Arrays.sort(expected);
+         assertArrayEquals(expected, Shorts.sortRadix(input.clone()));
+         assertArrayEquals(expected, Shorts.sortParallel(input.clone()));
+         assertArrayEquals(expected, Shorts.sortAuto(input.clone()));
+      }
+      assertArrayEquals(Shorts.toArray(Short.MIN_VALUE, (short) -1, (short) 0, (short) 255, (short) 256, Short.MAX_VALUE),
+                        Shorts.sortRadix(Shorts.toArray((short) 256, Short.MAX_VALUE, (short) 0, (short) -1, (short) 255, Short.MIN_VALUE)));
+   }
 
-}
\ No newline at end of file
+}
@@ -9,6 +9,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
@@ -119,4 +120,39 @@ public class CharTrieTest {
 
    }
 
-}
\ No newline at end of file
+   @Test
+   public void testFindRange()
+   {
+      CharTrie<String> test = new CharTrie<>();
+      test.put("EST", "Eastern Standard");
+      test.put("EDT", "Eastern Daylight");
+      String input = "12:00 EDT today";
+      assertEquals("Eastern Daylight", test.find(input, 6, 9));
+      assertNull(test.find(input, 6, 8));
+      assertNull(test.find(input, 0, 3));
+      assertEquals("Eastern Daylight", test.findChild('E').find(input, 7, 9));
+      assertThrows(IllegalArgumentException.class, () -> test.find(input, 6, 6));
+      assertThrows(IndexOutOfBoundsException.class, () -> test.find(input, 6, 20));
+   }
+
+   @Test
+   public void testLongestPrefixMatch()
+   {
+      CharTrie<String> test = new CharTrie<>();
+      test.put("=", "ASSIGN");
+      test.put("==", "EQ");
+      test.put("===", "SAME");
+      test.put("!=", "NE");
+      assertEquals(3, test.longestPrefixMatch("a === b", 2));
+      assertEquals(2, test.longestPrefixMatch("a == b", 2));
+      assertEquals(1, test.longestPrefixMatch("a = b", 2));
+      assertEquals(2, test.longestPrefixMatch("a != b", 2));
+      assertEquals(0, test.longestPrefixMatch("a !b", 2));
+      assertEquals(0, test.longestPrefixMatch("a", 0));
+      assertEquals(0, test.longestPrefixMatch("a", 1));
+      assertEquals("EQ", test.find("a == b", 2, 2 + test.longestPrefixMatch("a == b", 2)));
+      assertEquals(1, test.findChild('!').longestPrefixMatch("=", 0));
+      assertThrows(IndexOutOfBoundsException.class, () -> test.longestPrefixMatch("a", 2));
+   }
+
+}
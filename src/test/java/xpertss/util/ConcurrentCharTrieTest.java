@@ -0,0 +1,148 @@
+package xpertss.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ConcurrentCharTrieTest {
+
+   @Test
+   public void testPutAndFind()
+   {
+      ConcurrentCharTrie<String> test = new ConcurrentCharTrie<>();
+      assertNull(test.find("EST"));
+      assertNull(test.put("EST", "Eastern Standard"));
+      assertEquals("Eastern Standard", test.put("EST", "Eastern"));
+      test.put("EDT", "Eastern Daylight");
+      assertEquals("Eastern", test.find("EST"));
+      assertEquals("Eastern Daylight", test.findChild('E').find("DT"));
+      assertEquals(3, test.longestPrefixMatch("EDT!", 0));
+      assertEquals(1, test.size());
+      assertTrue(test.isRoot());
+   }
+
+   @Test
+   public void testSnapshotIsolation()
+   {
+      ConcurrentCharTrie<String> test = new ConcurrentCharTrie<>();
+      test.put("a", "a");
+      CharTrie<String> snapshot = test.snapshot();
+      test.put("b", "b");
+      assertNull(snapshot.find("b"));
+      assertEquals("b", test.find("b"));
+      assertNotSame(snapshot, test.snapshot());
+   }
+
+   @Test
+   public void testCopiesSource()
+   {
+      CharTrie<String> source = new CharTrie<>();
+      source.put("abc", "abc");
+      source.put("ab", "ab");
+      ConcurrentCharTrie<String> test = new ConcurrentCharTrie<>(source);
+      source.put("xyz", "xyz");
+      assertEquals("abc", test.find("abc"));
+      assertEquals("ab", test.find("ab"));
+      assertNull(test.find("xyz"));
+
+      test.replace(source);
+      assertEquals("xyz", test.find("xyz"));
+
+      // copying from a frozen trie
+      ConcurrentCharTrie<String> copy = new ConcurrentCharTrie<>(test);
+      assertEquals("abc", copy.find("abc"));
+      assertEquals("xyz", copy.find("xyz"));
+   }
+
+   @Test
+   public void testUpdatePublishesOnce()
+   {
+      ConcurrentCharTrie<Integer> test = new ConcurrentCharTrie<>();
+      CharTrie<Integer> before = test.snapshot();
+      test.update(trie -> {
+         for(int i = 0; i < 100; i++) trie.put("key" + i, i);
+      });
+      CharTrie<Integer> after = test.snapshot();
+      assertNotSame(before, after);
+      assertEquals(Integer.valueOf(42), test.find("key42"));
+      assertSame(after, test.snapshot());
+   }
+
+   @Test
+   public void testFailedUpdateIsDiscarded()
+   {
+      ConcurrentCharTrie<Integer> test = new ConcurrentCharTrie<>();
+      test.put("one", 1);
+      assertThrows(IllegalStateException.class, () -> test.update(trie -> {
+         trie.put("one", 2);
+         trie.put("two", 2);
+         throw new IllegalStateException();
+      }));
+      assertEquals(Integer.valueOf(1), test.find("one"));
+      assertNull(test.find("two"));
+
+      test.put("three", 3);
+      assertEquals(Integer.valueOf(1), test.find("one"));
+      assertNull(test.find("two"));
+      assertEquals(Integer.valueOf(3), test.find("three"));
+   }
+
+   @Test
+   public void testCopyFromConcurrent()
+   {
+      StringBuilder buf = new StringBuilder();
+      for(int i = 0; i < 5000; i++) buf.append((char) ('a' + i % 26));
+      String longKey = buf.toString();
+      ConcurrentCharTrie<Integer> source = new ConcurrentCharTrie<>();
+      source.update(trie -> {
+         for(int i = 0; i < 100; i++) trie.put("key" + i, i);
+         trie.put(longKey, -1);
+      });
+
+      ConcurrentCharTrie<Integer> copy = new ConcurrentCharTrie<>(source);
+      source.put("key0", 100);
+      assertEquals(Integer.valueOf(0), copy.find("key0"));
+      assertEquals(Integer.valueOf(99), copy.find("key99"));
+      assertEquals(Integer.valueOf(-1), copy.find(longKey));
+
+      copy.replace(source);
+      assertEquals(Integer.valueOf(100), copy.find("key0"));
+      assertEquals(Integer.valueOf(-1), copy.find(longKey));
+   }
+
+   @Test
+   public void testConcurrentReaders() throws Exception
+   {
+      ConcurrentCharTrie<Integer> test = new ConcurrentCharTrie<>();
+      test.put("key", 0);
+      AtomicBoolean running = new AtomicBoolean(true);
+      AtomicInteger failures = new AtomicInteger();
+      CountDownLatch done = new CountDownLatch(4);
+      for(int t = 0; t < 4; t++) {
+         new Thread(() -> {
+            try {
+               while(running.get()) {
+                  if(test.find("key") == null) failures.incrementAndGet();
+               }
+            } finally {
+               done.countDown();
+            }
+         }).start();
+      }
+      for(int i = 1; i < 200; i++) test.put("key" + i, i);
+      running.set(false);
+      done.await();
+      assertEquals(0, failures.get());
+      assertEquals(Integer.valueOf(199), test.find("key199"));
+   }
+
+}
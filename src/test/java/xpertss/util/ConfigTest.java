@@ -2,13 +2,17 @@ package xpertss.util;
 
 
 import org.junit.jupiter.api.Test;
+import xpertss.lang.SyntaxException;
 import xpertss.time.Day;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Properties;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -58,6 +62,45 @@ public class ConfigTest {
 
    }
 
+   @Test
+   public void testSubConfigView()
+   {
+      Properties props = new Properties();
+      props.setProperty("tenant.acme.db.url", "jdbc:acme");
+      props.setProperty("tenant.acme.db.pool", "12");
+      props.setProperty("tenant.acme.name", "Acme");
+      props.setProperty("tenant.acme-west.name", "Acme West");
+      props.setProperty("tenant.acmex.name", "AcmeX");
+      props.setProperty("tenant.beta.name", "Beta");
+      props.setProperty("tenant", "root");
+      Config config = Config.create(props);
+
+      Config acme = config.subConfig("tenant.acme");
+      assertEquals("Acme", acme.getProperty("name"));
+      assertNull(acme.getProperty("db"));
+      assertNull(acme.getProperty("url"));
+      assertEquals(3, acme.toMap().size());
+      assertEquals(Arrays.asList("db.pool", "db.url", "name"), new ArrayList<>(acme.toMap().keySet()));
+
+      Config db = config.subConfig("tenant").subConfig("acme").subConfig("db");
+      assertEquals("jdbc:acme", db.getProperty("url"));
+      assertEquals(12, db.getInt("pool"));
+      assertEquals(Integer.valueOf(12), db.get(Config.intKey("pool", 1)));
+      assertEquals(2, db.toMap().size());
+      assertEquals(db.toMap(), acme.subConfig("db").toMap());
+
+      assertTrue(config.subConfig("tenant.gamma").toMap().isEmpty());
+      assertTrue(acme.subConfig("missing").toMap().isEmpty());
+      assertNull(config.subConfig("tenant.gamma").getProperty("name"));
+
+      Properties overlay = new Properties();
+      overlay.setProperty("pool", "20");
+      Config other = db.overlayWith(overlay);
+      assertEquals(20, other.getInt("pool"));
+      assertEquals("jdbc:acme", other.getProperty("url"));
+      assertEquals(12, db.getInt("pool"));
+   }
+
 
    @Test
    public void loadNonExistent()
@@ -93,4 +136,148 @@ public class ConfigTest {
       assertEquals("/home/joeblow/documents/tmp/pdf", config.getProperty("user.dir"));
    }
 
-}
\ No newline at end of file
+   @Test
+   public void testResolveNested()
+   {
+      Properties props = new Properties();
+      props.setProperty("root", "/opt");
+      props.setProperty("app.home", "${root}/app");
+      props.setProperty("app.logs", "${app.home}/logs");
+      props.setProperty("app.archive", "${app.logs}/archive-${missing}");
+      Config config = Config.create(props).resolve();
+      assertEquals("/opt/app/logs", config.getProperty("app.logs"));
+      assertEquals("/opt/app/logs/archive-${missing}", config.getProperty("app.archive"));
+      assertSame(config, config.resolve());
+   }
+
+   @Test
+   public void testResolveCycle()
+   {
+      Properties props = new Properties();
+      props.setProperty("a", "${b}");
+      props.setProperty("b", "x${c}");
+      props.setProperty("c", "${a}");
+      props.setProperty("d", "${d}");
+      SyntaxException e = assertThrows(SyntaxException.class, () -> Config.create(props).resolve());
+      assertTrue(e.getMessage().startsWith("circular property reference"));
+
+      props.setProperty("c", "c");
+      props.setProperty("d", "d");
+      Config config = Config.create(props).resolve();
+      Properties overlay = new Properties();
+      overlay.setProperty("c", "${a}");
+      assertThrows(SyntaxException.class, () -> config.overlayWith(overlay).resolve());
+   }
+
+   @Test
+   public void testResolveLongChain()
+   {
+      Properties props = new Properties();
+      for(int i = 0; i < 5000; i++) props.setProperty("key" + i, "${key" + (i + 1) + "}");
+      props.setProperty("key5000", "end");
+      Config config = Config.create(props).resolve();
+      assertEquals("end", config.getProperty("key0"));
+
+      Properties overlay = new Properties();
+      overlay.setProperty("key5000", "${key0}");
+      SyntaxException e = assertThrows(SyntaxException.class, () -> config.overlayWith(overlay).resolve());
+      assertTrue(e.getMessage().startsWith("circular property reference"));
+      assertTrue(e.getMessage().endsWith("key4999 -> key5000"));
+   }
+
+   @Test
+   public void testResolveOverlayIncremental()
+   {
+      Properties props = new Properties();
+      props.setProperty("user.name", "joeblow");
+      props.setProperty("user.home", "/home/${user.name}");
+      props.setProperty("user.dir", "${user.home}/work");
+      props.setProperty("temp.dir", "/tmp");
+      Config config = Config.create(props).resolve();
+      assertEquals("/home/joeblow/work", config.getProperty("user.dir"));
+
+      Properties overlay = new Properties();
+      overlay.setProperty("user.name", "janedoe");
+      Config other = config.overlayWith(overlay);
+      assertEquals("janedoe", other.getProperty("user.name"));
+      assertEquals("/home/joeblow/work", other.getProperty("user.dir"));
+      other = other.resolve();
+      assertEquals("/home/janedoe", other.getProperty("user.home"));
+      assertEquals("/home/janedoe/work", other.getProperty("user.dir"));
+      assertEquals("/tmp", other.getProperty("temp.dir"));
+
+      overlay = new Properties();
+      overlay.setProperty("user.home", "/users/${user.name}");
+      other = other.overlayWith(overlay).resolve();
+      assertEquals("/users/janedoe/work", other.getProperty("user.dir"));
+      assertEquals("/home/joeblow/work", config.getProperty("user.dir"));
+   }
+
+
+
+   private static final Config.Key<Integer> PORT = Config.intKey("port", 80);
+   private static final Config.Key<Long> TIMEOUT = Config.longKey("timeout", 30000L);
+   private static final Config.Key<Double> RATIO = Config.doubleKey("ratio", 0.5);
+   private static final Config.Key<Boolean> ENABLED = Config.booleanKey("enabled", false);
+   private static final Config.Key<String> HOST = Config.stringKey("host", "localhost");
+   private static final Config.Key<String[]> ALLOWED = Config.stringsKey("allowed", "eth0");
+   private static final Config.Key<Day> DAY = Config.key("day", Day::valueOf, Day.Monday);
+
+   @Test
+   public void testTypedKeys()
+   {
+      Properties props = new Properties();
+      props.setProperty("port", " 8080 ");
+      props.setProperty("timeout", "bogus");
+      props.setProperty("ratio", "0.75");
+      props.setProperty("enabled", "true");
+      props.setProperty("allowed", "eth0, eth1");
+      props.setProperty("day", "Friday");
+      Config config = Config.create(props);
+
+      assertEquals(Integer.valueOf(8080), config.get(PORT));
+      assertEquals(Long.valueOf(30000L), config.get(TIMEOUT));
+      assertEquals(Double.valueOf(0.75), config.get(RATIO));
+      assertEquals(Boolean.TRUE, config.get(ENABLED));
+      assertEquals("localhost", config.get(HOST));
+      assertTrue(Arrays.equals(new String[] { "eth0", "eth1" }, config.get(ALLOWED)));
+      assertEquals(Day.Friday, config.get(DAY));
+
+      // parsed once and cached
+      assertSame(config.get(ALLOWED), config.get(ALLOWED));
+
+      // each config caches its own values
+      Properties overlay = new Properties();
+      overlay.setProperty("port", "9090");
+      Config other = config.overlayWith(overlay);
+      assertEquals(Integer.valueOf(9090), other.get(PORT));
+      assertEquals(Integer.valueOf(8080), config.get(PORT));
+      assertEquals(Day.Friday, other.get(DAY));
+   }
+
+   @Test
+   public void testTypedKeyNullDefault()
+   {
+      Config.Key<String> key = Config.stringKey("missing", null);
+      Config config = Config.create(new Properties());
+      assertNull(config.get(key));
+      assertNull(config.get(key));
+      assertEquals("missing", key.name());
+   }
+
+   @Test
+   public void testManyTypedKeys()
+   {
+      Properties props = new Properties();
+      for(int i = 0; i < 1000; i++) props.setProperty("key" + i, Integer.toString(i));
+      Config config = Config.create(props);
+      List<Config.Key<Integer>> keys = new ArrayList<>();
+      for(int i = 0; i < 1000; i++) {
+         keys.add(Config.intKey("key" + i, -1));
+         assertEquals(Integer.valueOf(i), config.get(keys.get(i)));
+      }
+      for(int i = 0; i < 1000; i++) assertEquals(Integer.valueOf(i), config.get(keys.get(i)));
+      assertEquals(Integer.valueOf(-1), Config.create(new Properties()).get(keys.get(7)));
+   }
+
+}
@@ -0,0 +1,163 @@
+package xpertss.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class DoubleArrayCharTrieTest {
+
+   @Test
+   public void testSimple()
+   {
+      CharTrie<String> source = new CharTrie<>();
+      source.put("EST", "Eastern Standard");
+      source.put("EDT", "Eastern Daylight");
+      source.put("E", "Eastern");
+      CharTrie<String> test = DoubleArrayCharTrie.Builder.create(source).build();
+
+      assertTrue(test.isRoot());
+      assertNull(test.get());
+      assertEquals("Eastern", test.find("E"));
+      assertEquals("Eastern Standard", test.find("EST"));
+      assertEquals("Eastern Daylight", test.find("EDT"));
+      assertNull(test.find("ES"));
+      assertNull(test.find("ESTX"));
+      assertNull(test.find("CST"));
+      assertEquals(1, test.size());
+
+      CharTrie<String> e = test.findChild('E');
+      assertFalse(e.isRoot());
+      assertEquals("Eastern", e.get());
+      assertEquals(2, e.size());
+      assertEquals("Eastern Daylight", e.find("DT"));
+      assertEquals("Eastern Standard", e.findChild('S').findChild('T').get());
+      assertNull(e.findChild('X'));
+      assertNull(test.findChild('S'));
+   }
+
+   @Test
+   public void testImmutable()
+   {
+      CharTrie<String> source = new CharTrie<>();
+      source.put("a", "a");
+      CharTrie<String> test = DoubleArrayCharTrie.Builder.create(source).build();
+      assertThrows(UnsupportedOperationException.class, () -> test.put("b", "b"));
+      assertThrows(IllegalArgumentException.class, () -> test.find(""));
+
+      source.put("b", "b");
+      assertNull(test.find("b"));
+   }
+
+   @Test
+   public void testEmpty()
+   {
+      CharTrie<String> test = DoubleArrayCharTrie.Builder.create(new CharTrie<String>()).build();
+      assertNull(test.find("a"));
+      assertEquals(0, test.size());
+   }
+
+   @Test
+   public void testFromChild()
+   {
+      CharTrie<String> source = new CharTrie<>();
+      source.put("Eastern", "EST");
+      source.put("Central", "CST");
+      CharTrie<String> test = DoubleArrayCharTrie.Builder.create(source.findChild('E')).build();
+      assertEquals("EST", test.find("astern"));
+      assertNull(test.find("entral"));
+   }
+
+   @Test
+   public void testBuildTwice()
+   {
+      CharTrie<String> source = new CharTrie<>();
+      for(int i = 0; i < 100; i++) source.put("key" + i, "value" + i);
+      DoubleArrayCharTrie.Builder<String> builder = DoubleArrayCharTrie.Builder.create(source);
+      CharTrie<String> first = builder.build();
+      source.put("other", "other");
+      CharTrie<String> second = builder.build();
+      assertNull(first.find("other"));
+      assertEquals("other", second.find("other"));
+      for(int i = 0; i < 100; i++) assertEquals("value" + i, second.find("key" + i));
+   }
+
+   @Test
+   public void testChildOrder()
+   {
+      CharTrie<String> source = new CharTrie<>();
+      for(String key : new String[] { "zeta", "alpha", "alpine", "beta", "eta", "Zulu", "\u00e9t\u00e9" }) {
+         source.put(key, key);
+      }
+      CharTrie<String> test = DoubleArrayCharTrie.Builder.create(source).build();
+      assertChildren(source, test);
+   }
+
+   private static void assertChildren(CharTrie<String> expected, CharTrie<String> actual)
+   {
+      assertEquals(expected.size(), actual.size());
+      assertEquals(expected.get(), actual.get());
+      for(int i = 0; i < expected.size(); i++) {
+         assertEquals(expected.codeAt(i), actual.codeAt(i));
+         assertChildren(expected.childAt(i), actual.childAt(i));
+      }
+   }
+
+   @Test
+   public void testLongestPrefixMatch()
+   {
+      CharTrie<String> source = new CharTrie<>();
+      source.put("=", "ASSIGN");
+      source.put("==", "EQ");
+      source.put("===", "SAME");
+      CharTrie<String> test = DoubleArrayCharTrie.Builder.create(source).build();
+      assertEquals(3, test.longestPrefixMatch("a === b", 2));
+      assertEquals(2, test.longestPrefixMatch("a ==! b", 2));
+      assertEquals(0, test.longestPrefixMatch("a ! b", 2));
+      assertEquals("EQ", test.find("a == b", 2, 4));
+      assertNull(test.find("a == b", 1, 4));
+   }
+
+   @Test
+   public void testRandomKeys()
+   {
+      Random random = new Random(31);
+      Map<String,Integer> expected = new HashMap<>();
+      CharTrie<Integer> source = new CharTrie<>();
+      for(int i = 0; i < 5000; i++) {
+         String key = randomKey(random);
+         expected.put(key, i);
+         source.put(key, i);
+      }
+      DoubleArrayCharTrie<Integer> test = DoubleArrayCharTrie.Builder.create(source).build();
+      for(Map.Entry<String,Integer> entry : expected.entrySet()) {
+         assertEquals(entry.getValue(), test.find(entry.getKey()));
+      }
+      for(int i = 0; i < 5000; i++) {
+         String key = randomKey(random);
+         assertEquals(source.find(key), test.find(key));
+         assertEquals(source.longestPrefixMatch(key, 0), test.longestPrefixMatch(key, 0));
+      }
+   }
+
+   private static String randomKey(Random random)
+   {
+      StringBuilder buf = new StringBuilder();
+      int length = 1 + random.nextInt(12);
+      for(int i = 0; i < length; i++) {
+         int kind = random.nextInt(20);
+         if(kind == 0) buf.append((char) (0x4e00 + random.nextInt(64)));
+         else if(kind == 1) buf.append((char) (0xc0 + random.nextInt(64)));
+         else buf.append((char) ('a' + random.nextInt(26)));
+      }
+      return buf.toString();
+   }
+
+}
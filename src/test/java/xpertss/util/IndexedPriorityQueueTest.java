@@ -0,0 +1,167 @@
+package xpertss.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class IndexedPriorityQueueTest {
+
+   @Test
+   public void testNaturalOrdering()
+   {
+      IndexedPriorityQueue<Integer> queue = Queues.newIndexedPriorityQueue();
+      Random random = new Random(42);
+      for(int i = 0; i < 1000; i++) queue.offer(random.nextInt(100000));
+      int last = Integer.MIN_VALUE;
+      while(!queue.isEmpty()) {
+         int next = queue.poll();
+         assertTrue(next >= last);
+         last = next;
+      }
+      assertNull(queue.poll());
+      assertNull(queue.peek());
+   }
+
+   @Test
+   public void testDuplicatesRejected()
+   {
+      IndexedPriorityQueue<String> queue = new IndexedPriorityQueue<>();
+      assertTrue(queue.offer("a"));
+      assertFalse(queue.offer("a"));
+      assertEquals(1, queue.size());
+      assertTrue(queue.contains("a"));
+      assertFalse(queue.contains("b"));
+      assertFalse(queue.contains(null));
+   }
+
+   @Test
+   public void testInvalidArity()
+   {
+      assertThrows(IllegalArgumentException.class, () -> new IndexedPriorityQueue<String>(1, null));
+   }
+
+   @Test
+   public void testUpdate()
+   {
+      Map<String,Integer> priorities = new HashMap<>();
+      IndexedPriorityQueue<String> queue = Queues.newIndexedPriorityQueue(3, Comparator.comparing(priorities::get));
+      for(int i = 0; i < 50; i++) {
+         priorities.put("task" + i, i);
+         queue.offer("task" + i);
+      }
+      assertEquals("task0", queue.peek());
+
+      priorities.put("task42", -1);
+      assertTrue(queue.update("task42"));
+      assertEquals("task42", queue.peek());
+
+      priorities.put("task42", 100);
+      assertTrue(queue.update("task42"));
+      assertEquals("task0", queue.peek());
+
+      assertFalse(queue.update("missing"));
+
+      List<String> order = new ArrayList<>();
+      while(!queue.isEmpty()) order.add(queue.poll());
+      assertEquals("task42", order.get(order.size() - 1));
+      assertEquals(50, order.size());
+   }
+
+   @Test
+   public void testRemove()
+   {
+      IndexedPriorityQueue<Integer> queue = new IndexedPriorityQueue<>(2, Comparator.reverseOrder());
+      for(int i = 0; i < 100; i++) queue.offer(i);
+      for(int i = 0; i < 100; i += 3) assertTrue(queue.remove(i));
+      assertFalse(queue.remove(0));
+      int last = Integer.MAX_VALUE;
+      while(!queue.isEmpty()) {
+         int next = queue.poll();
+         assertTrue(next < last);
+         assertTrue(next % 3 != 0);
+         last = next;
+      }
+   }
+
+   @Test
+   public void testIteratorRemove()
+   {
+      IndexedPriorityQueue<Integer> queue = new IndexedPriorityQueue<>();
+      Random random = new Random(7);
+      for(int i = 0; i < 500; i++) queue.offer(random.nextInt());
+      int visited = 0, removed = 0;
+      for(Iterator<Integer> it = queue.iterator(); it.hasNext(); visited++) {
+         if((it.next() & 1) == 0) {
+            it.remove();
+            removed++;
+         }
+      }
+      assertEquals(500, visited);
+      assertEquals(500 - removed, queue.size());
+      int last = Integer.MIN_VALUE;
+      while(!queue.isEmpty()) {
+         int next = queue.poll();
+         assertTrue((next & 1) != 0);
+         assertTrue(next >= last);
+         last = next;
+      }
+   }
+
+   @Test
+   public void testLongPriorityQueue()
+   {
+      LongPriorityQueue<String> queue = Queues.newLongPriorityQueue();
+      assertTrue(queue.offer("c", 30));
+      assertTrue(queue.offer("a", 10));
+      assertTrue(queue.offer("b", 20));
+      assertFalse(queue.offer("b", 5));
+      assertEquals("a", queue.peek());
+      assertEquals(10, queue.peekPriority());
+
+      assertTrue(queue.update("c", 1));
+      assertEquals("c", queue.peek());
+      assertEquals(1, queue.priority("c"));
+
+      assertTrue(queue.update("c", 50));
+      assertEquals("a", queue.poll());
+      assertEquals("b", queue.poll());
+      assertTrue(queue.remove("c"));
+      assertTrue(queue.isEmpty());
+      assertThrows(NoSuchElementException.class, queue::peekPriority);
+      assertThrows(NoSuchElementException.class, () -> queue.priority("a"));
+   }
+
+   @Test
+   public void testLongPriorityQueueRandom()
+   {
+      LongPriorityQueue<Integer> queue = new LongPriorityQueue<>(8);
+      Random random = new Random(13);
+      for(int i = 0; i < 2000; i++) queue.offer(i, random.nextLong());
+      for(int i = 0; i < 2000; i += 2) queue.update(i, random.nextLong());
+      for(int i = 0; i < 2000; i += 5) queue.remove(i);
+      long last = Long.MIN_VALUE;
+      int count = 0;
+      while(!queue.isEmpty()) {
+         long priority = queue.peekPriority();
+         assertTrue(priority >= last);
+         last = priority;
+         queue.poll();
+         count++;
+      }
+      assertEquals(1600, count);
+   }
+
+}
@@ -0,0 +1,98 @@
+package xpertss.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LocalesTest {
+
+   @Test
+   public void testByCountry()
+   {
+      Set<Locale> locales = Locales.byCountry("us");
+      assertTrue(locales.contains(Locale.US));
+      assertSame(locales, Locales.byCountry("US"));
+      for(Locale locale : locales) assertEquals("US", locale.getCountry());
+      assertTrue(Locales.byCountry("").isEmpty());
+      assertTrue(Locales.byCountry("ZZ").isEmpty());
+      assertThrows(UnsupportedOperationException.class, () -> locales.add(Locale.UK));
+   }
+
+   @Test
+   public void testByLanguage()
+   {
+      Set<Locale> locales = Locales.byLanguage("EN");
+      assertTrue(locales.contains(Locale.US));
+      assertTrue(locales.contains(Locale.UK));
+      for(Locale locale : locales) {
+         assertEquals("en", locale.getLanguage());
+         assertTrue(locale.getCountry().length() > 0);
+      }
+      assertTrue(Locales.byLanguage(null).isEmpty());
+   }
+
+   @Test
+   public void testParse()
+   {
+      assertEquals(Locale.US, Locales.parse("en_us"));
+      assertSame(Locales.parse("en-US"), Locales.parse("en-US"));
+      assertEquals(new Locale("en"), Locales.parse("EN"));
+      assertEquals(new Locale("ja", "JP", "JP"), Locales.parse("ja_JP_JP"));
+      assertEquals(Locale.UK, Locales.parse(null, Locale.UK));
+      assertThrows(IllegalArgumentException.class, () -> Locales.parse("a-b-c-d"));
+   }
+
+   @Test
+   public void testParseAcceptLanguage()
+   {
+      List<Locale> locales = Locales.parseAcceptLanguage("fr-CH, fr;q=0.9, en;q=0.8, de;q=0.7, *;q=0.5");
+      assertEquals(Arrays.asList(new Locale("fr", "CH"), Locale.FRENCH, Locale.ENGLISH, Locale.GERMAN), locales);
+      assertSame(locales, Locales.parseAcceptLanguage("fr-CH, fr;q=0.9, en;q=0.8, de;q=0.7, *;q=0.5"));
+
+      assertEquals(Arrays.asList(Locale.GERMAN, Locale.ENGLISH, Locale.US),
+                     Locales.parseAcceptLanguage("en;q=0.5,de,en-US;q=0.5,fr;q=0,es;q=abc,it;x=1"));
+      assertTrue(Locales.parseAcceptLanguage("").isEmpty());
+      assertTrue(Locales.parseAcceptLanguage(" , *").isEmpty());
+   }
+
+   @Test
+   public void testAcceptLanguageCacheAfterJunk()
+   {
+      for(int i = 0; i < 5000; i++) Locales.parseAcceptLanguage("x" + i + ";q=0.1");
+      List<Locale> locales = Locales.parseAcceptLanguage("pt-BR, pt;q=0.9");
+      assertEquals(Arrays.asList(new Locale("pt", "BR"), new Locale("pt")), locales);
+      assertSame(locales, Locales.parseAcceptLanguage("pt-BR, pt;q=0.9"));
+   }
+
+   @Test
+   public void testMatchSupported()
+   {
+      List<Locale> supported = Arrays.asList(Locale.US, Locale.FRANCE, Locale.GERMAN);
+      assertEquals(Locale.US, Locales.match("fr-CA, en;q=0.8", supported, null));
+      assertEquals(Locale.FRANCE, Locales.match("fr-CA, fr;q=0.9, en;q=0.8", supported, null));
+      assertEquals(Locale.US, Locales.match("en-GB;q=0.9, en;q=0.8", supported, null));
+      assertEquals(Locale.GERMAN, Locales.match("de-AT", supported, null));
+      assertEquals(Locale.US, Locales.match("ja, es;q=0.5", supported, Locale.US));
+      assertNull(Locales.match(null, Collections.<Locale>emptyList(), null));
+   }
+
+   @Test
+   public void testMatchAvailable()
+   {
+      assertEquals(Locale.UK, Locales.match("en-GB, en;q=0.8", null));
+      assertEquals(Locale.ENGLISH, Locales.match("en-ZZ", null));
+      assertEquals(Locale.GERMANY, Locales.match("xx, de-DE;q=0.4", null));
+      assertEquals(Locale.ROOT, Locales.match("xx-YY", Locale.ROOT));
+   }
+
+}
@@ -0,0 +1,62 @@
+package xpertss.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.MissingResourceException;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MapResourceBundleTest {
+
+   @Test
+   public void testFrozenLookup()
+   {
+      Map<String,String> messages = new HashMap<>();
+      for(int i = 0; i < 20000; i++) messages.put("message.key." + i, "Message " + i);
+      MapResourceBundle bundle = MapResourceBundle.frozen(messages);
+      for(Map.Entry<String,String> entry : messages.entrySet()) {
+         assertEquals(entry.getValue(), bundle.getString(entry.getKey()));
+      }
+      assertEquals(messages.keySet(), bundle.keySet());
+      assertTrue(bundle.containsKey("message.key.42"));
+      assertFalse(bundle.containsKey("message.key.20000"));
+      assertThrows(MissingResourceException.class, () -> bundle.getString("message.key.-1"));
+   }
+
+   @Test
+   public void testFrozenHashCollisions()
+   {
+      // "Aa" and "BB" share a hash code as do "AaAa", "AaBB", "BBAa" and "BBBB"
+      Map<String,String> messages = new HashMap<>();
+      for(String key : new String[] { "Aa", "BB", "AaAa", "AaBB", "BBAa", "BBBB", "C" }) {
+         messages.put(key, key.toLowerCase());
+      }
+      MapResourceBundle bundle = MapResourceBundle.frozen(messages);
+      for(Map.Entry<String,String> entry : messages.entrySet()) {
+         assertEquals(entry.getValue(), bundle.getString(entry.getKey()));
+      }
+      Set<String> keys = new HashSet<>();
+      for(Enumeration<String> e = bundle.getKeys(); e.hasMoreElements(); ) keys.add(e.nextElement());
+      assertEquals(messages.keySet(), keys);
+      assertFalse(bundle.containsKey("Ab"));
+   }
+
+   @Test
+   public void testFrozenEmpty()
+   {
+      MapResourceBundle bundle = MapResourceBundle.frozen(Collections.<String,Object>emptyMap());
+      assertTrue(bundle.keySet().isEmpty());
+      assertFalse(bundle.containsKey("key"));
+      assertThrows(NullPointerException.class, () -> MapResourceBundle.frozen(Collections.singletonMap(null, "x")));
+   }
+
+}
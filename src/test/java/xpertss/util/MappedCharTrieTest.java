@@ -0,0 +1,108 @@
+package xpertss.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MappedCharTrieTest {
+
+   @TempDir
+   Path tempDir;
+
+   @Test
+   public void testWriteAndOpen() throws Exception
+   {
+      CharTrie<String> source = new CharTrie<>();
+      source.put("EST", "America/New_York");
+      source.put("EDT", "America/New_York");
+      source.put("CST", "America/Chicago");
+      source.put("CEST", "Europe/Berlin");
+      Path file = tempDir.resolve("zones.trie");
+      MappedCharTrie.write(source, file);
+
+      MappedCharTrie<String> test = MappedCharTrie.open(file);
+      assertTrue(test.isRoot());
+      assertEquals("America/New_York", test.find("EST"));
+      assertEquals("America/New_York", test.find("EDT"));
+      assertEquals("America/Chicago", test.find("CST"));
+      assertEquals("Europe/Berlin", test.find("CEST"));
+      assertNull(test.find("PST"));
+      assertNull(test.find("ES"));
+      assertEquals(2, test.size());
+      assertEquals("America/Chicago", test.findChild('C').find("ST"));
+      assertEquals(4, test.longestPrefixMatch("CEST+1", 0));
+      assertThrows(UnsupportedOperationException.class, () -> test.put("PST", "America/Los_Angeles"));
+   }
+
+   @Test
+   public void testCustomCodec() throws Exception
+   {
+      Random random = new Random(3);
+      CharTrie<Integer> source = new CharTrie<>();
+      for(int i = 0; i < 2000; i++) source.put(Integer.toString(random.nextInt(1000000), 36), i);
+      Path file = tempDir.resolve("ints.trie");
+      MappedCharTrie.write(source, file, value -> ByteBuffer.allocate(4).putInt(value).array());
+
+      MappedCharTrie<Integer> test = MappedCharTrie.open(file, ByteBuffer::getInt);
+      random = new Random(3);
+      for(int i = 0; i < 2000; i++) {
+         String key = Integer.toString(random.nextInt(1000000), 36);
+         assertEquals(source.find(key), test.find(key));
+      }
+
+      // rebuilding from the mapped image
+      CharTrie<Integer> frozen = DoubleArrayCharTrie.Builder.create(test).build();
+      assertEquals(source.find("zz"), frozen.find("zz"));
+   }
+
+   @Test
+   public void testChildOrder() throws Exception
+   {
+      CharTrie<String> source = new CharTrie<>();
+      for(String key : new String[] { "zeta", "alpha", "alpine", "beta", "eta", "Zulu", "\u00e9t\u00e9" }) {
+         source.put(key, key);
+      }
+      Path file = tempDir.resolve("order.trie");
+      MappedCharTrie.write(source, file);
+      assertChildren(source, MappedCharTrie.open(file));
+   }
+
+   private static void assertChildren(CharTrie<String> expected, CharTrie<String> actual)
+   {
+      assertEquals(expected.size(), actual.size());
+      assertEquals(expected.get(), actual.get());
+      for(int i = 0; i < expected.size(); i++) {
+         assertEquals(expected.codeAt(i), actual.codeAt(i));
+         assertChildren(expected.childAt(i), actual.childAt(i));
+      }
+   }
+
+   @Test
+   public void testInvalidImage() throws Exception
+   {
+      Path file = tempDir.resolve("bogus.trie");
+      Files.write(file, new byte[] { 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17, 18, 19, 20 });
+      assertThrows(IllegalArgumentException.class, () -> MappedCharTrie.open(file));
+      assertThrows(IllegalArgumentException.class, () -> MappedCharTrie.wrap(ByteBuffer.allocate(4), ByteBuffer::getInt));
+   }
+
+   @Test
+   public void testEmpty() throws Exception
+   {
+      Path file = tempDir.resolve("empty.trie");
+      MappedCharTrie.write(new CharTrie<String>(), file);
+      MappedCharTrie<String> test = MappedCharTrie.open(file);
+      assertNull(test.find("a"));
+      assertEquals(0, test.size());
+   }
+
+}
@@ -0,0 +1,191 @@
+package xpertss.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RadixCharTrieTest {
+
+   @Test
+   public void testSimpleAdd()
+   {
+      RadixCharTrie<String> test = new RadixCharTrie<>();
+      test.put("a", "a");
+      test.put("c", "c");
+      test.put("b", "b");
+      assertEquals("a", test.find("a"));
+      assertEquals("b", test.find("b"));
+      assertEquals("c", test.find("c"));
+      assertEquals("a", test.findChild('a').get());
+      assertNull(test.get());
+      assertEquals(3, test.size());
+      assertTrue(test.isRoot());
+      assertFalse(test.findChild('a').isRoot());
+   }
+
+   @Test
+   public void testEdgeSplitting()
+   {
+      RadixCharTrie<String> test = new RadixCharTrie<>();
+      assertNull(test.put("www.example.com", "example"));
+      assertNull(test.put("www.example.org", "example-org"));
+      assertNull(test.put("www.ex", "ex"));
+      assertNull(test.put("www.other.com", "other"));
+      assertEquals("ex", test.put("www.ex", "EX"));
+
+      assertEquals("example", test.find("www.example.com"));
+      assertEquals("example-org", test.find("www.example.org"));
+      assertEquals("EX", test.find("www.ex"));
+      assertEquals("other", test.find("www.other.com"));
+      assertNull(test.find("www.e"));
+      assertNull(test.find("www.example"));
+      assertNull(test.find("www.example.comx"));
+      assertNull(test.find("x"));
+      // root, www., ex, ample.:  com, org, other.com
+      assertEquals(7, test.nodeCount());
+   }
+
+   @Test
+   public void testFindChildAlongEdge()
+   {
+      RadixCharTrie<String> test = new RadixCharTrie<>();
+      test.put("EST", "Eastern Standard");
+      test.put("EDT", "Eastern Daylight");
+
+      CharTrie<String> node = test;
+      for(char c : "EDT".toCharArray()) {
+         node = node.findChild(c);
+         assertNotNull(node);
+      }
+      assertEquals("Eastern Daylight", node.get());
+
+      CharTrie<String> e = test.findChild('E');
+      assertNull(e.get());
+      assertEquals(2, e.size());
+      CharTrie<String> s = e.findChild('S');
+      assertEquals(1, s.size());
+      assertNull(s.get());
+      assertNull(s.findChild('X'));
+      assertEquals("Eastern Standard", s.find("T"));
+      assertThrows(UnsupportedOperationException.class, () -> s.put("T", "x"));
+   }
+
+   @Test
+   public void testLongestPrefixMatch()
+   {
+      RadixCharTrie<String> test = new RadixCharTrie<>();
+      test.put("http://", "http");
+      test.put("http://example.com", "example");
+      assertEquals(18, test.longestPrefixMatch("http://example.com/path", 0));
+      assertEquals(7, test.longestPrefixMatch("http://example.org/path", 0));
+      assertEquals(0, test.longestPrefixMatch("https://", 0));
+      assertEquals("example", test.find("GET http://example.com", 4, 22));
+   }
+
+   @Test
+   public void testFreezable()
+   {
+      RadixCharTrie<String> test = new RadixCharTrie<>();
+      test.put("www.example.com", "example");
+      test.put("www.example.org", "example-org");
+      CharTrie<String> frozen = DoubleArrayCharTrie.Builder.create(test).build();
+      assertEquals("example", frozen.find("www.example.com"));
+      assertEquals("example-org", frozen.find("www.example.org"));
+   }
+
+   @Test
+   public void testRandomKeys()
+   {
+      Random random = new Random(17);
+      CharTrie<Integer> expected = new CharTrie<>();
+      RadixCharTrie<Integer> test = new RadixCharTrie<>();
+      for(int i = 0; i < 5000; i++) {
+         String key = randomHost(random);
+         assertEquals(expected.put(key, i), test.put(key, i));
+      }
+      for(int i = 0; i < 5000; i++) {
+         String key = randomHost(random);
+         assertEquals(expected.find(key), test.find(key));
+         assertEquals(expected.longestPrefixMatch(key, 0), test.longestPrefixMatch(key, 0));
+      }
+   }
+
+   @Test
+   public void testNodeCount()
+   {
+      RadixCharTrie<Integer> radix = new RadixCharTrie<>();
+      radix.put("www.example.com", 1);
+      assertEquals(2, radix.nodeCount());
+      radix.put("www.example.org", 2);
+      assertEquals(4, radix.nodeCount());
+      radix.put("www.example.com", 3);
+      assertEquals(4, radix.nodeCount());
+
+      Random random = new Random(5);
+      String[] keys = new String[50000];
+      CharTrie<Integer> plain = new CharTrie<>();
+      radix = new RadixCharTrie<>();
+      for(int i = 0; i < keys.length; i++) {
+         plain.put(keys[i] = randomHost(random), i);
+         radix.put(keys[i], i);
+      }
+      for(int i = 0; i < keys.length; i++) assertEquals(plain.find(keys[i]), radix.find(keys[i]));
+      // every key adds at most one leaf and one split node
+      assertTrue(radix.nodeCount() < 2 * keys.length);
+      // host names share few long prefixes so most CharTrie nodes have a single child
+      assertTrue(radix.nodeCount() * 5 < countNodes(plain));
+   }
+
+   private static int countNodes(CharTrie<?> trie)
+   {
+      int count = 1;
+      for(int i = 0; i < trie.size(); i++) count += countNodes(trie.childAt(i));
+      return count;
+   }
+
+   @Test
+   public void testViewSurvivesEdgeSplit()
+   {
+      RadixCharTrie<Integer> radix = new RadixCharTrie<>();
+      radix.put("www.example.com", 1);
+      CharTrie<Integer> view = walk(radix, "www.exa");
+      CharTrie<Integer> deeper = walk(view, "mple.");
+      assertNotNull(deeper);
+
+      radix.put("www.ex", 2);
+      radix.put("www.example.org", 3);
+
+      assertNull(view.get());
+      assertEquals(Integer.valueOf(1), view.find("mple.com"));
+      assertEquals(Integer.valueOf(3), view.find("mple.org"));
+      assertEquals(2, deeper.size());
+      assertEquals(Integer.valueOf(1), deeper.find("com"));
+      assertEquals(Integer.valueOf(3), deeper.find("org"));
+      assertEquals(walk(radix, "www.example."), deeper);
+      assertEquals(Integer.valueOf(2), walk(radix, "www.ex").get());
+   }
+
+   private static <T> CharTrie<T> walk(CharTrie<T> trie, String path)
+   {
+      for(int i = 0; trie != null && i < path.length(); i++) trie = trie.findChild(path.charAt(i));
+      return trie;
+   }
+
+   private static String randomHost(Random random)
+   {
+      String[] prefixes = { "www.", "api.", "mail.", "" };
+      String[] suffixes = { ".com", ".org", ".net", ".co.uk" };
+      StringBuilder buf = new StringBuilder(prefixes[random.nextInt(prefixes.length)]);
+      int length = 3 + random.nextInt(10);
+      for(int i = 0; i < length; i++) buf.append((char) ('a' + random.nextInt(26)));
+      return buf.append(suffixes[random.nextInt(suffixes.length)]).toString();
+   }
+
+}
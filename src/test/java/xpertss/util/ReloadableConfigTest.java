@@ -0,0 +1,102 @@
+package xpertss.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ReloadableConfigTest {
+
+   private static final Config.Key<Integer> PORT = Config.intKey("server.port", 80);
+
+   @TempDir
+   Path tempDir;
+
+   @Test
+   public void testInitialLoad() throws Exception
+   {
+      Path file = write(tempDir.resolve("app.properties"), "server.port=8080\nserver.host=localhost\n");
+      ReloadableConfig test = ReloadableConfig.create(file, false);
+      assertEquals("localhost", test.get().getProperty("server.host"));
+      assertEquals(8080, test.get(PORT).intValue());
+      assertSame(test.get(), test.get());
+   }
+
+   @Test
+   public void testMissingFile()
+   {
+      assertThrows(ResourceNotFoundException.class, () -> ReloadableConfig.create(tempDir.resolve("none.properties"), false));
+      assertThrows(NullPointerException.class, () -> ReloadableConfig.create(null, false));
+   }
+
+   @Test
+   public void testReloadDiff() throws Exception
+   {
+      Path file = write(tempDir.resolve("app.properties"), "a=1\nb=2\nc=3\n");
+      ReloadableConfig test = ReloadableConfig.create(file, false);
+      BlockingQueue<ReloadableConfig.Change> changes = new LinkedBlockingQueue<>();
+      test.addListener(changes::add);
+
+      assertFalse(test.reload());
+      assertNull(changes.poll());
+
+      Config before = test.get();
+      write(file, "a=1\nb=two\nd=4\n");
+      assertTrue(test.reload());
+      ReloadableConfig.Change change = changes.poll();
+      assertNotNull(change);
+      assertSame(before, change.getPrevious());
+      assertSame(test.get(), change.getCurrent());
+      assertEquals(Sets.of("b", "c", "d"), change.getChanged());
+      assertFalse(change.isChanged("a"));
+      assertEquals("two", test.get().getProperty("b"));
+      assertEquals("2", before.getProperty("b"));
+   }
+
+   @Test
+   public void testWatchFile() throws Exception
+   {
+      Path file = write(tempDir.resolve("app.properties"), "server.port=8080\n");
+      write(tempDir.resolve("other.properties"), "server.port=1\n");
+      ReloadableConfig test = ReloadableConfig.create(file, false, 50, TimeUnit.MILLISECONDS);
+      BlockingQueue<ReloadableConfig.Change> changes = new LinkedBlockingQueue<>();
+      test.addListener(changes::add);
+      test.start();
+      try {
+         assertThrows(IllegalStateException.class, test::start);
+         write(tempDir.resolve("other.properties"), "server.port=2\n");
+         for(int i = 1; i <= 5; i++) write(file, "server.port=" + (9000 + i) + "\n");
+         ReloadableConfig.Change change;
+         do {
+            change = changes.poll(30, TimeUnit.SECONDS);
+            assertNotNull(change);
+            assertTrue(change.isChanged("server.port"));
+         } while(change.getCurrent().get(PORT) != 9005);
+         assertEquals(9005, test.get(PORT).intValue());
+      } finally {
+         test.stop();
+      }
+      write(file, "server.port=1234\n");
+      assertNull(changes.poll(250, TimeUnit.MILLISECONDS));
+      assertEquals(9005, test.get(PORT).intValue());
+   }
+
+   private static Path write(Path file, String content) throws Exception
+   {
+      return Files.write(file, content.getBytes(StandardCharsets.ISO_8859_1));
+   }
+
+}
@@ -0,0 +1,112 @@
+package xpertss.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ResourceLimitsTest {
+
+   @TempDir
+   Path root;
+
+   @Test
+   public void testCgroupV2()
+   {
+      write("cgroup.controllers", "cpuset cpu io memory pids\n");
+      write("cpu.max", "150000 100000\n");
+      write("cpuset.cpus.effective", "0-3,6\n");
+      write("memory.max", "536870912\n");
+      ResourceLimits limits = ResourceLimits.read(root);
+      assertEquals(2, limits.getVersion());
+      assertEquals(1.5, limits.getCpuQuota(), 0.0001);
+      assertEquals(5, limits.getCpuSetSize());
+      assertEquals(536870912L, limits.getMemoryLimit());
+      assertTrue(limits.isLimited());
+      assertEquals(2, limits.processors(16));
+      assertEquals(1, limits.processors(1));
+   }
+
+   @Test
+   public void testCgroupV2Unlimited()
+   {
+      write("cgroup.controllers", "cpu memory\n");
+      write("cpu.max", "max 100000\n");
+      write("memory.max", "max\n");
+      ResourceLimits limits = ResourceLimits.read(root);
+      assertEquals(2, limits.getVersion());
+      assertEquals(-1, limits.getCpuQuota(), 0.0);
+      assertEquals(-1, limits.getCpuSetSize());
+      assertEquals(-1, limits.getMemoryLimit());
+      assertFalse(limits.isLimited());
+      assertEquals(16, limits.processors(16));
+   }
+
+   @Test
+   public void testCgroupV1()
+   {
+      write("cpu/cpu.cfs_quota_us", "400000\n");
+      write("cpu/cpu.cfs_period_us", "100000\n");
+      write("cpuset/cpuset.effective_cpus", "0-1\n");
+      write("memory/memory.limit_in_bytes", "1073741824\n");
+      ResourceLimits limits = ResourceLimits.read(root);
+      assertEquals(1, limits.getVersion());
+      assertEquals(4.0, limits.getCpuQuota(), 0.0001);
+      assertEquals(2, limits.getCpuSetSize());
+      assertEquals(1073741824L, limits.getMemoryLimit());
+      assertEquals(2, limits.processors(8));
+   }
+
+   @Test
+   public void testCgroupV1Unlimited()
+   {
+      write("cpu/cpu.cfs_quota_us", "-1\n");
+      write("cpu/cpu.cfs_period_us", "100000\n");
+      write("memory/memory.limit_in_bytes", "9223372036854771712\n");
+      ResourceLimits limits = ResourceLimits.read(root);
+      assertEquals(1, limits.getVersion());
+      assertFalse(limits.isLimited());
+      assertEquals(-1, limits.getMemoryLimit());
+   }
+
+   @Test
+   public void testNoCgroups()
+   {
+      assertSame(ResourceLimits.UNLIMITED, ResourceLimits.read(root));
+      assertSame(ResourceLimits.UNLIMITED, ResourceLimits.read(root.resolve("missing")));
+      assertEquals(0, ResourceLimits.UNLIMITED.getVersion());
+      assertThrows(NullPointerException.class, () -> ResourceLimits.read(null));
+   }
+
+   @Test
+   public void testPlatformParallelism()
+   {
+      int processors = Platform.processors();
+      assertTrue(processors >= 1 && processors <= Runtime.getRuntime().availableProcessors());
+      assertEquals(processors, Platform.recommendedParallelism());
+      assertEquals(processors, Platform.recommendedParallelism(0));
+      assertEquals(processors * 10, Platform.recommendedParallelism(0.9));
+      assertThrows(IllegalArgumentException.class, () -> Platform.recommendedParallelism(1));
+      assertThrows(IllegalArgumentException.class, () -> Platform.recommendedParallelism(-0.1));
+      assertTrue(Platform.directMemoryLimit() > 0);
+   }
+
+   private void write(String file, String content)
+   {
+      try {
+         Path path = root.resolve(file);
+         Files.createDirectories(path.getParent());
+         Files.write(path, content.getBytes());
+      } catch(Exception e) {
+         throw new AssertionError(e);
+      }
+   }
+
+}
@@ -2,8 +2,18 @@ package xpertss.util;
 
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 /*
@@ -13,7 +23,10 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
  * Date: 7/13/2018
  */
 public class ResourceLoaderTest {
-   
+
+   @TempDir
+   Path tempDir;
+
    @Test
    public void testGetResourceWithNonExistentResource()
    {
@@ -28,4 +41,63 @@ public class ResourceLoaderTest {
       });
    }
 
-}
\ No newline at end of file
+   @Test
+   public void testResourceCaching() throws Exception
+   {
+      Path file = tempDir.resolve("template.html");
+      Files.write(file, "hello".getBytes());
+      Thread thread = Thread.currentThread();
+      ClassLoader original = thread.getContextClassLoader();
+      try(URLClassLoader cl = new URLClassLoader(new URL[] { tempDir.toUri().toURL() }, original)) {
+         thread.setContextClassLoader(cl);
+         URL url = ResourceLoader.getResource("template.html");
+         assertNotNull(url);
+         assertSame(url, ResourceLoader.getResource("template.html"));
+         try(InputStream in = ResourceLoader.getResourceAsStream("template.html")) {
+            assertEquals('h', in.read());
+         }
+         assertNull(ResourceLoader.getResource("missing.html"));
+         assertNull(ResourceLoader.getResourceAsStream("missing.html"));
+
+         // cached results hold until the loader is invalidated
+         Files.move(file, tempDir.resolve("missing.html"));
+         assertSame(url, ResourceLoader.getResource("template.html"));
+         assertNull(ResourceLoader.getResource("missing.html"));
+         ResourceLoader.invalidate(cl);
+         assertNull(ResourceLoader.getResource("template.html"));
+         assertNotNull(ResourceLoader.getResource("missing.html"));
+      } finally {
+         thread.setContextClassLoader(original);
+      }
+   }
+
+   @Test
+   public void testLoadClassCaching() throws Exception
+   {
+      assertSame(ResourceLoaderTest.class, ResourceLoader.loadClass(ResourceLoaderTest.class.getName()));
+      assertSame(ResourceLoaderTest.class, ResourceLoader.loadClass(ResourceLoaderTest.class.getName()));
+      assertThrows(ClassNotFoundException.class, () -> ResourceLoader.loadClass("xpertss.util.DoesNotExist"));
+      assertThrows(ClassNotFoundException.class, () -> ResourceLoader.loadClass("xpertss.util.DoesNotExist"));
+      ResourceLoader.invalidate();
+      assertSame(ResourceLoaderTest.class, ResourceLoader.loadClass(ResourceLoaderTest.class.getName()));
+   }
+
+   @Test
+   public void testMissesAreBounded() throws Exception
+   {
+      Thread thread = Thread.currentThread();
+      ClassLoader original = thread.getContextClassLoader();
+      try(URLClassLoader cl = new URLClassLoader(new URL[] { tempDir.toUri().toURL() }, original)) {
+         thread.setContextClassLoader(cl);
+         for(int i = 0; i < 1000; i++) assertNull(ResourceLoader.getResource("probe" + i + ".html"));
+         Files.write(tempDir.resolve("probe0.html"), "old".getBytes());
+         Files.write(tempDir.resolve("probe999.html"), "new".getBytes());
+         // the eldest misses were discarded while the most recent are still cached
+         assertNotNull(ResourceLoader.getResource("probe0.html"));
+         assertNull(ResourceLoader.getResource("probe999.html"));
+      } finally {
+         thread.setContextClassLoader(original);
+      }
+   }
+
+}
@@ -0,0 +1,136 @@
+package xpertss.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ServiceLoaderTest {
+
+   private static final AtomicInteger created = new AtomicInteger();
+
+   public interface Codec { }
+
+   public static class Gzip implements Codec {
+      public Gzip() { created.incrementAndGet(); }
+   }
+
+   public static class Deflate implements Codec {
+      public Deflate() { created.incrementAndGet(); }
+   }
+
+   public static class NotACodec {
+      public NotACodec() { created.incrementAndGet(); }
+   }
+
+
+   @TempDir
+   Path tempDir;
+
+   @Test
+   public void testLazyInstantiation() throws Exception
+   {
+      Path file = services("# codecs\n"
+                              + Gzip.class.getName() + "  # the default\n"
+                              + "xpertss.util.DoesNotExist\n"
+                              + NotACodec.class.getName() + "\n"
+                              + "\n"
+                              + Gzip.class.getName() + "\n"
+                              + "\t" + Deflate.class.getName() + "\n");
+      try(URLClassLoader cl = classLoader()) {
+         created.set(0);
+         ServiceLoader<Codec> loader = ServiceLoader.load(Codec.class, cl);
+         assertEquals(0, created.get());
+
+         Codec deflate = loader.getProvider(Deflate.class.getName());
+         assertTrue(deflate instanceof Deflate);
+         assertEquals(1, created.get());
+         assertNull(loader.getProvider(NotACodec.class.getName()));
+         assertNull(loader.getProvider("xpertss.util.DoesNotExist"));
+
+         Iterator<Codec> it = loader.iterator();
+         assertTrue(it.next() instanceof Gzip);
+         assertEquals(2, created.get());
+         assertSame(deflate, it.next());
+         assertFalse(it.hasNext());
+         assertThrows(UnsupportedOperationException.class, it::remove);
+
+         // provider names are shared across loaders for the same class loader
+         Files.delete(file);
+         ServiceLoader<Codec> other = ServiceLoader.load(Codec.class, cl);
+         assertEquals(2, collect(other).size());
+         assertSame(deflate, loader.getProvider(Deflate.class.getName()));
+
+         other.reload();
+         assertTrue(collect(other).isEmpty());
+      }
+   }
+
+   @Test
+   public void testPreload() throws Exception
+   {
+      services(Gzip.class.getName() + "\n" + Deflate.class.getName() + "\n");
+      ExecutorService executor = Executors.newFixedThreadPool(2);
+      try(URLClassLoader cl = classLoader()) {
+         created.set(0);
+         ServiceLoader<Codec> loader = ServiceLoader.load(Codec.class, cl);
+         loader.preload(executor);
+         assertEquals(2, created.get());
+         List<Codec> codecs = collect(loader);
+         assertEquals(2, codecs.size());
+         assertTrue(codecs.get(0) instanceof Gzip);
+         assertTrue(codecs.get(1) instanceof Deflate);
+         assertEquals(2, created.get());
+      } finally {
+         executor.shutdown();
+      }
+   }
+
+   @Test
+   public void testNoProviders()
+   {
+      ServiceLoader<Codec> loader = ServiceLoader.load(Codec.class);
+      assertFalse(loader.iterator().hasNext());
+      assertNull(loader.getProvider(Gzip.class.getName()));
+      assertNotNull(loader.toString());
+   }
+
+
+
+   private Path services(String content) throws Exception
+   {
+      Path dir = Files.createDirectories(tempDir.resolve("META-INF/services"));
+      return Files.write(dir.resolve(Codec.class.getName()), content.getBytes(StandardCharsets.UTF_8));
+   }
+
+   private URLClassLoader classLoader() throws Exception
+   {
+      return new URLClassLoader(new URL[] { tempDir.toUri().toURL() }, getClass().getClassLoader());
+   }
+
+   private static List<Codec> collect(ServiceLoader<Codec> loader)
+   {
+      List<Codec> result = new ArrayList<>();
+      for(Codec codec : loader) result.add(codec);
+      return result;
+   }
+
+}